@@ -1,6 +1,9 @@
 package com.github.juliusd.ueberboeseapi;
 
+import com.github.juliusd.ueberboeseapi.analytics.BmxAnalyticsService;
+import com.github.juliusd.ueberboeseapi.bmx.BmxRegistry;
 import com.github.juliusd.ueberboeseapi.bmx.BmxService;
+import com.github.juliusd.ueberboeseapi.customstation.CustomStationService;
 import com.github.juliusd.ueberboeseapi.generated.BmxApi;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxPlaybackResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxReportRequestApiDto;
@@ -9,9 +12,13 @@ import com.github.juliusd.ueberboeseapi.generated.dtos.BmxServicesAvailabilityRe
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxServicesResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxTokenRequestApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxTokenResponseApiDto;
+import jakarta.servlet.http.HttpServletRequest;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -26,34 +33,46 @@ import org.springframework.web.bind.annotation.RestController;
 public class BmxController implements BmxApi {
 
   private final BmxService bmxService;
+  private final BmxRegistry bmxRegistry;
+  private final CustomStationService customStationService;
+  private final BmxAnalyticsService bmxAnalyticsService;
+  private final HttpServletRequest request;
 
   @Override
+  @SuppressWarnings("unchecked")
   public ResponseEntity<BmxServicesResponseApiDto> getBmxServices() {
     log.info("Getting BMX services registry");
 
-    try {
-      BmxServicesResponseApiDto response = bmxService.getBmxServices();
-      return ResponseEntity.ok()
-          .header("Content-Type", "application/json")
-          .header("Access-Control-Allow-Origin", "*")
-          .header("Access-Control-Allow-Methods", "GET, POST, OPTIONS")
-          .header(
-              "Access-Control-Allow-Headers",
-              "DNT,X-CustomHeader,Keep-Alive,User-Agent,X-Requested-With,If-Modified-Since,Cache-Control,Content-Type,Authorization")
-          .body(response);
-    } catch (Exception e) {
-      log.error("Failed to get BMX services", e);
-      return ResponseEntity.internalServerError().build();
-    }
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("Access-Control-Allow-Origin", "*");
+    headers.set("Access-Control-Allow-Methods", "GET, POST, OPTIONS");
+    headers.set(
+        "Access-Control-Allow-Headers",
+        "DNT,X-CustomHeader,Keep-Alive,User-Agent,X-Requested-With,If-Modified-Since,Cache-Control,Content-Type,Authorization");
+    return (ResponseEntity<BmxServicesResponseApiDto>)
+        documentResponse(bmxRegistry.services(), headers);
   }
 
   @Override
+  @SuppressWarnings("unchecked")
   public ResponseEntity<BmxServicesAvailabilityResponseApiDto> getBmxServicesAvailability() {
-    BmxServicesAvailabilityResponseApiDto response = bmxService.getBmxServicesAvailability();
-    return ResponseEntity.ok()
-        .header("Content-Type", "application/json")
-        .header("X-Bmx-Adapter-Version", "master.4.40")
-        .body(response);
+    HttpHeaders headers = new HttpHeaders();
+    headers.set("X-Bmx-Adapter-Version", "master.4.40");
+    return (ResponseEntity<BmxServicesAvailabilityResponseApiDto>)
+        documentResponse(bmxRegistry.servicesAvailability(), headers);
+  }
+
+  /**
+   * Serves a precomputed registry document, or 304 Not Modified if the client already has it. The
+   * generated API expects DTOs, the JSON bytes are written as is by the byte array converter.
+   */
+  private ResponseEntity<?> documentResponse(BmxRegistry.Document document, HttpHeaders headers) {
+    headers.setETag(document.etag());
+    if (document.matches(request.getHeader(HttpHeaders.IF_NONE_MATCH))) {
+      return new ResponseEntity<>(headers, HttpStatus.NOT_MODIFIED);
+    }
+    headers.setContentType(MediaType.APPLICATION_JSON);
+    return new ResponseEntity<>(document.json(), headers, HttpStatus.OK);
   }
 
   @Override
@@ -76,6 +95,34 @@ public class BmxController implements BmxApi {
     }
   }
 
+  @Override
+  public ResponseEntity<BmxPlaybackResponseApiDto> getCatalogStationPlayback(String stationId) {
+    log.info("Getting catalog station playback for station: {}", stationId);
+
+    try {
+      return customStationService
+          .getPlayback(stationId)
+          .map(
+              response ->
+                  ResponseEntity.ok()
+                      .header("Content-Type", "application/json")
+                      .header("Access-Control-Allow-Origin", "*")
+                      .header("Access-Control-Allow-Methods", "GET, POST, OPTIONS")
+                      .header(
+                          "Access-Control-Allow-Headers",
+                          "DNT,X-CustomHeader,Keep-Alive,User-Agent,X-Requested-With,If-Modified-Since,Cache-Control,Content-Type,Authorization")
+                      .body(response))
+          .orElseGet(
+              () -> {
+                log.warn("Catalog station not found: {}", stationId);
+                return ResponseEntity.notFound().build();
+              });
+    } catch (Exception e) {
+      log.error("Failed to get catalog station playback for station: {}", stationId, e);
+      return ResponseEntity.internalServerError().build();
+    }
+  }
+
   @Override
   public ResponseEntity<BmxPlaybackResponseApiDto> getCustomStreamPlayback(String data) {
     log.info("Getting custom stream playback");
@@ -136,7 +183,7 @@ public class BmxController implements BmxApi {
       String guideId,
       String listenId,
       String streamType) {
-    log.info(
+    log.debug(
         "Received TuneIn analytics report: streamId={}, guideId={}, listenId={}, streamType={}, eventType={}",
         streamId,
         guideId,
@@ -145,7 +192,9 @@ public class BmxController implements BmxApi {
         bmxReportRequestApiDto != null ? bmxReportRequestApiDto.getEventType() : "null");
 
     try {
-      BmxReportResponseApiDto response = bmxService.reportAnalytics();
+      BmxReportResponseApiDto response =
+          bmxAnalyticsService.report(
+              bmxReportRequestApiDto, streamId, guideId, listenId, streamType);
       return ResponseEntity.ok()
           .header("Content-Type", "application/json")
           .header("Access-Control-Allow-Origin", "*")
@@ -0,0 +1,112 @@
+package com.github.juliusd.ueberboeseapi;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import java.io.IOException;
+import java.time.DateTimeException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Parses ISO offset dates with either {@code +00:00} or {@code Z}.
+ *
+ * <p>The common shape {@code yyyy-MM-ddTHH:mm:ss[.fraction](Z|+HH:mm)} is read directly from the
+ * parser's character buffer. Anything else, including invalid values, goes through {@link
+ * DateTimeFormatter#ISO_OFFSET_DATE_TIME}, so errors are reported exactly as before.
+ */
+final class OffsetDateTimeXmlDeserializer extends JsonDeserializer<OffsetDateTime> {
+
+  @Override
+  public OffsetDateTime deserialize(JsonParser p, DeserializationContext ctxt) throws IOException {
+    OffsetDateTime parsed = parseFast(p.getTextCharacters(), p.getTextOffset(), p.getTextLength());
+    return parsed != null
+        ? parsed
+        : OffsetDateTime.parse(p.getText(), DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+  }
+
+  /** Returns the parsed date, or null if the text is not in the common shape. */
+  static OffsetDateTime parseFast(char[] text, int offset, int length) {
+    if (text == null || length < 20) {
+      return null;
+    }
+    int end = offset + length;
+    int year = digits(text, offset, 4);
+    int month = digits(text, offset + 5, 2);
+    int day = digits(text, offset + 8, 2);
+    int hour = digits(text, offset + 11, 2);
+    int minute = digits(text, offset + 14, 2);
+    int second = digits(text, offset + 17, 2);
+    if ((year | month | day | hour | minute | second) < 0
+        || text[offset + 4] != '-'
+        || text[offset + 7] != '-'
+        || text[offset + 10] != 'T'
+        || text[offset + 13] != ':'
+        || text[offset + 16] != ':') {
+      return null;
+    }
+
+    int position = offset + 19;
+    int nano = 0;
+    if (text[position] == '.') {
+      position++;
+      int fractionStart = position;
+      while (position < end && position - fractionStart < 9 && isDigit(text[position])) {
+        nano = nano * 10 + (text[position] - '0');
+        position++;
+      }
+      int fractionDigits = position - fractionStart;
+      if (fractionDigits == 0) {
+        return null;
+      }
+      for (int i = fractionDigits; i < 9; i++) {
+        nano *= 10;
+      }
+    }
+
+    ZoneOffset zoneOffset;
+    if (position == end - 1 && text[position] == 'Z') {
+      zoneOffset = ZoneOffset.UTC;
+    } else if (position == end - 6
+        && (text[position] == '+' || text[position] == '-')
+        && text[position + 3] == ':') {
+      int offsetHours = digits(text, position + 1, 2);
+      int offsetMinutes = digits(text, position + 4, 2);
+      if ((offsetHours | offsetMinutes) < 0) {
+        return null;
+      }
+      int totalSeconds = (offsetHours * 60 + offsetMinutes) * 60;
+      try {
+        zoneOffset =
+            ZoneOffset.ofTotalSeconds(text[position] == '-' ? -totalSeconds : totalSeconds);
+      } catch (DateTimeException e) {
+        return null;
+      }
+    } else {
+      return null;
+    }
+
+    try {
+      return OffsetDateTime.of(year, month, day, hour, minute, second, nano, zoneOffset);
+    } catch (DateTimeException e) {
+      return null;
+    }
+  }
+
+  /** Returns the value of {@code count} decimal digits, or -1 if any is not a digit. */
+  private static int digits(char[] text, int position, int count) {
+    int value = 0;
+    for (int i = position; i < position + count; i++) {
+      if (!isDigit(text[i])) {
+        return -1;
+      }
+      value = value * 10 + (text[i] - '0');
+    }
+    return value;
+  }
+
+  private static boolean isDigit(char c) {
+    return c >= '0' && c <= '9';
+  }
+}
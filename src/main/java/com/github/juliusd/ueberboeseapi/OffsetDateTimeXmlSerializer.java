@@ -0,0 +1,79 @@
+package com.github.juliusd.ueberboeseapi;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Writes dates as {@code yyyy-MM-dd'T'HH:mm:ss.SSS+HH:mm}, with {@code +00:00} instead of {@code Z}
+ * as the Bose devices expect.
+ *
+ * <p>The digits are written into a per-thread char buffer that is handed to the generator, so no
+ * formatter, offset string or concatenated result is created per date. Years outside 0-9999 and
+ * offsets with seconds fall back to a cached formatter.
+ */
+final class OffsetDateTimeXmlSerializer extends JsonSerializer<OffsetDateTime> {
+
+  private static final DateTimeFormatter FALLBACK_FORMATTER =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+  private static final int LENGTH = 29;
+  private static final ThreadLocal<char[]> BUFFER = ThreadLocal.withInitial(() -> new char[LENGTH]);
+
+  @Override
+  public void serialize(OffsetDateTime value, JsonGenerator gen, SerializerProvider serializers)
+      throws IOException {
+    int year = value.getYear();
+    int offsetSeconds = value.getOffset().getTotalSeconds();
+    if (year < 0 || year > 9999 || offsetSeconds % 60 != 0) {
+      gen.writeString(format(value));
+      return;
+    }
+
+    char[] buffer = BUFFER.get();
+    write4(buffer, 0, year);
+    buffer[4] = '-';
+    write2(buffer, 5, value.getMonthValue());
+    buffer[7] = '-';
+    write2(buffer, 8, value.getDayOfMonth());
+    buffer[10] = 'T';
+    write2(buffer, 11, value.getHour());
+    buffer[13] = ':';
+    write2(buffer, 14, value.getMinute());
+    buffer[16] = ':';
+    write2(buffer, 17, value.getSecond());
+    buffer[19] = '.';
+    write3(buffer, 20, value.getNano() / 1_000_000);
+    buffer[23] = offsetSeconds < 0 ? '-' : '+';
+    int offsetMinutes = Math.abs(offsetSeconds) / 60;
+    write2(buffer, 24, offsetMinutes / 60);
+    buffer[26] = ':';
+    write2(buffer, 27, offsetMinutes % 60);
+    gen.writeString(buffer, 0, LENGTH);
+  }
+
+  /** Formats a date the same way as {@link #serialize}, allocating as the general case does. */
+  static String format(OffsetDateTime value) {
+    ZoneOffset offset = value.getOffset();
+    String timezone = offset.getTotalSeconds() == 0 ? "+00:00" : offset.getId();
+    return value.format(FALLBACK_FORMATTER) + timezone;
+  }
+
+  private static void write2(char[] buffer, int position, int value) {
+    buffer[position] = (char) ('0' + value / 10);
+    buffer[position + 1] = (char) ('0' + value % 10);
+  }
+
+  private static void write3(char[] buffer, int position, int value) {
+    buffer[position] = (char) ('0' + value / 100);
+    write2(buffer, position + 1, value % 100);
+  }
+
+  private static void write4(char[] buffer, int position, int value) {
+    write2(buffer, position, value / 100);
+    write2(buffer, position + 2, value % 100);
+  }
+}
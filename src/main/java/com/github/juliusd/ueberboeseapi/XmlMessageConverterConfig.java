@@ -1,19 +1,11 @@
 package com.github.juliusd.ueberboeseapi;
 
 import com.fasterxml.jackson.annotation.JsonInclude.Include;
-import com.fasterxml.jackson.core.JsonGenerator;
-import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.DeserializationContext;
-import com.fasterxml.jackson.databind.JsonDeserializer;
-import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.SerializationFeature;
-import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.module.SimpleModule;
 import com.fasterxml.jackson.dataformat.xml.XmlMapper;
 import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
-import java.io.IOException;
 import java.time.OffsetDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import org.jspecify.annotations.NonNull;
@@ -42,13 +34,7 @@ public class XmlMessageConverterConfig implements WebMvcConfigurer {
     xmlMediaTypes.add(MediaType.parseMediaType("application/vnd.bose.streaming-v1.2+xml"));
     xmlConverter.setSupportedMediaTypes(xmlMediaTypes);
 
-    JsonMapper jsonMapper =
-        JsonMapper.builderWithJackson2Defaults()
-            .changeDefaultPropertyInclusion(incl -> incl.withValueInclusion(Include.NON_NULL))
-            .changeDefaultPropertyInclusion(incl -> incl.withContentInclusion(Include.NON_NULL))
-            .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
-            .build();
-    var jsonConverter = new JacksonJsonHttpMessageConverter(jsonMapper);
+    var jsonConverter = new JacksonJsonHttpMessageConverter(createJsonMapper());
     // Configure JSON converter to also handle text/json media type (used by Bose devices)
     List<MediaType> jsonMediaTypes = new ArrayList<>();
     jsonMediaTypes.add(MediaType.APPLICATION_JSON);
@@ -62,6 +48,15 @@ public class XmlMessageConverterConfig implements WebMvcConfigurer {
         .addCustomConverter(xmlConverter);
   }
 
+  /** JSON mapper of the HTTP message converter, e.g. for the BMX and management endpoints. */
+  public static JsonMapper createJsonMapper() {
+    return JsonMapper.builderWithJackson2Defaults()
+        .changeDefaultPropertyInclusion(incl -> incl.withValueInclusion(Include.NON_NULL))
+        .changeDefaultPropertyInclusion(incl -> incl.withContentInclusion(Include.NON_NULL))
+        .disable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+        .build();
+  }
+
   @Bean(name = "customXmlMapper")
   public XmlMapper customXmlMapper() {
     XmlMapper xmlMapper = new XmlMapper();
@@ -78,33 +73,10 @@ public class XmlMessageConverterConfig implements WebMvcConfigurer {
     SimpleModule customModule = new SimpleModule("CustomOffsetDateTimeModule");
 
     // Custom serializer: outputs dates with +00:00 instead of Z
-    customModule.addSerializer(
-        OffsetDateTime.class,
-        new JsonSerializer<>() {
-          @Override
-          public void serialize(
-              OffsetDateTime value, JsonGenerator gen, SerializerProvider serializers)
-              throws IOException {
-            // Format the date with explicit +00:00 timezone format instead of Z
-            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
-            String formattedDate = value.format(formatter);
-            String timezone =
-                value.getOffset().toString().equals("Z") ? "+00:00" : value.getOffset().toString();
-            gen.writeString(formattedDate + timezone);
-          }
-        });
+    customModule.addSerializer(OffsetDateTime.class, new OffsetDateTimeXmlSerializer());
 
     // Custom deserializer: parses dates with both +00:00 and Z formats
-    customModule.addDeserializer(
-        OffsetDateTime.class,
-        new JsonDeserializer<>() {
-          @Override
-          public OffsetDateTime deserialize(JsonParser p, DeserializationContext ctxt)
-              throws IOException {
-            String dateStr = p.getText();
-            return OffsetDateTime.parse(dateStr, DateTimeFormatter.ISO_OFFSET_DATE_TIME);
-          }
-        });
+    customModule.addDeserializer(OffsetDateTime.class, new OffsetDateTimeXmlDeserializer());
     return customModule;
   }
 }
@@ -0,0 +1,35 @@
+package com.github.juliusd.ueberboeseapi.analytics;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the ingestion of TuneIn analytics reports.
+ *
+ * <p>Example configuration in application.properties:
+ *
+ * <pre>
+ * ueberboese.bmx.analytics.queue-capacity=10000
+ * ueberboese.bmx.analytics.batch-size=500
+ * ueberboese.bmx.analytics.report-interval=30m
+ * ueberboese.bmx.analytics.max-report-interval=2h
+ * ueberboese.bmx.analytics.retention=90d
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "ueberboese.bmx.analytics")
+public record BmxAnalyticsProperties(
+    /** Capacity of the in-memory queue between the request threads and the writer. */
+    int queueCapacity,
+    /** Maximum number of reports written as one transaction. */
+    int batchSize,
+    /** Maximum time a report waits in the queue before it is written. */
+    Duration flushInterval,
+    /** Interval devices are asked to report in while the queue is empty. */
+    Duration reportInterval,
+    /**
+     * Interval devices are asked to report in while the queue is full. In between, the interval
+     * grows linearly with the queue fill level.
+     */
+    Duration maxReportInterval,
+    /** Raw reports received longer ago than this are deleted; listening counters are kept. */
+    Duration retention) {}
@@ -0,0 +1,276 @@
+package com.github.juliusd.ueberboeseapi.analytics;
+
+import com.github.juliusd.ueberboeseapi.generated.dtos.BmxReportRequestApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.BmxReportResponseApiDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Ingests the TuneIn analytics reports devices send while playing a station.
+ *
+ * <p>Request threads only put the report into a bounded queue, with client supplied values cut to
+ * their column sizes. {@link #flush()} writes the queued reports in batches: every report is
+ * stored, and the listening time it covers is added to the counters of its station with one
+ * statement per station of the batch. If the queue is full the report is dropped and counted. The
+ * more the queue fills up, the longer devices are asked to wait until their next report.
+ *
+ * <p>Listening time is the advance of {@code timeIntoTrack} since the previous report of the same
+ * listen session, unless playback was paused or stopped in between. Neither the report nor the
+ * reporting link identifies the device that sent it, and the remote address does not either behind
+ * NAT or a proxy or after a DHCP change, so listening time is only counted per station.
+ */
+@Service
+@Slf4j
+public class BmxAnalyticsService {
+
+  /** Listen sessions whose last position is remembered to compute listening time. */
+  private static final int MAX_TRACKED_LISTENS = 10_000;
+
+  /** Column sizes of {@code BMX_REPORT}; event types are an enum and always fit. */
+  private static final int MAX_ID_LENGTH = 255;
+
+  private static final int MAX_STREAM_TYPE_LENGTH = 64;
+  private static final int MAX_REASON_LENGTH = 255;
+
+  private static final DateTimeFormatter TIMESTAMP_FORMAT =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss[.SSS][XXX][XX]");
+
+  private final BmxReportRepository bmxReportRepository;
+  private final ListeningStatRepository listeningStatRepository;
+  private final BmxAnalyticsProperties properties;
+  private final TransactionTemplate transactionTemplate;
+  private final BlockingQueue<Entry> queue;
+  private final Counter written;
+  private final Counter dropped;
+
+  /** Last reported position per listen session, only accessed while holding the flush lock. */
+  private final Map<String, Position> positions =
+      new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, Position> eldest) {
+          return size() > MAX_TRACKED_LISTENS;
+        }
+      };
+
+  public BmxAnalyticsService(
+      BmxReportRepository bmxReportRepository,
+      ListeningStatRepository listeningStatRepository,
+      BmxAnalyticsProperties properties,
+      PlatformTransactionManager transactionManager,
+      MeterRegistry meterRegistry) {
+    this.bmxReportRepository = bmxReportRepository;
+    this.listeningStatRepository = listeningStatRepository;
+    this.properties = properties;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+
+    Gauge.builder("ueberboese.bmx.analytics.queue.size", queue, BlockingQueue::size)
+        .description("Analytics reports waiting to be written")
+        .register(meterRegistry);
+    this.written =
+        Counter.builder("ueberboese.bmx.analytics.written")
+            .description("Analytics reports written to the database")
+            .register(meterRegistry);
+    this.dropped =
+        Counter.builder("ueberboese.bmx.analytics.dropped")
+            .description("Analytics reports not stored because the queue was full")
+            .register(meterRegistry);
+  }
+
+  /**
+   * Queues an analytics report for ingestion. Never blocks.
+   *
+   * @param report Report body
+   * @param streamId TuneIn stream id
+   * @param guideId TuneIn station id
+   * @param listenId Id of the listen session
+   * @param streamType Stream type, e.g. liveRadio
+   * @return Report response telling the device when to report next
+   */
+  public BmxReportResponseApiDto report(
+      BmxReportRequestApiDto report,
+      String streamId,
+      String guideId,
+      String listenId,
+      String streamType) {
+    Entry entry =
+        new Entry(
+            truncate(streamId, MAX_ID_LENGTH),
+            truncate(guideId, MAX_ID_LENGTH),
+            truncate(listenId, MAX_ID_LENGTH),
+            truncate(streamType, MAX_STREAM_TYPE_LENGTH),
+            report != null && report.getEventType() != null
+                ? report.getEventType().getValue()
+                : null,
+            truncate(report != null ? report.getReason() : null, MAX_REASON_LENGTH),
+            report != null ? report.getTimeIntoTrack() : null,
+            report != null ? report.getTimeStamp() : null,
+            OffsetDateTime.now());
+    if (!queue.offer(entry)) {
+      dropped.increment();
+      log.debug("Analytics queue full, dropping report for station {}", guideId);
+    }
+
+    BmxReportResponseApiDto response = new BmxReportResponseApiDto();
+    response.setNextReportIn(nextReportIn());
+    return response;
+  }
+
+  /**
+   * Seconds until the next report, growing linearly from the report interval for an empty queue to
+   * the maximum report interval for a full one.
+   */
+  int nextReportIn() {
+    long min = properties.reportInterval().toSeconds();
+    long max = properties.maxReportInterval().toSeconds();
+    double load = (double) queue.size() / properties.queueCapacity();
+    return (int) (min + (long) ((max - min) * load));
+  }
+
+  /** Writes all queued reports in batches of at most {@code batch-size} reports. */
+  @Scheduled(
+      fixedDelayString = "${ueberboese.bmx.analytics.flush-interval}",
+      initialDelayString = "${ueberboese.bmx.analytics.flush-interval}")
+  @PreDestroy
+  public synchronized void flush() {
+    List<Entry> batch = new ArrayList<>(properties.batchSize());
+    while (queue.drainTo(batch, properties.batchSize()) > 0) {
+      try {
+        write(batch);
+        written.increment(batch.size());
+      } catch (RuntimeException e) {
+        log.error("Failed to write {} analytics reports", batch.size(), e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  /** Deletes raw reports older than the retention. Listening counters are not affected. */
+  @Scheduled(fixedDelay = 1, initialDelay = 1, timeUnit = TimeUnit.HOURS)
+  public void deleteExpiredReports() {
+    int deleted =
+        bmxReportRepository.deleteReceivedBefore(
+            OffsetDateTime.now().minus(properties.retention()));
+    if (deleted > 0) {
+      log.info("Deleted {} analytics reports older than {}", deleted, properties.retention());
+    }
+  }
+
+  private void write(List<Entry> batch) {
+    List<BmxReport> reports = new ArrayList<>(batch.size());
+    Map<String, StatDelta> deltas = new LinkedHashMap<>();
+    for (Entry entry : batch) {
+      BmxReport report = toReport(entry);
+      reports.add(report);
+      if (report.stationId() != null) {
+        deltas.computeIfAbsent(report.stationId(), stationId -> new StatDelta()).add(report);
+      }
+    }
+
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          bmxReportRepository.saveAll(reports);
+          deltas.forEach(
+              (stationId, delta) ->
+                  listeningStatRepository.add(
+                      stationId, delta.listeningSeconds, delta.reportCount, delta.lastReportedAt));
+        });
+    log.debug("Wrote {} analytics reports for {} stations", batch.size(), deltas.size());
+  }
+
+  private BmxReport toReport(Entry entry) {
+    return BmxReport.builder()
+        .stationId(entry.guideId())
+        .streamId(entry.streamId())
+        .listenId(entry.listenId())
+        .streamType(entry.streamType())
+        .eventType(entry.eventType())
+        .reason(entry.reason())
+        .timeIntoTrack(entry.timeIntoTrack())
+        .listeningSeconds(
+            listeningSeconds(entry.listenId(), entry.timeIntoTrack(), entry.eventType()))
+        .reportedAt(parseTimestamp(entry.timeStamp(), entry.receivedAt()))
+        .receivedAt(entry.receivedAt())
+        .build();
+  }
+
+  /**
+   * Cuts a client supplied value to the size of its column, so a single oversized value cannot fail
+   * the insert of a whole batch.
+   */
+  private static String truncate(String value, int maxLength) {
+    return value != null && value.length() > maxLength ? value.substring(0, maxLength) : value;
+  }
+
+  private int listeningSeconds(String listenId, Integer timeIntoTrack, String eventType) {
+    if (listenId == null || timeIntoTrack == null) {
+      return 0;
+    }
+    Position previous = positions.put(listenId, new Position(timeIntoTrack, eventType));
+    if (previous == null || previous.paused() || timeIntoTrack < previous.timeIntoTrack()) {
+      return 0;
+    }
+    return timeIntoTrack - previous.timeIntoTrack();
+  }
+
+  private static OffsetDateTime parseTimestamp(String timestamp, OffsetDateTime fallback) {
+    if (timestamp == null) {
+      return fallback;
+    }
+    try {
+      return OffsetDateTime.parse(timestamp, TIMESTAMP_FORMAT);
+    } catch (DateTimeParseException e) {
+      log.debug("Unparsable analytics timestamp: {}", timestamp);
+      return fallback;
+    }
+  }
+
+  private record Entry(
+      String streamId,
+      String guideId,
+      String listenId,
+      String streamType,
+      String eventType,
+      String reason,
+      Integer timeIntoTrack,
+      String timeStamp,
+      OffsetDateTime receivedAt) {}
+
+  private record Position(int timeIntoTrack, String eventType) {
+    boolean paused() {
+      return "PAUSE".equals(eventType) || "STOP".equals(eventType);
+    }
+  }
+
+  private static class StatDelta {
+    private long listeningSeconds;
+    private long reportCount;
+    private OffsetDateTime lastReportedAt;
+
+    void add(BmxReport report) {
+      listeningSeconds += report.listeningSeconds();
+      reportCount++;
+      if (lastReportedAt == null || report.reportedAt().isAfter(lastReportedAt)) {
+        lastReportedAt = report.reportedAt();
+      }
+    }
+  }
+}
@@ -0,0 +1,23 @@
+package com.github.juliusd.ueberboeseapi.analytics;
+
+import java.time.OffsetDateTime;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/** A TuneIn analytics report as sent by a device. Reports are only ever inserted. */
+@Table("BMX_REPORT")
+@Builder(toBuilder = true)
+public record BmxReport(
+    @Id Long id,
+    String stationId,
+    String streamId,
+    String listenId,
+    String streamType,
+    String eventType,
+    String reason,
+    Integer timeIntoTrack,
+    int listeningSeconds,
+    @NonNull OffsetDateTime reportedAt,
+    @NonNull OffsetDateTime receivedAt) {}
@@ -0,0 +1,15 @@
+package com.github.juliusd.ueberboeseapi.analytics;
+
+import java.time.OffsetDateTime;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BmxReportRepository extends CrudRepository<BmxReport, Long> {
+
+  @Modifying
+  @Query("DELETE FROM BMX_REPORT WHERE RECEIVED_AT < :before")
+  int deleteReceivedBefore(OffsetDateTime before);
+}
@@ -0,0 +1,17 @@
+package com.github.juliusd.ueberboeseapi.analytics;
+
+import java.time.OffsetDateTime;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+/** Listening time on one station, summed up from its analytics reports. */
+@Table("LISTENING_STAT")
+@Builder(toBuilder = true)
+public record ListeningStat(
+    @Id Long id,
+    @NonNull String stationId,
+    long listeningSeconds,
+    long reportCount,
+    @NonNull OffsetDateTime lastReportedAt) {}
@@ -0,0 +1,33 @@
+package com.github.juliusd.ueberboeseapi.analytics;
+
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.springframework.data.jdbc.repository.query.Modifying;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.CrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface ListeningStatRepository extends CrudRepository<ListeningStat, Long> {
+
+  /** Adds listening time and reports to the counters of a station. */
+  @Modifying
+  @Query(
+      """
+      MERGE INTO LISTENING_STAT T
+      USING (VALUES (CAST(:stationId AS VARCHAR(255)))) AS S(STATION_ID)
+      ON T.STATION_ID = S.STATION_ID
+      WHEN MATCHED THEN UPDATE SET
+        LISTENING_SECONDS = T.LISTENING_SECONDS + :listeningSeconds,
+        REPORT_COUNT = T.REPORT_COUNT + :reportCount,
+        LAST_REPORTED_AT = GREATEST(T.LAST_REPORTED_AT, :lastReportedAt)
+      WHEN NOT MATCHED THEN INSERT
+        (STATION_ID, LISTENING_SECONDS, REPORT_COUNT, LAST_REPORTED_AT)
+        VALUES (S.STATION_ID, :listeningSeconds, :reportCount, :lastReportedAt)
+      """)
+  void add(
+      String stationId, long listeningSeconds, long reportCount, OffsetDateTime lastReportedAt);
+
+  @Query("SELECT * FROM LISTENING_STAT ORDER BY LISTENING_SECONDS DESC, STATION_ID")
+  List<ListeningStat> findAllOrderedByListeningTime();
+}
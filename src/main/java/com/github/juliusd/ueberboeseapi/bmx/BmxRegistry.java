@@ -0,0 +1,64 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import com.github.juliusd.ueberboeseapi.XmlMessageConverterConfig;
+import java.util.Arrays;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.DigestUtils;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * The BMX service registry and availability responses, built and serialized once.
+ *
+ * <p>Both only depend on configuration, so they are kept as JSON bytes with an ETag instead of
+ * rebuilding the DTOs for every device asking. The configuration is fixed at startup, so they are
+ * built once when the registry is created.
+ */
+@Component
+@Slf4j
+public class BmxRegistry {
+
+  private final JsonMapper jsonMapper = XmlMessageConverterConfig.createJsonMapper();
+
+  private final Document services;
+  private final Document servicesAvailability;
+
+  public BmxRegistry(BmxService bmxService) {
+    services = toDocument(bmxService.getBmxServices());
+    servicesAvailability = toDocument(bmxService.getBmxServicesAvailability());
+    log.info("BMX registry built, services ETag {}", services.etag());
+  }
+
+  public Document services() {
+    return services;
+  }
+
+  public Document servicesAvailability() {
+    return servicesAvailability;
+  }
+
+  private Document toDocument(Object response) {
+    byte[] json = jsonMapper.writeValueAsBytes(response);
+    return new Document(json, "\"" + DigestUtils.md5DigestAsHex(json) + "\"");
+  }
+
+  /**
+   * A serialized response. The bytes are shared between all requests and must not be modified.
+   *
+   * @param json response body
+   * @param etag strong entity tag of the body, including quotes
+   */
+  public record Document(byte[] json, String etag) {
+
+    /** Whether an {@code If-None-Match} header value matches this document. */
+    public boolean matches(String ifNoneMatch) {
+      if (ifNoneMatch == null) {
+        return false;
+      }
+      return Arrays.stream(ifNoneMatch.split(","))
+          .map(String::trim)
+          .map(tag -> tag.startsWith("W/") ? tag.substring(2) : tag)
+          .anyMatch(tag -> tag.equals("*") || tag.equals(etag));
+    }
+  }
+}
@@ -7,7 +7,6 @@ import com.github.juliusd.ueberboeseapi.generated.dtos.BmxLinkApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxLinkWithClientApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxLinksApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxPlaybackResponseApiDto;
-import com.github.juliusd.ueberboeseapi.generated.dtos.BmxReportResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxServiceApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxServiceAssetsApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.BmxServiceAvailabilityApiDto;
@@ -23,6 +22,10 @@ import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
@@ -37,6 +40,8 @@ public class BmxService {
 
   private final TuneInClient tuneInClient;
   private final UeberboeseApiUrlProperties urlProperties;
+  private final TuneInApiUrlProperties tuneInUrlProperties;
+  private final StreamProber streamProber;
 
   private final JsonMapper jsonMapper = builder().findAndAddModules().build();
 
@@ -64,7 +69,7 @@ public class BmxService {
     // Build response
     BmxServicesResponseApiDto response = new BmxServicesResponseApiDto();
     response.setLinks(topLinks);
-    response.setAskAgainAfter(1234567);
+    response.setAskAgainAfter(Math.toIntExact(urlProperties.askAgainAfter().toMillis()));
     response.setBmxServices(services);
 
     return response;
@@ -297,6 +302,11 @@ public class BmxService {
   /**
    * Fetches TuneIn station playback information.
    *
+   * <p>Metadata and stream URLs are requested concurrently and share one deadline ({@code
+   * tunein.api.timeout}). Without stream URLs there is nothing to play, so their failure fails the
+   * request; missing metadata only leaves the station without its name and logo. The stream URLs
+   * are ordered by {@link StreamProber} so the fastest healthy stream becomes the primary one.
+   *
    * @param stationId TuneIn station ID (e.g., "s80044")
    * @return Playback response with stream URLs and metadata
    */
@@ -304,8 +314,24 @@ public class BmxService {
     log.info("Getting TuneIn playback for stationId: {}", stationId);
 
     // Fetch metadata and stream URLs from TuneIn
-    TuneInClient.StationMetadata metadata = tuneInClient.getStationMetadata(stationId);
-    List<String> streamUrls = tuneInClient.getStreamUrls(stationId);
+    long deadline = System.nanoTime() + tuneInUrlProperties.timeout().toNanos();
+    CompletableFuture<TuneInClient.StationMetadata> metadataFuture =
+        tuneInClient.getStationMetadataAsync(stationId);
+    CompletableFuture<List<String>> streamUrlsFuture = tuneInClient.getStreamUrlsAsync(stationId);
+
+    List<String> streamUrls = streamProber.rank(await(streamUrlsFuture, deadline));
+    TuneInClient.StationMetadata metadata;
+    try {
+      metadata = await(metadataFuture, deadline);
+    } catch (RuntimeException e) {
+      log.warn(
+          "No TuneIn metadata for stationId: {}, playing without it: {}",
+          stationId,
+          e.getMessage());
+      metadata = new TuneInClient.StationMetadata();
+      metadata.setName(stationId);
+      metadata.setLogo("");
+    }
 
     if (streamUrls.isEmpty()) {
       throw new RuntimeException("No stream URLs available for station: " + stationId);
@@ -376,6 +402,25 @@ public class BmxService {
     return response;
   }
 
+  /**
+   * Waits for the future until the deadline (from {@link System#nanoTime()}) without cancelling it.
+   */
+  private static <T> T await(CompletableFuture<T> future, long deadline) {
+    try {
+      return future.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+    } catch (ExecutionException e) {
+      if (e.getCause() instanceof RuntimeException cause) {
+        throw cause;
+      }
+      throw new RuntimeException(e.getCause());
+    } catch (TimeoutException e) {
+      throw new RuntimeException("Timed out waiting for TuneIn", e);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new RuntimeException("Interrupted while waiting for TuneIn", e);
+    }
+  }
+
   /**
    * Decodes and processes custom stream data.
    *
@@ -402,29 +447,7 @@ public class BmxService {
         throw new IllegalArgumentException("streamUrl is required in custom stream data");
       }
 
-      // Build response
-      BmxPlaybackResponseApiDto response = new BmxPlaybackResponseApiDto();
-
-      // Set audio
-      BmxAudioApiDto audio = new BmxAudioApiDto();
-      audio.setHasPlaylist(true);
-      audio.setIsRealtime(true);
-      audio.setStreamUrl(streamUrl);
-
-      // Create single stream
-      BmxStreamApiDto stream = new BmxStreamApiDto();
-      stream.setHasPlaylist(true);
-      stream.setIsRealtime(true);
-      stream.setStreamUrl(streamUrl);
-      audio.setStreams(List.of(stream));
-
-      response.setAudio(audio);
-
-      // Set metadata
-      response.setImageUrl(imageUrl != null ? imageUrl : "");
-      response.setName(name != null ? name : "Custom Stream");
-      response.setStreamType(BmxPlaybackResponseApiDto.StreamTypeEnum.LIVE_RADIO);
-
+      BmxPlaybackResponseApiDto response = buildCustomStreamPlayback(streamUrl, imageUrl, name);
       log.info("Built custom stream playback response for: {}", name);
       return response;
 
@@ -434,6 +457,40 @@ public class BmxService {
     }
   }
 
+  /**
+   * Builds the playback response for a custom stream with a single live stream URL.
+   *
+   * @param streamUrl URL of the audio stream
+   * @param imageUrl URL of the station logo, may be null
+   * @param name Display name of the station, may be null
+   * @return Playback response for the stream
+   */
+  public BmxPlaybackResponseApiDto buildCustomStreamPlayback(
+      String streamUrl, String imageUrl, String name) {
+    BmxPlaybackResponseApiDto response = new BmxPlaybackResponseApiDto();
+
+    // Set audio
+    BmxAudioApiDto audio = new BmxAudioApiDto();
+    audio.setHasPlaylist(true);
+    audio.setIsRealtime(true);
+    audio.setStreamUrl(streamUrl);
+
+    // Create single stream
+    BmxStreamApiDto stream = new BmxStreamApiDto();
+    stream.setHasPlaylist(true);
+    stream.setIsRealtime(true);
+    stream.setStreamUrl(streamUrl);
+    audio.setStreams(List.of(stream));
+
+    response.setAudio(audio);
+
+    // Set metadata
+    response.setImageUrl(imageUrl != null ? imageUrl : "");
+    response.setName(name != null ? name : "Custom Stream");
+    response.setStreamType(BmxPlaybackResponseApiDto.StreamTypeEnum.LIVE_RADIO);
+    return response;
+  }
+
   /**
    * Refreshes TuneIn authentication token. This is a stub implementation that returns the same
    * token.
@@ -451,18 +508,4 @@ public class BmxService {
 
     return response;
   }
-
-  /**
-   * Handles analytics reporting. This is a stub implementation that logs and returns OK.
-   *
-   * @return Report response
-   */
-  public BmxReportResponseApiDto reportAnalytics() {
-    log.info("Received analytics report (stub implementation)");
-
-    BmxReportResponseApiDto response = new BmxReportResponseApiDto();
-    response.setNextReportIn(1800); // Report again in 30 minutes
-
-    return response;
-  }
 }
@@ -0,0 +1,36 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for probing TuneIn stream URLs before handing them to a speaker.
+ *
+ * <p>Example configuration in application.properties:
+ *
+ * <pre>
+ * tunein.stream-probe.enabled=true
+ * tunein.stream-probe.budget=500ms
+ * tunein.stream-probe.timeout=3s
+ * tunein.stream-probe.max-candidates=4
+ * tunein.stream-probe.result-ttl=10m
+ * tunein.stream-probe.failure-ttl=1m
+ * tunein.stream-probe.maximum-size=2000
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "tunein.stream-probe")
+public record StreamProbeProperties(
+    /** Whether stream URLs are probed and reordered at all. */
+    boolean enabled,
+    /** How long a playback request waits for probe results before using what it has. */
+    Duration budget,
+    /** How long a single probe may take; it keeps running in the background after the budget. */
+    Duration timeout,
+    /** Maximum number of stream URLs probed per playback, in the order TuneIn returned them. */
+    int maxCandidates,
+    /** How long the result of a healthy probe is reused. */
+    Duration resultTtl,
+    /** How long the result of a failed probe is reused. */
+    Duration failureTtl,
+    /** Maximum number of stream URLs with a cached probe result. */
+    long maximumSize) {}
@@ -0,0 +1,184 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+
+/**
+ * Probes stream URLs so that a speaker gets the fastest working stream first.
+ *
+ * <p>A probe opens the stream, waits for the first byte of the body and closes the connection
+ * again. A stream is healthy if it answers with a 2xx status, a content type that is not a web page
+ * and at least one byte. Results are cached per URL, failures for a shorter time.
+ *
+ * <p>All candidates of a playback are probed in parallel. The request waits at most {@code
+ * tunein.stream-probe.budget} for them; probes still running are left to finish in the background,
+ * so the next playback of the station can use their results.
+ */
+@Component
+@Slf4j
+public class StreamProber {
+
+  private static final Set<String> UNPLAYABLE_TYPES = Set.of("text/html", "application/json");
+
+  private final StreamProbeProperties properties;
+  private final WebClient webClient;
+  private final AsyncCache<String, StreamProbe> results;
+
+  public StreamProber(StreamProbeProperties properties, MeterRegistry meterRegistry) {
+    this.properties = properties;
+    this.webClient = WebClient.builder().build();
+    this.results =
+        CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            Caffeine.newBuilder()
+                .maximumSize(properties.maximumSize())
+                .expireAfter(new ProbeExpiry(properties.resultTtl(), properties.failureTtl()))
+                .recordStats()
+                .<String, StreamProbe>buildAsync(),
+            "tunein.stream-probes");
+  }
+
+  /**
+   * Orders stream URLs for playback: healthy streams by time to first byte, then streams without a
+   * probe result yet, then unhealthy ones. Within the latter two groups the original order is kept.
+   * Returns the URLs unchanged if probing is disabled.
+   */
+  public List<String> rank(List<String> streamUrls) {
+    if (!properties.enabled() || streamUrls.size() < 2) {
+      return streamUrls;
+    }
+
+    List<String> candidates =
+        streamUrls.subList(0, Math.min(streamUrls.size(), properties.maxCandidates()));
+    List<CompletableFuture<StreamProbe>> probes =
+        candidates.stream().map(url -> results.get(url, (key, executor) -> probe(key))).toList();
+    try {
+      CompletableFuture.allOf(probes.toArray(CompletableFuture[]::new))
+          .get(properties.budget().toNanos(), TimeUnit.NANOSECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    } catch (Exception e) {
+      log.debug("Stream probe budget exhausted for {} candidates", candidates.size());
+    }
+
+    List<Ranked> ranked = new ArrayList<>(streamUrls.size());
+    for (int i = 0; i < streamUrls.size(); i++) {
+      StreamProbe probe = i < probes.size() ? probes.get(i).getNow(null) : null;
+      ranked.add(new Ranked(streamUrls.get(i), probe, i));
+    }
+    ranked.sort(Ranked.ORDER);
+    return ranked.stream().map(Ranked::url).toList();
+  }
+
+  /** Drops all cached probe results. */
+  public void invalidateCache() {
+    results.synchronous().invalidateAll();
+  }
+
+  private CompletableFuture<StreamProbe> probe(String url) {
+    long start = System.nanoTime();
+    return webClient
+        .get()
+        .uri(url)
+        .exchangeToMono(
+            response -> {
+              MediaType contentType = response.headers().contentType().orElse(null);
+              if (!response.statusCode().is2xxSuccessful() || !isPlayable(contentType)) {
+                return response.releaseBody().thenReturn(StreamProbe.unhealthy());
+              }
+              return response
+                  .bodyToFlux(DataBuffer.class)
+                  .next()
+                  .map(
+                      buffer -> {
+                        DataBufferUtils.release(buffer);
+                        return StreamProbe.healthy(Duration.ofNanos(System.nanoTime() - start));
+                      })
+                  .defaultIfEmpty(StreamProbe.unhealthy());
+            })
+        .timeout(properties.timeout())
+        .onErrorResume(
+            e -> {
+              log.debug("Stream probe failed for {}: {}", url, e.toString());
+              return Mono.just(StreamProbe.unhealthy());
+            })
+        .toFuture();
+  }
+
+  private static boolean isPlayable(MediaType contentType) {
+    return contentType == null
+        || !UNPLAYABLE_TYPES.contains(contentType.getType() + "/" + contentType.getSubtype());
+  }
+
+  /**
+   * Result of probing a stream URL.
+   *
+   * @param healthy whether the stream delivered data
+   * @param timeToFirstByte time from sending the request to the first body byte, null if unhealthy
+   */
+  record StreamProbe(boolean healthy, Duration timeToFirstByte) {
+
+    static StreamProbe healthy(Duration timeToFirstByte) {
+      return new StreamProbe(true, timeToFirstByte);
+    }
+
+    static StreamProbe unhealthy() {
+      return new StreamProbe(false, null);
+    }
+  }
+
+  private record Ranked(String url, StreamProbe probe, int position) {
+
+    static final Comparator<Ranked> ORDER =
+        Comparator.comparingInt(Ranked::group)
+            .thenComparing(
+                ranked -> ranked.group() == 0 ? ranked.probe().timeToFirstByte() : Duration.ZERO)
+            .thenComparingInt(Ranked::position);
+
+    /** 0 = healthy, 1 = not probed (yet), 2 = unhealthy. */
+    int group() {
+      if (probe == null) {
+        return 1;
+      }
+      return probe.healthy() ? 0 : 2;
+    }
+  }
+
+  private record ProbeExpiry(Duration resultTtl, Duration failureTtl)
+      implements Expiry<String, StreamProbe> {
+
+    @Override
+    public long expireAfterCreate(String url, StreamProbe probe, long currentTime) {
+      return (probe.healthy() ? resultTtl : failureTtl).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String url, StreamProbe probe, long currentTime, long currentDuration) {
+      return expireAfterCreate(url, probe, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String url, StreamProbe probe, long currentTime, long currentDuration) {
+      return currentDuration;
+    }
+  }
+}
@@ -1,6 +1,12 @@
 package com.github.juliusd.ueberboeseapi.bmx;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * TuneIn OPML endpoints and the time a playback request waits for them.
+ *
+ * @param timeout deadline for a single TuneIn call and for a playback lookup as a whole
+ */
 @ConfigurationProperties(prefix = "tunein.api")
-public record TuneInApiUrlProperties(String describeUrl, String streamUrl) {}
+public record TuneInApiUrlProperties(String describeUrl, String streamUrl, Duration timeout) {}
@@ -0,0 +1,33 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the caches in front of the TuneIn OPML API.
+ *
+ * <p>Example configuration in application.properties:
+ *
+ * <pre>
+ * tunein.cache.maximum-size=1000
+ * tunein.cache.metadata-ttl=24h
+ * tunein.cache.metadata-refresh=1h
+ * tunein.cache.stream-url-ttl=1h
+ * tunein.cache.stream-url-refresh=10m
+ * tunein.cache.failure-ttl=30s
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "tunein.cache")
+public record TuneInCacheProperties(
+    /** Maximum number of stations held per cache. */
+    long maximumSize,
+    /** How long station metadata is served at most. */
+    Duration metadataTtl,
+    /** Age after which station metadata is reloaded in the background on access. */
+    Duration metadataRefresh,
+    /** How long stream URLs are served at most. */
+    Duration streamUrlTtl,
+    /** Age after which stream URLs are reloaded in the background on access. */
+    Duration streamUrlRefresh,
+    /** How long a failed lookup is answered from the cache before TuneIn is asked again. */
+    Duration failureTtl) {}
@@ -1,36 +1,87 @@
 package com.github.juliusd.ueberboeseapi.bmx;
 
+import com.github.benmanes.caffeine.cache.AsyncCacheLoader;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import jakarta.xml.bind.annotation.XmlAccessType;
 import jakarta.xml.bind.annotation.XmlAccessorType;
 import jakarta.xml.bind.annotation.XmlElement;
 import jakarta.xml.bind.annotation.XmlRootElement;
-import java.io.StringReader;
-import javax.xml.parsers.DocumentBuilder;
-import javax.xml.parsers.DocumentBuilderFactory;
+import java.io.InputStream;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
 import lombok.Data;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.w3c.dom.Document;
-import org.w3c.dom.Element;
-import org.w3c.dom.Node;
-import org.w3c.dom.NodeList;
-import org.xml.sax.InputSource;
+import reactor.core.publisher.Mono;
 
 /**
  * Client for interacting with TuneIn APIs to fetch station metadata and stream URLs. Uses TuneIn's
  * public OPML API.
+ *
+ * <p>Both lookups are served from size-bounded caches with their own TTLs (see {@link
+ * TuneInCacheProperties}). Entries older than the refresh interval are still returned while a
+ * reload runs in the background; if that reload fails, the stale entry is kept until its TTL ends.
+ * Failed lookups are cached for a short time as well, so an unavailable TuneIn is not asked again
+ * on every preset press. Cache statistics are published as {@code cache.*} metrics and upstream
+ * calls as {@code ueberboese.tunein.requests}.
  */
 @Component
 @Slf4j
 public class TuneInClient {
 
+  /** Thread-safe once configured; DTDs and external entities are disabled against XXE. */
+  private static final XMLInputFactory XML_INPUT_FACTORY = createXmlInputFactory();
+
+  private static final Set<String> STATION_FIELDS =
+      Set.of("name", "logo", "current_song", "current_artist");
+
   private final WebClient webClient;
   private final TuneInApiUrlProperties urlProperties;
+  private final MeterRegistry meterRegistry;
+  private final AsyncLoadingCache<String, Lookup<StationMetadata>> metadataCache;
+  private final AsyncLoadingCache<String, Lookup<List<String>>> streamUrlCache;
 
-  public TuneInClient(TuneInApiUrlProperties urlProperties) {
+  public TuneInClient(
+      TuneInApiUrlProperties urlProperties,
+      TuneInCacheProperties cacheProperties,
+      MeterRegistry meterRegistry) {
     this.webClient = WebClient.builder().build();
     this.urlProperties = urlProperties;
+    this.meterRegistry = meterRegistry;
+    this.metadataCache =
+        CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            buildCache(
+                cacheProperties,
+                cacheProperties.metadataTtl(),
+                cacheProperties.metadataRefresh(),
+                this::fetchStationMetadata),
+            "tunein.metadata");
+    this.streamUrlCache =
+        CaffeineCacheMetrics.monitor(
+            meterRegistry,
+            buildCache(
+                cacheProperties,
+                cacheProperties.streamUrlTtl(),
+                cacheProperties.streamUrlRefresh(),
+                this::fetchStreamUrls),
+            "tunein.stream-urls");
   }
 
   /**
@@ -40,17 +91,10 @@ public class TuneInClient {
    * @return Station metadata
    */
   public StationMetadata getStationMetadata(String stationId) {
-    try {
-      String url = String.format(urlProperties.describeUrl(), stationId);
-      log.info("Fetching TuneIn station metadata from: {}", url);
-
-      String xmlResponse = webClient.get().uri(url).retrieve().bodyToMono(String.class).block();
-
-      return parseStationMetadata(xmlResponse);
-    } catch (Exception e) {
-      log.error("Failed to fetch station metadata for stationId: {}", stationId, e);
-      throw new RuntimeException("Failed to fetch TuneIn station metadata", e);
-    }
+    return metadataCache
+        .get(stationId)
+        .join()
+        .orElseThrow("Failed to fetch TuneIn station metadata");
   }
 
   /**
@@ -59,27 +103,165 @@ public class TuneInClient {
    * @param stationId TuneIn station ID (e.g., "s80044")
    * @return List of stream URLs
    */
-  public java.util.List<String> getStreamUrls(String stationId) {
-    try {
-      String url = String.format(urlProperties.streamUrl(), stationId);
-      log.info("Fetching TuneIn stream URLs from: {}", url);
+  public List<String> getStreamUrls(String stationId) {
+    return streamUrlCache.get(stationId).join().orElseThrow("Failed to fetch TuneIn stream URLs");
+  }
+
+  /**
+   * Like {@link #getStationMetadata} but without waiting for TuneIn. The future completes
+   * exceptionally if the lookup failed.
+   */
+  public CompletableFuture<StationMetadata> getStationMetadataAsync(String stationId) {
+    return metadataCache
+        .get(stationId)
+        .thenApply(lookup -> lookup.orElseThrow("Failed to fetch TuneIn station metadata"));
+  }
 
-      String response = webClient.get().uri(url).retrieve().bodyToMono(String.class).block();
+  /**
+   * Like {@link #getStreamUrls} but without waiting for TuneIn. The future completes exceptionally
+   * if the lookup failed.
+   */
+  public CompletableFuture<List<String>> getStreamUrlsAsync(String stationId) {
+    return streamUrlCache
+        .get(stationId)
+        .thenApply(lookup -> lookup.orElseThrow("Failed to fetch TuneIn stream URLs"));
+  }
+
+  /**
+   * Loads station metadata and stream URLs into the caches, replacing entries that are already
+   * there. A failed reload keeps the cached values. The future completes when both calls are done.
+   */
+  public CompletableFuture<Void> refresh(String stationId) {
+    return CompletableFuture.allOf(
+        metadataCache.synchronous().refresh(stationId),
+        streamUrlCache.synchronous().refresh(stationId));
+  }
 
-      // TuneIn returns stream URLs as plain text, one per line
-      if (response == null || response.isEmpty()) {
-        log.warn("Empty response from TuneIn stream URL endpoint");
-        return java.util.Collections.emptyList();
+  /** Drops all cached station metadata and stream URLs. */
+  public void invalidateCache() {
+    metadataCache.synchronous().invalidateAll();
+    streamUrlCache.synchronous().invalidateAll();
+  }
+
+  private Mono<StationMetadata> fetchStationMetadata(String stationId) {
+    String url = String.format(urlProperties.describeUrl(), stationId);
+    log.info("Fetching TuneIn station metadata from: {}", url);
+
+    return DataBufferUtils.join(webClient.get().uri(url).retrieve().bodyToFlux(DataBuffer.class))
+        .switchIfEmpty(
+            Mono.error(new RuntimeException("Empty response from TuneIn describe endpoint")))
+        .map(this::parseStationMetadata)
+        .timeout(urlProperties.timeout())
+        .doOnSuccess(metadata -> countRequest("describe", "success"))
+        .doOnError(
+            e -> {
+              countRequest("describe", "failure");
+              log.error("Failed to fetch station metadata for stationId: {}", stationId, e);
+            });
+  }
+
+  private Mono<List<String>> fetchStreamUrls(String stationId) {
+    String url = String.format(urlProperties.streamUrl(), stationId);
+    log.info("Fetching TuneIn stream URLs from: {}", url);
+
+    return webClient
+        .get()
+        .uri(url)
+        .retrieve()
+        .bodyToMono(String.class)
+        .timeout(urlProperties.timeout())
+        .defaultIfEmpty("")
+        .map(
+            response -> {
+              // TuneIn returns stream URLs as plain text, one per line
+              if (response.isEmpty()) {
+                log.warn("Empty response from TuneIn stream URL endpoint");
+                return List.<String>of();
+              }
+              return Arrays.stream(response.split("\n"))
+                  .filter(line -> !line.trim().isEmpty())
+                  .map(String::trim)
+                  .toList();
+            })
+        .doOnSuccess(streamUrls -> countRequest("tune", "success"))
+        .doOnError(
+            e -> {
+              countRequest("tune", "failure");
+              log.error("Failed to fetch stream URLs for stationId: {}", stationId, e);
+            });
+  }
+
+  private void countRequest(String endpoint, String outcome) {
+    meterRegistry
+        .counter("ueberboese.tunein.requests", "endpoint", endpoint, "outcome", outcome)
+        .increment();
+  }
+
+  private static <T> AsyncLoadingCache<String, Lookup<T>> buildCache(
+      TuneInCacheProperties cacheProperties,
+      Duration ttl,
+      Duration refresh,
+      Function<String, Mono<T>> fetcher) {
+    return Caffeine.newBuilder()
+        .maximumSize(cacheProperties.maximumSize())
+        .expireAfter(new LookupExpiry<T>(ttl, cacheProperties.failureTtl()))
+        .refreshAfterWrite(refresh)
+        .recordStats()
+        .buildAsync(new LookupLoader<>(fetcher));
+  }
+
+  /** Result of a TuneIn call; failures are cached like values, only for a shorter time. */
+  private record Lookup<T>(T value, Throwable failure) {
+
+    T orElseThrow(String message) {
+      if (failure != null) {
+        throw new RuntimeException(message, failure);
       }
+      return value;
+    }
+  }
 
-      return java.util.Arrays.stream(response.split("\n"))
-          .filter(line -> !line.trim().isEmpty())
-          .map(String::trim)
-          .toList();
+  private record LookupLoader<T>(Function<String, Mono<T>> fetcher)
+      implements AsyncCacheLoader<String, Lookup<T>> {
 
-    } catch (Exception e) {
-      log.error("Failed to fetch stream URLs for stationId: {}", stationId, e);
-      throw new RuntimeException("Failed to fetch TuneIn stream URLs", e);
+    @Override
+    public CompletableFuture<Lookup<T>> asyncLoad(String stationId, Executor executor) {
+      return fetcher
+          .apply(stationId)
+          .map(value -> new Lookup<T>(value, null))
+          .onErrorResume(e -> Mono.just(new Lookup<>(null, e)))
+          .toFuture();
+    }
+
+    /** A failed refresh leaves the previous value in place instead of caching the failure. */
+    @Override
+    public CompletableFuture<Lookup<T>> asyncReload(
+        String stationId, Lookup<T> oldValue, Executor executor) {
+      if (oldValue.failure() != null) {
+        return asyncLoad(stationId, executor);
+      }
+      return fetcher.apply(stationId).map(value -> new Lookup<T>(value, null)).toFuture();
+    }
+  }
+
+  private record LookupExpiry<T>(Duration ttl, Duration failureTtl)
+      implements Expiry<String, Lookup<T>> {
+
+    @Override
+    public long expireAfterCreate(String stationId, Lookup<T> lookup, long currentTime) {
+      return (lookup.failure() != null ? failureTtl : ttl).toNanos();
+    }
+
+    @Override
+    public long expireAfterUpdate(
+        String stationId, Lookup<T> lookup, long currentTime, long currentDuration) {
+      return expireAfterCreate(stationId, lookup, currentTime);
+    }
+
+    @Override
+    public long expireAfterRead(
+        String stationId, Lookup<T> lookup, long currentTime, long currentDuration) {
+      return currentDuration;
     }
   }
 
@@ -90,55 +272,133 @@ public class TuneInClient {
    * type="audio"> <station> <name>Radio TEDDY</name> <logo>http://...</logo>
    * <current_song>...</current_song> <current_artist>...</current_artist> </station> </outline>
    * </body> </opml>
+   *
+   * <p>Reading stops at the end of the first station element.
    */
-  private StationMetadata parseStationMetadata(String xmlResponse) {
-    try {
-      DocumentBuilderFactory factory = DocumentBuilderFactory.newInstance();
-      DocumentBuilder builder = factory.newDocumentBuilder();
-      Document doc = builder.parse(new InputSource(new StringReader(xmlResponse)));
+  private StationMetadata parseStationMetadata(DataBuffer xmlResponse) {
+    XMLStreamReader reader = null;
+    try (InputStream in = xmlResponse.asInputStream(true)) {
+      reader = XML_INPUT_FACTORY.createXMLStreamReader(in);
 
       // Navigate to station element: opml > body > outline > station
-      NodeList bodyNodes = doc.getElementsByTagName("body");
-      if (bodyNodes.getLength() == 0) {
+      if (!nextStartElement(reader, "body", 0)) {
         throw new RuntimeException("No body element in TuneIn response");
       }
-
-      Element body = (Element) bodyNodes.item(0);
-      NodeList outlineNodes = body.getElementsByTagName("outline");
-      if (outlineNodes.getLength() == 0) {
+      if (!nextStartElement(reader, "outline", 1)) {
         throw new RuntimeException("No outline element in TuneIn response");
       }
-
-      Element outline = (Element) outlineNodes.item(0);
-      NodeList stationNodes = outline.getElementsByTagName("station");
-      if (stationNodes.getLength() == 0) {
+      if (!nextStartElement(reader, "station", 1)) {
         throw new RuntimeException("No station element in TuneIn response");
       }
 
-      Element station = (Element) stationNodes.item(0);
-
-      StationMetadata metadata = new StationMetadata();
-      metadata.setName(getElementText(station, "name"));
-      metadata.setLogo(getElementText(station, "logo"));
-      metadata.setCurrentSong(getElementText(station, "current_song"));
-      metadata.setCurrentArtist(getElementText(station, "current_artist"));
-
+      StationMetadata metadata = readStation(reader);
       log.info("Parsed station metadata: name={}, logo={}", metadata.getName(), metadata.getLogo());
       return metadata;
 
     } catch (Exception e) {
       log.error("Failed to parse TuneIn XML response", e);
       throw new RuntimeException("Failed to parse TuneIn XML", e);
+    } finally {
+      if (reader != null) {
+        try {
+          reader.close();
+        } catch (XMLStreamException e) {
+          log.debug("Failed to close TuneIn XML reader", e);
+        }
+      }
     }
   }
 
-  private String getElementText(Element parent, String tagName) {
-    NodeList nodes = parent.getElementsByTagName(tagName);
-    if (nodes.getLength() > 0) {
-      Node node = nodes.item(0);
-      return node.getTextContent();
+  /**
+   * Advances to the next start element with the given name. With a {@code scopeDepth} of 1 the
+   * search ends at the end of the element the reader is currently in, with 0 it covers the rest of
+   * the document.
+   */
+  private static boolean nextStartElement(XMLStreamReader reader, String name, int scopeDepth)
+      throws XMLStreamException {
+    int depth = scopeDepth;
+    while (reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.START_ELEMENT) {
+        if (name.equals(reader.getLocalName())) {
+          return true;
+        }
+        depth++;
+      } else if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+        if (scopeDepth > 0 && depth == 0) {
+          return false;
+        }
+      }
     }
-    return "";
+    return false;
+  }
+
+  /**
+   * Reads the first occurrence of each field below the current station element. Stops at the end of
+   * the station element, the rest of the document is never read.
+   */
+  private static StationMetadata readStation(XMLStreamReader reader) throws XMLStreamException {
+    String name = null;
+    String logo = null;
+    String currentSong = null;
+    String currentArtist = null;
+
+    int depth = 1;
+    while (depth > 0 && reader.hasNext()) {
+      int event = reader.next();
+      if (event == XMLStreamConstants.END_ELEMENT) {
+        depth--;
+      } else if (event == XMLStreamConstants.START_ELEMENT) {
+        String element = reader.getLocalName();
+        if (!STATION_FIELDS.contains(element)) {
+          depth++;
+          continue;
+        }
+        String text = readText(reader);
+        switch (element) {
+          case "name" -> name = name != null ? name : text;
+          case "logo" -> logo = logo != null ? logo : text;
+          case "current_song" -> currentSong = currentSong != null ? currentSong : text;
+          default -> currentArtist = currentArtist != null ? currentArtist : text;
+        }
+      }
+    }
+
+    StationMetadata metadata = new StationMetadata();
+    metadata.setName(name != null ? name : "");
+    metadata.setLogo(logo != null ? logo : "");
+    metadata.setCurrentSong(currentSong != null ? currentSong : "");
+    metadata.setCurrentArtist(currentArtist != null ? currentArtist : "");
+    return metadata;
+  }
+
+  /**
+   * Returns the text content of the current element including nested elements, leaving the reader
+   * on its end element.
+   */
+  private static String readText(XMLStreamReader reader) throws XMLStreamException {
+    StringBuilder text = new StringBuilder();
+    int depth = 1;
+    while (depth > 0) {
+      int event = reader.next();
+      switch (event) {
+        case XMLStreamConstants.START_ELEMENT -> depth++;
+        case XMLStreamConstants.END_ELEMENT -> depth--;
+        case XMLStreamConstants.CHARACTERS, XMLStreamConstants.CDATA, XMLStreamConstants.SPACE ->
+            text.append(reader.getTextCharacters(), reader.getTextStart(), reader.getTextLength());
+        default -> {}
+      }
+    }
+    return text.toString();
+  }
+
+  private static XMLInputFactory createXmlInputFactory() {
+    XMLInputFactory factory = XMLInputFactory.newInstance();
+    factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+    factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+    factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    return factory;
   }
 
   /** Station metadata DTO */
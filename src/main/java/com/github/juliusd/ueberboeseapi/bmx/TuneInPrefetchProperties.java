@@ -0,0 +1,33 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for warming the TuneIn caches with the stations of presets and recents.
+ *
+ * <p>Example configuration in application.properties:
+ *
+ * <pre>
+ * tunein.prefetch.enabled=true
+ * tunein.prefetch.interval=30m
+ * tunein.prefetch.recent-window=7d
+ * tunein.prefetch.max-stations=200
+ * tunein.prefetch.spacing=500ms
+ * tunein.prefetch.jitter=250ms
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "tunein.prefetch")
+public record TuneInPrefetchProperties(
+    /** Whether the stations are refreshed periodically. */
+    boolean enabled,
+    /** Time between two prefetch runs; should stay below tunein.cache.stream-url-ttl. */
+    Duration interval,
+    /** Recents played longer ago than this are not prefetched. */
+    Duration recentWindow,
+    /** Maximum number of stations refreshed per run, presets first. */
+    int maxStations,
+    /** Minimum time between refreshing two stations. */
+    Duration spacing,
+    /** Random extra delay of up to this much before each station. */
+    Duration jitter) {}
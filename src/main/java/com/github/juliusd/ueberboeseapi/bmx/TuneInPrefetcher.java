@@ -0,0 +1,143 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import com.github.juliusd.ueberboeseapi.preset.PresetRepository;
+import com.github.juliusd.ueberboeseapi.recent.RecentRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.SequencedSet;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the TuneIn caches warm for the stations users are most likely to play: those stored in
+ * presets and in recently played recents. Without it the first preset press after a cache entry
+ * expired would wait for TuneIn.
+ *
+ * <p>A run collects the station ids and refreshes them one after another, spaced by {@code
+ * tunein.prefetch.spacing} plus a random jitter, so TuneIn never sees a burst. The refreshes run on
+ * a dedicated thread; the scheduler thread only plans them. A run is skipped while the previous one
+ * is still in progress.
+ */
+@Component
+@Slf4j
+public class TuneInPrefetcher {
+
+  private static final Pattern STATION_ID = Pattern.compile("/station/(s\\d+)");
+
+  private final PresetRepository presetRepository;
+  private final RecentRepository recentRepository;
+  private final TuneInClient tuneInClient;
+  private final TuneInPrefetchProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final ScheduledExecutorService executor =
+      Executors.newSingleThreadScheduledExecutor(
+          Thread.ofPlatform().name("tunein-prefetch").daemon().factory());
+
+  private CompletableFuture<Void> running = CompletableFuture.completedFuture(null);
+
+  public TuneInPrefetcher(
+      PresetRepository presetRepository,
+      RecentRepository recentRepository,
+      TuneInClient tuneInClient,
+      TuneInPrefetchProperties properties,
+      MeterRegistry meterRegistry) {
+    this.presetRepository = presetRepository;
+    this.recentRepository = recentRepository;
+    this.tuneInClient = tuneInClient;
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Scheduled(
+      fixedDelayString = "${tunein.prefetch.interval}",
+      initialDelayString = "${tunein.prefetch.interval}")
+  public void scheduledPrefetch() {
+    if (properties.enabled()) {
+      prefetch();
+    }
+  }
+
+  /**
+   * Starts refreshing the stations of all presets and recent recents.
+   *
+   * @return completes once every station has been refreshed, successfully or not
+   */
+  public synchronized CompletableFuture<Void> prefetch() {
+    if (!running.isDone()) {
+      log.info("Skipping TuneIn prefetch, the previous run is still in progress");
+      return running;
+    }
+
+    SequencedSet<String> stationIds = collectStationIds();
+    log.info("Prefetching TuneIn data for {} stations", stationIds.size());
+
+    List<CompletableFuture<Void>> refreshes = new ArrayList<>(stationIds.size());
+    long spacing = properties.spacing().toNanos();
+    long jitter = properties.jitter().toNanos();
+    long delay = 0;
+    for (String stationId : stationIds) {
+      delay += jitter > 0 ? ThreadLocalRandom.current().nextLong(jitter + 1) : 0;
+      CompletableFuture<Void> done = new CompletableFuture<>();
+      executor.schedule(() -> refresh(stationId, done), delay, TimeUnit.NANOSECONDS);
+      refreshes.add(done);
+      delay += spacing;
+    }
+
+    running = CompletableFuture.allOf(refreshes.toArray(CompletableFuture[]::new));
+    return running;
+  }
+
+  @PreDestroy
+  public void shutdown() {
+    executor.shutdownNow();
+  }
+
+  private void refresh(String stationId, CompletableFuture<Void> done) {
+    tuneInClient
+        .refresh(stationId)
+        .whenComplete(
+            (result, e) -> {
+              if (e != null) {
+                log.debug("TuneIn prefetch failed for stationId: {}", stationId, e);
+              }
+              meterRegistry
+                  .counter(
+                      "ueberboese.tunein.prefetch", "outcome", e == null ? "success" : "failure")
+                  .increment();
+              done.complete(null);
+            });
+  }
+
+  /** Station ids of presets followed by those of recents, most recently played first. */
+  private SequencedSet<String> collectStationIds() {
+    OffsetDateTime since = OffsetDateTime.now().minus(properties.recentWindow());
+    SequencedSet<String> stationIds = new LinkedHashSet<>();
+    addStationIds(stationIds, presetRepository.findDistinctStationLocations());
+    addStationIds(stationIds, recentRepository.findDistinctStationLocationsPlayedSince(since));
+    return stationIds;
+  }
+
+  private void addStationIds(SequencedSet<String> stationIds, List<String> locations) {
+    for (String location : locations) {
+      if (stationIds.size() >= properties.maxStations()) {
+        return;
+      }
+      Matcher matcher = STATION_ID.matcher(location);
+      if (matcher.find()) {
+        stationIds.add(matcher.group(1));
+      }
+    }
+  }
+}
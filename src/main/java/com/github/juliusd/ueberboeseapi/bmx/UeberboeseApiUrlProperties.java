@@ -1,6 +1,13 @@
 package com.github.juliusd.ueberboeseapi.bmx;
 
+import java.time.Duration;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
+/**
+ * BMX configuration.
+ *
+ * @param baseUrl base URL of this server, used for links and icons in the BMX responses
+ * @param askAgainAfter how long devices should wait before requesting the service registry again
+ */
 @ConfigurationProperties(prefix = "ueberboese.bmx")
-public record UeberboeseApiUrlProperties(String baseUrl) {}
+public record UeberboeseApiUrlProperties(String baseUrl, Duration askAgainAfter) {}
@@ -0,0 +1,19 @@
+package com.github.juliusd.ueberboeseapi.customstation;
+
+import java.time.OffsetDateTime;
+import lombok.Builder;
+import lombok.NonNull;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.Version;
+import org.springframework.data.relational.core.mapping.Table;
+
+@Table("CUSTOM_STATION")
+@Builder(toBuilder = true)
+public record CustomStation(
+    @NonNull @Id String id,
+    @NonNull String name,
+    @NonNull String streamUrl,
+    String imageUrl,
+    @NonNull OffsetDateTime createdOn,
+    @NonNull OffsetDateTime updatedOn,
+    @Version Long version) {}
@@ -0,0 +1,13 @@
+package com.github.juliusd.ueberboeseapi.customstation;
+
+import java.util.List;
+import org.springframework.data.jdbc.repository.query.Query;
+import org.springframework.data.repository.ListCrudRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface CustomStationRepository extends ListCrudRepository<CustomStation, String> {
+
+  @Query("SELECT * FROM CUSTOM_STATION ORDER BY NAME, ID")
+  List<CustomStation> findAllOrderedByName();
+}
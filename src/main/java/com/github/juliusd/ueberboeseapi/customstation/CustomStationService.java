@@ -0,0 +1,171 @@
+package com.github.juliusd.ueberboeseapi.customstation;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.juliusd.ueberboeseapi.bmx.BmxService;
+import com.github.juliusd.ueberboeseapi.generated.dtos.BmxPlaybackResponseApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.CustomStationImportApiDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.OffsetDateTime;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Server-side catalog of custom radio stations.
+ *
+ * <p>Stations are referenced by a compact id derived from their stream URL, so presets only have to
+ * carry {@code /station/<id>} instead of the base64 encoded station definition. Playback responses
+ * are built once per station and served from a cache until the station is imported again.
+ */
+@Service
+@Slf4j
+public class CustomStationService {
+
+  private static final String ID_PREFIX = "c";
+  private static final int ID_HASH_BYTES = 6;
+  private static final long MAXIMUM_CACHE_SIZE = 10_000;
+
+  private final CustomStationRepository customStationRepository;
+  private final BmxService bmxService;
+  private final LoadingCache<String, Optional<BmxPlaybackResponseApiDto>> playbackCache;
+
+  public CustomStationService(
+      CustomStationRepository customStationRepository,
+      BmxService bmxService,
+      MeterRegistry meterRegistry) {
+    this.customStationRepository = customStationRepository;
+    this.bmxService = bmxService;
+    this.playbackCache =
+        Caffeine.newBuilder()
+            .maximumSize(MAXIMUM_CACHE_SIZE)
+            .recordStats()
+            .build(this::loadPlayback);
+    CaffeineCacheMetrics.monitor(meterRegistry, playbackCache, "custom-stations");
+  }
+
+  /**
+   * Returns the prebuilt playback response of a catalog station. The returned instance is shared
+   * between requests and must not be modified.
+   *
+   * @param stationId Compact id of the station
+   * @return Playback response, or empty if the station is not in the catalog
+   */
+  public Optional<BmxPlaybackResponseApiDto> getPlayback(String stationId) {
+    return playbackCache.get(stationId);
+  }
+
+  public List<CustomStation> getStations() {
+    return customStationRepository.findAllOrderedByName();
+  }
+
+  /**
+   * Adds stations to the catalog. A station whose stream URL is already in the catalog keeps its id
+   * and gets its name and image updated.
+   *
+   * @param stations Stations to import
+   * @return The imported stations in request order, duplicates collapsed to the last occurrence
+   */
+  @Transactional
+  public List<CustomStation> importStations(List<CustomStationImportApiDto> stations) {
+    Map<String, CustomStationImportApiDto> stationsById = new LinkedHashMap<>();
+    for (CustomStationImportApiDto station : stations) {
+      if (station.getStreamUrl() == null || station.getStreamUrl().isBlank()) {
+        throw new IllegalArgumentException("streamUrl is required");
+      }
+      if (station.getName() == null || station.getName().isBlank()) {
+        throw new IllegalArgumentException(
+            "name is required for station " + station.getStreamUrl());
+      }
+      stationsById.put(stationId(station.getStreamUrl()), station);
+    }
+
+    Map<String, CustomStation> existing =
+        customStationRepository.findAllById(stationsById.keySet()).stream()
+            .collect(Collectors.toMap(CustomStation::id, Function.identity()));
+
+    OffsetDateTime now = OffsetDateTime.now();
+    List<CustomStation> toSave =
+        stationsById.entrySet().stream()
+            .map(
+                entry -> {
+                  CustomStationImportApiDto station = entry.getValue();
+                  CustomStation current = existing.get(entry.getKey());
+                  CustomStation.CustomStationBuilder builder =
+                      current != null
+                          ? current.toBuilder()
+                          : CustomStation.builder()
+                              .id(entry.getKey())
+                              .streamUrl(station.getStreamUrl())
+                              .createdOn(now);
+                  return builder
+                      .name(station.getName())
+                      .imageUrl(station.getImageUrl())
+                      .updatedOn(now)
+                      .build();
+                })
+            .toList();
+
+    List<CustomStation> saved = customStationRepository.saveAll(toSave);
+    invalidateAfterCommit(stationsById.keySet());
+
+    log.info("Imported {} custom station(s), {} new", saved.size(), saved.size() - existing.size());
+    return saved;
+  }
+
+  /** Evicts all cached playback responses. */
+  public void invalidateCache() {
+    playbackCache.invalidateAll();
+  }
+
+  /**
+   * Evicts the playback responses once the transaction committed. Evicting earlier would let a
+   * concurrent request cache the stations as they were before the commit.
+   */
+  private void invalidateAfterCommit(Set<String> stationIds) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      playbackCache.invalidateAll(stationIds);
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            playbackCache.invalidateAll(stationIds);
+          }
+        });
+  }
+
+  static String stationId(String streamUrl) {
+    try {
+      byte[] hash =
+          MessageDigest.getInstance("SHA-256").digest(streamUrl.getBytes(StandardCharsets.UTF_8));
+      return ID_PREFIX + HexFormat.of().formatHex(hash, 0, ID_HASH_BYTES);
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 not available", e);
+    }
+  }
+
+  private Optional<BmxPlaybackResponseApiDto> loadPlayback(String stationId) {
+    return customStationRepository
+        .findById(stationId)
+        .map(
+            station ->
+                bmxService.buildCustomStreamPlayback(
+                    station.streamUrl(), station.imageUrl(), station.name()));
+  }
+}
@@ -0,0 +1,169 @@
+package com.github.juliusd.ueberboeseapi.device;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Optional;
+import java.util.TreeSet;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.relational.core.mapping.event.AbstractRelationalEventListener;
+import org.springframework.data.relational.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.relational.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * In-memory view of the DEVICE table, indexed by account and ordered by last seen.
+ *
+ * <p>The table is loaded on first access. Afterwards every device saved or deleted through {@link
+ * DeviceRepository} is applied via Spring Data's mapping events, once the surrounding transaction
+ * committed. Bulk statements bypass those events, so callers report them with {@link
+ * #updateLastSeen} or {@link #invalidate()}.
+ */
+@Component
+@Slf4j
+public class DeviceRegistry extends AbstractRelationalEventListener<Device> {
+
+  private static final Comparator<Device> BY_LAST_SEEN_DESC =
+      Comparator.comparing(
+              Device::lastSeen, Comparator.nullsLast(Comparator.<OffsetDateTime>reverseOrder()))
+          .thenComparing(Device::deviceId);
+
+  private final DeviceRepository deviceRepository;
+
+  private final Map<String, Device> byId = new HashMap<>();
+  private final Map<String, NavigableSet<Device>> byAccount = new HashMap<>();
+  private final NavigableSet<Device> byLastSeen = new TreeSet<>(BY_LAST_SEEN_DESC);
+  private boolean loaded;
+
+  public DeviceRegistry(DeviceRepository deviceRepository) {
+    this.deviceRepository = deviceRepository;
+  }
+
+  public synchronized Optional<Device> findById(String deviceId) {
+    ensureLoaded();
+    return Optional.ofNullable(byId.get(deviceId));
+  }
+
+  /** Returns all devices, most recently seen first. */
+  public synchronized List<Device> findAll() {
+    ensureLoaded();
+    return List.copyOf(byLastSeen);
+  }
+
+  /** Returns the devices paired with the given account, most recently seen first. */
+  public synchronized List<Device> findByAccount(String accountId) {
+    ensureLoaded();
+    NavigableSet<Device> devices = byAccount.get(accountId);
+    return devices != null ? List.copyOf(devices) : List.of();
+  }
+
+  /**
+   * Applies a bulk LAST_SEEN update written with {@link DeviceRepository#updateLastSeen}. Devices
+   * already seen later keep their timestamp.
+   */
+  public synchronized void updateLastSeen(Collection<String> deviceIds, OffsetDateTime lastSeen) {
+    if (!loaded) {
+      return;
+    }
+    for (String deviceId : deviceIds) {
+      Device device = byId.get(deviceId);
+      if (device != null && (device.lastSeen() == null || device.lastSeen().isBefore(lastSeen))) {
+        put(device.toBuilder().lastSeen(lastSeen).build());
+      }
+    }
+  }
+
+  public synchronized void remove(String deviceId) {
+    Device removed = byId.remove(deviceId);
+    if (removed != null) {
+      unindex(removed);
+    }
+  }
+
+  /** Drops the cached devices so they are loaded again on next access. */
+  public synchronized void invalidate() {
+    byId.clear();
+    byAccount.clear();
+    byLastSeen.clear();
+    loaded = false;
+  }
+
+  @Override
+  protected void onAfterSave(AfterSaveEvent<Device> event) {
+    Device device = event.getEntity();
+    afterCommit(
+        () -> {
+          synchronized (this) {
+            if (loaded) {
+              put(device);
+            }
+          }
+        });
+  }
+
+  @Override
+  protected void onAfterDelete(AfterDeleteEvent<Device> event) {
+    String deviceId = (String) event.getId().getValue();
+    afterCommit(() -> remove(deviceId));
+  }
+
+  /**
+   * Applies a change once the transaction committed. Applying it earlier would let other requests
+   * see a device that is rolled back afterwards.
+   */
+  private static void afterCommit(Runnable change) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      change.run();
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(
+        new TransactionSynchronization() {
+          @Override
+          public void afterCommit() {
+            change.run();
+          }
+        });
+  }
+
+  private void ensureLoaded() {
+    if (loaded) {
+      return;
+    }
+    List<Device> devices = deviceRepository.findAllByOrderByLastSeenDesc();
+    devices.forEach(this::put);
+    loaded = true;
+    log.debug("Loaded {} devices into the registry", devices.size());
+  }
+
+  private void put(Device device) {
+    Device previous = byId.put(device.deviceId(), device);
+    if (previous != null) {
+      unindex(previous);
+    }
+    byLastSeen.add(device);
+    if (device.margeAccountId() != null) {
+      byAccount
+          .computeIfAbsent(device.margeAccountId(), accountId -> new TreeSet<>(BY_LAST_SEEN_DESC))
+          .add(device);
+    }
+  }
+
+  private void unindex(Device device) {
+    byLastSeen.remove(device);
+    if (device.margeAccountId() != null) {
+      NavigableSet<Device> accountDevices = byAccount.get(device.margeAccountId());
+      if (accountDevices != null) {
+        accountDevices.remove(device);
+        if (accountDevices.isEmpty()) {
+          byAccount.remove(device.margeAccountId());
+        }
+      }
+    }
+  }
+}
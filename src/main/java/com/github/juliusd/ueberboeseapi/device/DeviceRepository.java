@@ -1,6 +1,9 @@
 package com.github.juliusd.ueberboeseapi.device;
 
+import java.time.OffsetDateTime;
+import java.util.Collection;
 import java.util.List;
+import org.springframework.data.jdbc.repository.query.Modifying;
 import org.springframework.data.jdbc.repository.query.Query;
 import org.springframework.data.repository.CrudRepository;
 import org.springframework.stereotype.Repository;
@@ -10,4 +13,17 @@ public interface DeviceRepository extends CrudRepository<Device, String> {
 
   @Query("SELECT * FROM DEVICE ORDER BY LAST_SEEN DESC")
   List<Device> findAllByOrderByLastSeenDesc();
+
+  /**
+   * Sets LAST_SEEN for several devices at once without touching the rest of the row. Rows already
+   * seen later are left alone. The version is not incremented, so concurrent full-row saves are not
+   * rejected.
+   *
+   * @return Number of updated rows
+   */
+  @Modifying
+  @Query(
+      "UPDATE DEVICE SET LAST_SEEN = :lastSeen WHERE DEVICE_ID IN (:deviceIds)"
+          + " AND (LAST_SEEN IS NULL OR LAST_SEEN < :lastSeen)")
+  int updateLastSeen(OffsetDateTime lastSeen, Collection<String> deviceIds);
 }
@@ -0,0 +1,34 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import java.util.List;
+
+/**
+ * Callback for components that want to process device events after they were stored in memory.
+ *
+ * <p>Listeners are invoked on the request thread of the device that posted the events, so
+ * implementations must return quickly and hand off any slow work.
+ */
+public interface DeviceEventListener {
+
+  /**
+   * Called with the events of one scmudc request, in the order they were reported.
+   *
+   * @param events The stored events, all belonging to the same device
+   */
+  void onDeviceEvents(List<StoredDeviceEvent> events);
+
+  /**
+   * Called after the events of a request were handed to all listeners, so the committed sequence of
+   * the event storage may have moved. Listeners that only publish committed events pick up the
+   * newly committed ones here.
+   */
+  default void onEventsCommitted() {}
+
+  /**
+   * Called after all in-memory events of a device were evicted to stay within the global event
+   * budget. Listeners keeping per-device state should drop it, so it stays bounded as well.
+   *
+   * @param deviceId The evicted device
+   */
+  default void onDeviceEvicted(String deviceId) {}
+}
@@ -0,0 +1,28 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import java.time.Instant;
+import lombok.Builder;
+
+/**
+ * Current state of a device, derived from the events it reported.
+ *
+ * @param deviceId The device ID
+ * @param source Current source, e.g. {@code SPOTIFY} (from {@code source-state-changed})
+ * @param playState Current play state, e.g. {@code PLAY_STATE} (from {@code play-state-changed})
+ * @param volume Current volume (from {@code volume-change})
+ * @param lastPreset Last pressed preset (from {@code preset-pressed})
+ * @param masterDevice Master device of the zone the device belongs to (from {@code
+ *     masterdevice-changed})
+ * @param lastEventSequence Sequence of the last event folded into this state
+ * @param updatedAt Event time of the last event folded into this state
+ */
+@Builder(toBuilder = true)
+public record DeviceState(
+    String deviceId,
+    String source,
+    String playState,
+    Integer volume,
+    String lastPreset,
+    String masterDevice,
+    long lastEventSequence,
+    Instant updatedAt) {}
@@ -0,0 +1,112 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.BiConsumer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Folds incoming device events into a compact {@link DeviceState} per device.
+ *
+ * <p>Each event updates at most one field of the state of its device in O(1), so reading the
+ * current state never requires replaying the event history. Events of types that do not affect the
+ * state only advance {@code lastEventSequence} and {@code updatedAt}. The state of a device is
+ * dropped when {@code EventStorageService} evicts it, so the number of states is bounded by the
+ * event budget rather than by the device IDs clients made up.
+ */
+@Component
+@Slf4j
+public class DeviceStateProjector implements DeviceEventListener {
+
+  /** The state field each known event type updates, and the data key holding the new value. */
+  private static final Map<String, StateField> FIELDS =
+      Map.of(
+          "source-state-changed",
+          new StateField("source-state", DeviceState.DeviceStateBuilder::source),
+          "play-state-changed",
+          new StateField("play-state", DeviceState.DeviceStateBuilder::playState),
+          "volume-change",
+          new StateField("volume", DeviceStateProjector::volume),
+          "volume-changed",
+          new StateField("volume", DeviceStateProjector::volume),
+          "preset-pressed",
+          new StateField("preset", DeviceState.DeviceStateBuilder::lastPreset),
+          "masterdevice-changed",
+          new StateField("masterdevice", DeviceState.DeviceStateBuilder::masterDevice));
+
+  private final Map<String, DeviceState> states = new ConcurrentHashMap<>();
+
+  @Override
+  public void onDeviceEvents(List<StoredDeviceEvent> events) {
+    for (StoredDeviceEvent event : events) {
+      states.compute(event.deviceId(), (deviceId, current) -> apply(current, event));
+    }
+  }
+
+  /**
+   * Returns the current state of a device.
+   *
+   * @param deviceId The device ID
+   * @return The state, or empty if the device has not reported any event yet
+   */
+  public Optional<DeviceState> getState(String deviceId) {
+    return Optional.ofNullable(states.get(deviceId));
+  }
+
+  /**
+   * Returns the current state of all devices.
+   *
+   * @return States of all devices that reported events, in no particular order
+   */
+  public List<DeviceState> getAllStates() {
+    return List.copyOf(states.values());
+  }
+
+  @Override
+  public void onDeviceEvicted(String deviceId) {
+    states.remove(deviceId);
+  }
+
+  /** Forgets all device states. Used for testing. */
+  public void clear() {
+    states.clear();
+  }
+
+  static DeviceState apply(DeviceState current, StoredDeviceEvent stored) {
+    if (current != null && stored.sequence() < current.lastEventSequence()) {
+      // Overtaken by a later event of a concurrent request
+      return current;
+    }
+    DeviceState.DeviceStateBuilder state =
+        current != null ? current.toBuilder() : DeviceState.builder().deviceId(stored.deviceId());
+    state.lastEventSequence(stored.sequence()).updatedAt(stored.eventTime());
+
+    Map<String, Object> data = stored.event().getData();
+    String type = stored.event().getType();
+    StateField field = type != null ? FIELDS.get(type) : null;
+    Object value = field != null && data != null ? data.get(field.key()) : null;
+    if (value != null) {
+      field.setter().accept(state, value.toString());
+    }
+    return state.build();
+  }
+
+  private static void volume(DeviceState.DeviceStateBuilder state, String value) {
+    parseInt(value).ifPresent(state::volume);
+  }
+
+  private static Optional<Integer> parseInt(String value) {
+    try {
+      return Optional.of((int) Double.parseDouble(value));
+    } catch (NumberFormatException e) {
+      log.debug("Ignoring non-numeric volume: {}", value);
+      return Optional.empty();
+    }
+  }
+
+  private record StateField(
+      String key, BiConsumer<DeviceState.DeviceStateBuilder, String> setter) {}
+}
@@ -0,0 +1,198 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.Map;
+import java.util.zip.CRC32;
+import tools.jackson.core.type.TypeReference;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Binary record format of the persistent event store.
+ *
+ * <p>A segment file starts with a 6 byte header (magic + format version) followed by records:
+ *
+ * <pre>
+ * int    payload length
+ * int    CRC32 of the payload
+ * long   sequence
+ * long   received at (epoch millis)
+ * long   event time (epoch seconds)
+ * int    event time (nanos)
+ * int    event time offset (seconds)
+ * byte   flags (1 = has time, 2 = has monoTime)
+ * int    monoTime
+ * short  device id length, UTF-8 bytes
+ * short  type length, UTF-8 bytes
+ * int    data length, JSON bytes of the data map
+ * </pre>
+ *
+ * <p>The fixed-size prefix allows filtering by sequence, time and device without decoding the JSON
+ * data of records that are skipped.
+ */
+final class EventRecordCodec {
+
+  static final int MAGIC = 0x55424556; // "UBEV"
+  static final short FORMAT_VERSION = 1;
+  static final int FILE_HEADER_SIZE = Integer.BYTES + Short.BYTES;
+  static final int RECORD_HEADER_SIZE = 2 * Integer.BYTES;
+  static final int MAX_PAYLOAD_SIZE = 1024 * 1024;
+
+  private static final int MAX_STRING_LENGTH = 0xFFFF;
+  private static final int FLAG_HAS_TIME = 1;
+  private static final int FLAG_HAS_MONO_TIME = 2;
+  private static final int DEVICE_ID_POSITION = 8 + 8 + 8 + 4 + 4 + 1 + 4;
+  private static final TypeReference<Map<String, Object>> DATA_TYPE = new TypeReference<>() {};
+
+  private final JsonMapper jsonMapper;
+
+  EventRecordCodec(JsonMapper jsonMapper) {
+    this.jsonMapper = jsonMapper;
+  }
+
+  /**
+   * Encodes an event into a complete record including length and checksum.
+   *
+   * @param stored The event to encode
+   * @return Buffer positioned at 0 and ready to be written
+   * @throws IllegalArgumentException if the event is too large to be stored
+   */
+  ByteBuffer encode(StoredDeviceEvent stored) {
+    DeviceEventApiDto event = stored.event();
+    byte[] deviceId = stored.deviceId().getBytes(StandardCharsets.UTF_8);
+    byte[] type = (event.getType() != null ? event.getType() : "").getBytes(StandardCharsets.UTF_8);
+    byte[] data =
+        event.getData() != null && !event.getData().isEmpty()
+            ? jsonMapper.writeValueAsBytes(event.getData())
+            : new byte[0];
+    if (deviceId.length > MAX_STRING_LENGTH || type.length > MAX_STRING_LENGTH) {
+      throw new IllegalArgumentException("Device id or event type too long to be stored");
+    }
+
+    int payloadLength =
+        DEVICE_ID_POSITION + 2 + deviceId.length + 2 + type.length + 4 + data.length;
+    if (payloadLength > MAX_PAYLOAD_SIZE) {
+      // The decoder treats larger records as corrupt and would stop reading the segment there
+      throw new IllegalArgumentException(
+          "Event of " + payloadLength + " bytes exceeds the maximum record size");
+    }
+    ByteBuffer buffer = ByteBuffer.allocate(RECORD_HEADER_SIZE + payloadLength);
+    buffer.putInt(payloadLength);
+    buffer.putInt(0); // CRC placeholder
+
+    OffsetDateTime time = event.getTime();
+    int flags =
+        (time != null ? FLAG_HAS_TIME : 0) | (event.getMonoTime() != null ? FLAG_HAS_MONO_TIME : 0);
+    buffer.putLong(stored.sequence());
+    buffer.putLong(stored.receivedAt().toEpochMilli());
+    buffer.putLong(time != null ? time.toEpochSecond() : 0);
+    buffer.putInt(time != null ? time.getNano() : 0);
+    buffer.putInt(time != null ? time.getOffset().getTotalSeconds() : 0);
+    buffer.put((byte) flags);
+    buffer.putInt(event.getMonoTime() != null ? event.getMonoTime() : 0);
+    buffer.putShort((short) deviceId.length).put(deviceId);
+    buffer.putShort((short) type.length).put(type);
+    buffer.putInt(data.length).put(data);
+
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), RECORD_HEADER_SIZE, payloadLength);
+    buffer.putInt(Integer.BYTES, (int) crc.getValue());
+    return buffer.flip();
+  }
+
+  /**
+   * Reads the payload of the next record.
+   *
+   * @param in Stream positioned at the start of a record
+   * @return The verified payload, or null at the end of the segment or at a torn/corrupt record
+   * @throws IOException if reading fails
+   */
+  static byte[] readPayload(DataInputStream in) throws IOException {
+    try {
+      int length = in.readInt();
+      int checksum = in.readInt();
+      if (length <= DEVICE_ID_POSITION || length > MAX_PAYLOAD_SIZE) {
+        return null;
+      }
+      byte[] payload = new byte[length];
+      in.readFully(payload);
+      CRC32 crc = new CRC32();
+      crc.update(payload);
+      return (int) crc.getValue() == checksum ? payload : null;
+    } catch (EOFException e) {
+      return null;
+    }
+  }
+
+  static long sequence(byte[] payload) {
+    return ByteBuffer.wrap(payload).getLong(0);
+  }
+
+  /**
+   * Returns the event time of a record in epoch millis without decoding the full record.
+   *
+   * @param payload Record payload
+   * @return Event time, or receive time for events without time
+   */
+  static long eventTimeMillis(byte[] payload) {
+    ByteBuffer buffer = ByteBuffer.wrap(payload);
+    if ((buffer.get(8 + 8 + 8 + 4 + 4) & FLAG_HAS_TIME) == 0) {
+      return buffer.getLong(8);
+    }
+    return buffer.getLong(16) * 1000 + buffer.getInt(24) / 1_000_000;
+  }
+
+  static String deviceId(byte[] payload) {
+    int length = ByteBuffer.wrap(payload).getShort(DEVICE_ID_POSITION) & MAX_STRING_LENGTH;
+    return new String(payload, DEVICE_ID_POSITION + 2, length, StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Decodes a complete record payload.
+   *
+   * @param payload Record payload as returned by {@link #readPayload(DataInputStream)}
+   * @return The decoded event
+   */
+  StoredDeviceEvent decode(byte[] payload) {
+    ByteBuffer buffer = ByteBuffer.wrap(payload);
+    long sequence = buffer.getLong();
+    Instant receivedAt = Instant.ofEpochMilli(buffer.getLong());
+    long epochSecond = buffer.getLong();
+    int nano = buffer.getInt();
+    int offsetSeconds = buffer.getInt();
+    int flags = buffer.get();
+    int monoTime = buffer.getInt();
+    String deviceId = readString(buffer);
+    String type = readString(buffer);
+    int dataLength = buffer.getInt();
+
+    DeviceEventApiDto event = new DeviceEventApiDto();
+    event.setType(type);
+    if ((flags & FLAG_HAS_TIME) != 0) {
+      event.setTime(
+          OffsetDateTime.ofInstant(
+              Instant.ofEpochSecond(epochSecond, nano), ZoneOffset.ofTotalSeconds(offsetSeconds)));
+    }
+    if ((flags & FLAG_HAS_MONO_TIME) != 0) {
+      event.setMonoTime(monoTime);
+    }
+    if (dataLength > 0) {
+      event.setData(jsonMapper.readValue(payload, buffer.position(), dataLength, DATA_TYPE));
+    }
+    return new StoredDeviceEvent(sequence, deviceId, receivedAt, event);
+  }
+
+  private static String readString(ByteBuffer buffer) {
+    int length = buffer.getShort() & MAX_STRING_LENGTH;
+    String value = new String(buffer.array(), buffer.position(), length, StandardCharsets.UTF_8);
+    buffer.position(buffer.position() + length);
+    return value;
+  }
+}
@@ -0,0 +1,36 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Configuration properties for the persistent, append-only device event store.
+ *
+ * <p>The store writes into the {@code events} sub directory of {@code ueberboese.data-directory}.
+ *
+ * <p>Example configuration in application.properties:
+ *
+ * <pre>
+ * ueberboese.events.store.enabled=true
+ * ueberboese.events.store.segment-duration=1h
+ * ueberboese.events.store.retention=30d
+ * ueberboese.events.store.max-size=512MB
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "ueberboese.events.store")
+public record EventStoreProperties(
+    /** Whether device events are persisted to disk. */
+    boolean enabled,
+    /** Time window covered by a single segment file. */
+    Duration segmentDuration,
+    /** Segments whose time window ended longer ago than this are deleted. */
+    Duration retention,
+    /** Upper bound for the size of all segments; the oldest segments are deleted first. */
+    DataSize maxSize,
+    /** Maximum number of events written and synced to disk as one group commit. */
+    int batchSize,
+    /** Maximum time an event waits in the queue before it is written. */
+    Duration flushInterval,
+    /** Capacity of the in-memory queue between the request threads and the writer. */
+    int queueCapacity) {}
@@ -0,0 +1,494 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import com.github.juliusd.ueberboeseapi.DataDirectoryProperties;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.TreeMap;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Durable, append-only store for device events.
+ *
+ * <p>Events are handed over from the request thread through a bounded queue to a single writer
+ * thread. The writer appends records (see {@link EventRecordCodec}) to one segment file per {@code
+ * segment-duration} window and syncs each batch to disk with a single {@code force} call (group
+ * commit). Segments are deleted once they are older than {@code retention} or when all segments
+ * together exceed {@code max-size}.
+ *
+ * <p>Queries stream through the segments overlapping the requested time range record by record, so
+ * they never load a whole segment into the heap.
+ */
+@Component
+@Slf4j
+@ConditionalOnProperty(name = "ueberboese.events.store.enabled", havingValue = "true")
+public class PersistentEventStore implements DeviceEventListener {
+
+  private static final String SEGMENT_PREFIX = "events-";
+  private static final String SEGMENT_SUFFIX = ".seg";
+
+  private final EventStoreProperties properties;
+  private final Path directory;
+  private final long segmentMillis;
+  private final EventRecordCodec codec;
+  private final BlockingQueue<StoredDeviceEvent> queue;
+  private final Thread writerThread;
+  private final AtomicLong droppedEvents = new AtomicLong();
+  // First and last sequence per segment, keyed by window start; filled lazily and by the writer
+  private final Map<Long, SequenceRange> sequenceRanges = new ConcurrentHashMap<>();
+  // Sequences handed over but not yet written and synced, see writtenSequence
+  private final NavigableSet<Long> pending = new ConcurrentSkipListSet<>();
+  private volatile boolean running = true;
+
+  // Only accessed by the writer thread
+  private FileChannel activeChannel;
+  private long activeWindowStart = Long.MIN_VALUE;
+  private long lastRetentionCheck;
+
+  public PersistentEventStore(
+      EventStoreProperties properties, DataDirectoryProperties dataDirectoryProperties)
+      throws IOException {
+    this.properties = properties;
+    this.directory = Path.of(dataDirectoryProperties.dataDirectory(), "events");
+    this.segmentMillis = properties.segmentDuration().toMillis();
+    this.codec = new EventRecordCodec(JsonMapper.builder().build());
+    this.queue = new ArrayBlockingQueue<>(properties.queueCapacity());
+    Files.createDirectories(directory);
+
+    this.writerThread = new Thread(this::runWriter, "event-store-writer");
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+    log.info("Persistent event store initialized in directory: {}", directory);
+  }
+
+  @Override
+  public void onDeviceEvents(List<StoredDeviceEvent> events) {
+    for (StoredDeviceEvent event : events) {
+      pending.add(event.sequence());
+      if (!queue.offer(event)) {
+        pending.remove(event.sequence());
+        long dropped = droppedEvents.incrementAndGet();
+        log.warn(
+            "Event store queue full, dropping event for device: {} (dropped so far: {})",
+            event.deviceId(),
+            dropped);
+      }
+    }
+  }
+
+  /**
+   * Finds events of a device within a time range, oldest first.
+   *
+   * @param deviceId The device ID
+   * @param from Inclusive lower bound of the event time, or null for no bound
+   * @param to Exclusive upper bound of the event time, or null for no bound
+   * @param limit Maximum number of events to return
+   * @return Matching events
+   */
+  public List<StoredDeviceEvent> query(String deviceId, Instant from, Instant to, int limit) {
+    List<StoredDeviceEvent> result = new ArrayList<>();
+    scan(
+        deviceId,
+        from,
+        to,
+        event -> {
+          result.add(event);
+          return result.size() < limit;
+        });
+    return result;
+  }
+
+  /**
+   * Streams matching events, oldest segment first, to a consumer.
+   *
+   * @param deviceId The device ID, or null for all devices
+   * @param from Inclusive lower bound of the event time, or null for no bound
+   * @param to Exclusive upper bound of the event time, or null for no bound
+   * @param consumer Receives each matching event; returning false stops the scan
+   */
+  public void scan(
+      String deviceId, Instant from, Instant to, Predicate<StoredDeviceEvent> consumer) {
+    long fromMillis = from != null ? from.toEpochMilli() : Long.MIN_VALUE;
+    long toMillis = to != null ? to.toEpochMilli() : Long.MAX_VALUE;
+
+    for (Map.Entry<Long, Path> segment : listSegments().entrySet()) {
+      long windowStart = segment.getKey();
+      // Segments are keyed by receive time; allow one window of clock skew to the event time
+      if (windowStart + 2 * segmentMillis <= fromMillis
+          || windowStart - segmentMillis >= toMillis) {
+        continue;
+      }
+      boolean completed =
+          scanSegment(
+              segment.getValue(),
+              payload -> {
+                long eventTime = EventRecordCodec.eventTimeMillis(payload);
+                return eventTime >= fromMillis
+                    && eventTime < toMillis
+                    && matchesDevice(payload, deviceId);
+              },
+              consumer);
+      if (!completed) {
+        return;
+      }
+    }
+  }
+
+  /**
+   * Caps a committed sequence (see {@link
+   * com.github.juliusd.ueberboeseapi.service.EventStorageService#committedSequence()}) below the
+   * oldest event that was handed to this store but is not written yet. Events up to the returned
+   * sequence are all on disk, so it is a safe upper bound for {@link #scanAfter}. The committed
+   * sequence has to be read before calling this method.
+   *
+   * @param committedSequence Committed sequence of the in-memory store
+   * @return Highest sequence up to which all events are written
+   */
+  public long writtenSequence(long committedSequence) {
+    Long oldestPending = pending.ceiling(Long.MIN_VALUE);
+    return oldestPending != null
+        ? Math.min(committedSequence, oldestPending - 1)
+        : committedSequence;
+  }
+
+  /**
+   * Streams all events with a sequence within the given bounds, in the order they were written, to
+   * a consumer. Only the record headers of skipped events are read.
+   *
+   * @param deviceId The device ID, or null for all devices
+   * @param afterSequence Exclusive lower bound of the sequence
+   * @param upToSequence Inclusive upper bound of the sequence, see {@link #writtenSequence}
+   * @param consumer Receives each matching event; returning false stops the scan
+   */
+  public void scanAfter(
+      String deviceId,
+      long afterSequence,
+      long upToSequence,
+      Predicate<StoredDeviceEvent> consumer) {
+    for (Map.Entry<Long, Path> segment : listSegments().entrySet()) {
+      // Sequences run ahead of the receive time under load, so prune by the sequences a segment
+      // actually holds instead of its time window
+      SequenceRange range = sequenceRange(segment.getKey(), segment.getValue());
+      if (range == null || range.last() <= afterSequence || range.first() > upToSequence) {
+        continue;
+      }
+      boolean completed =
+          scanSegment(
+              segment.getValue(),
+              payload -> {
+                long sequence = EventRecordCodec.sequence(payload);
+                return sequence > afterSequence
+                    && sequence <= upToSequence
+                    && matchesDevice(payload, deviceId);
+              },
+              consumer);
+      if (!completed) {
+        return;
+      }
+    }
+  }
+
+  private SequenceRange sequenceRange(long windowStart, Path segment) {
+    SequenceRange range = sequenceRanges.get(windowStart);
+    if (range != null) {
+      return range;
+    }
+    try {
+      readSegmentHeaders(segment, windowStart);
+    } catch (NoSuchFileException e) {
+      return null;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read event segment " + segment, e);
+    }
+    return sequenceRanges.get(windowStart);
+  }
+
+  private boolean scanSegment(
+      Path segment, Predicate<byte[]> payloadFilter, Predicate<StoredDeviceEvent> consumer) {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+      if (!readFileHeader(in)) {
+        return true;
+      }
+      byte[] payload;
+      while ((payload = EventRecordCodec.readPayload(in)) != null) {
+        if (payloadFilter.test(payload) && !consumer.test(codec.decode(payload))) {
+          return false;
+        }
+      }
+      return true;
+    } catch (NoSuchFileException e) {
+      // Segment was removed by retention while we were about to read it
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to read event segment " + segment, e);
+    }
+  }
+
+  private static boolean matchesDevice(byte[] payload, String deviceId) {
+    return deviceId == null || deviceId.equals(EventRecordCodec.deviceId(payload));
+  }
+
+  /**
+   * Returns the number of events that could not be persisted because the queue was full.
+   *
+   * @return Dropped event count
+   */
+  public long getDroppedEventCount() {
+    return droppedEvents.get();
+  }
+
+  @PreDestroy
+  public void close() throws InterruptedException {
+    // No interrupt: it would close the FileChannel in the middle of a write
+    running = false;
+    writerThread.join(TimeUnit.SECONDS.toMillis(10));
+  }
+
+  private void runWriter() {
+    List<StoredDeviceEvent> batch = new ArrayList<>(properties.batchSize());
+    long flushNanos = properties.flushInterval().toNanos();
+    while (running || !queue.isEmpty()) {
+      try {
+        StoredDeviceEvent first = running ? queue.poll(flushNanos, TimeUnit.NANOSECONDS) : null;
+        if (first != null) {
+          batch.add(first);
+        }
+        queue.drainTo(batch, properties.batchSize() - batch.size());
+        if (!batch.isEmpty()) {
+          writeBatch(batch);
+          clearBatch(batch);
+        }
+        applyRetentionIfDue();
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      } catch (Exception e) {
+        log.error("Failed to write {} events to the event store", batch.size(), e);
+        // The events are lost, they must not hold back the written sequence
+        clearBatch(batch);
+      }
+    }
+    closeActiveSegment();
+    log.info("Persistent event store writer stopped");
+  }
+
+  private void clearBatch(List<StoredDeviceEvent> batch) {
+    for (StoredDeviceEvent event : batch) {
+      pending.remove(event.sequence());
+    }
+    batch.clear();
+  }
+
+  private void writeBatch(List<StoredDeviceEvent> batch) throws IOException {
+    for (StoredDeviceEvent event : batch) {
+      long windowStart =
+          Math.floorDiv(event.receivedAt().toEpochMilli(), segmentMillis) * segmentMillis;
+      if (windowStart != activeWindowStart) {
+        openSegment(windowStart);
+      }
+      ByteBuffer record;
+      try {
+        record = codec.encode(event);
+      } catch (IllegalArgumentException e) {
+        long dropped = droppedEvents.incrementAndGet();
+        log.warn(
+            "Not storing event for device: {}, {} (dropped so far: {})",
+            event.deviceId(),
+            e.getMessage(),
+            dropped);
+        continue;
+      }
+      long lastGoodPosition = activeChannel.position();
+      try {
+        while (record.hasRemaining()) {
+          activeChannel.write(record);
+        }
+      } catch (IOException e) {
+        rollBack(lastGoodPosition);
+        throw e;
+      }
+      sequenceRanges.merge(
+          activeWindowStart, SequenceRange.of(event.sequence()), SequenceRange::union);
+    }
+    // Group commit: one sync for the whole batch
+    activeChannel.force(false);
+  }
+
+  /**
+   * Cuts off a partially written record, otherwise the records appended after it would be
+   * unreachable. If that fails too, the segment is closed and truncated to its valid length when it
+   * is opened again.
+   */
+  private void rollBack(long lastGoodPosition) {
+    try {
+      activeChannel.truncate(lastGoodPosition);
+      activeChannel.position(lastGoodPosition);
+    } catch (IOException e) {
+      log.warn("Failed to roll back torn event record, reopening segment", e);
+      closeActiveSegment();
+    }
+  }
+
+  private void openSegment(long windowStart) throws IOException {
+    closeActiveSegment();
+    Path segment = directory.resolve(SEGMENT_PREFIX + windowStart + SEGMENT_SUFFIX);
+    FileChannel channel =
+        FileChannel.open(
+            segment, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+    if (channel.size() < EventRecordCodec.FILE_HEADER_SIZE) {
+      ByteBuffer header = ByteBuffer.allocate(EventRecordCodec.FILE_HEADER_SIZE);
+      header.putInt(EventRecordCodec.MAGIC).putShort(EventRecordCodec.FORMAT_VERSION).flip();
+      channel.truncate(0);
+      channel.write(header, 0);
+    } else {
+      // Cut off a record that was torn by a crash, otherwise appended records would be unreachable
+      channel.truncate(readSegmentHeaders(segment, windowStart));
+    }
+    channel.position(channel.size());
+    activeChannel = channel;
+    activeWindowStart = windowStart;
+    log.debug("Opened event segment: {}", segment);
+  }
+
+  /**
+   * Reads the record headers of a segment to record its sequence range.
+   *
+   * @return Length of the valid part of the segment
+   */
+  private long readSegmentHeaders(Path segment, long windowStart) throws IOException {
+    try (DataInputStream in =
+        new DataInputStream(new BufferedInputStream(Files.newInputStream(segment)))) {
+      if (!readFileHeader(in)) {
+        return 0;
+      }
+      long length = EventRecordCodec.FILE_HEADER_SIZE;
+      byte[] payload;
+      while ((payload = EventRecordCodec.readPayload(in)) != null) {
+        length += EventRecordCodec.RECORD_HEADER_SIZE + payload.length;
+        sequenceRanges.merge(
+            windowStart,
+            SequenceRange.of(EventRecordCodec.sequence(payload)),
+            SequenceRange::union);
+      }
+      return length;
+    }
+  }
+
+  private void closeActiveSegment() {
+    if (activeChannel == null) {
+      return;
+    }
+    try {
+      activeChannel.force(false);
+      activeChannel.close();
+    } catch (IOException e) {
+      log.warn("Failed to close event segment", e);
+    }
+    activeChannel = null;
+    activeWindowStart = Long.MIN_VALUE;
+  }
+
+  private void applyRetentionIfDue() throws IOException {
+    long now = System.currentTimeMillis();
+    if (now - lastRetentionCheck < TimeUnit.MINUTES.toMillis(1)) {
+      return;
+    }
+    lastRetentionCheck = now;
+
+    NavigableMap<Long, Path> segments = listSegments();
+    long expiredBefore = now - properties.retention().toMillis();
+    long totalSize = 0;
+    for (Path segment : segments.values()) {
+      totalSize += Files.size(segment);
+    }
+
+    for (Map.Entry<Long, Path> segment : segments.entrySet()) {
+      long windowStart = segment.getKey();
+      boolean expired = windowStart + segmentMillis <= expiredBefore;
+      boolean overBudget = totalSize > properties.maxSize().toBytes();
+      if (windowStart == activeWindowStart || (!expired && !overBudget)) {
+        continue;
+      }
+      long size = Files.size(segment.getValue());
+      Files.deleteIfExists(segment.getValue());
+      sequenceRanges.remove(windowStart);
+      totalSize -= size;
+      log.info(
+          "Deleted event segment {} ({})",
+          segment.getValue().getFileName(),
+          expired ? "expired" : "size limit");
+    }
+  }
+
+  private NavigableMap<Long, Path> listSegments() {
+    NavigableMap<Long, Path> segments = new TreeMap<>();
+    try (Stream<Path> files = Files.list(directory)) {
+      files.forEach(
+          file -> {
+            String name = file.getFileName().toString();
+            if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+              try {
+                long windowStart =
+                    Long.parseLong(
+                        name.substring(
+                            SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+                segments.put(windowStart, file);
+              } catch (NumberFormatException e) {
+                log.warn("Ignoring unexpected file in event store directory: {}", name);
+              }
+            }
+          });
+    } catch (IOException e) {
+      throw new UncheckedIOException("Failed to list event segments in " + directory, e);
+    }
+    return segments;
+  }
+
+  private static boolean readFileHeader(DataInputStream in) throws IOException {
+    try {
+      return in.readInt() == EventRecordCodec.MAGIC
+          && in.readShort() == EventRecordCodec.FORMAT_VERSION;
+    } catch (EOFException e) {
+      return false;
+    }
+  }
+
+  /** Lowest and highest sequence of the records in a segment. */
+  private record SequenceRange(long first, long last) {
+
+    static SequenceRange of(long sequence) {
+      return new SequenceRange(sequence, sequence);
+    }
+
+    SequenceRange union(SequenceRange other) {
+      return new SequenceRange(Math.min(first, other.first), Math.max(last, other.last));
+    }
+  }
+}
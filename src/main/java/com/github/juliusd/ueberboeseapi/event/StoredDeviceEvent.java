@@ -0,0 +1,26 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto;
+import java.time.Instant;
+
+/**
+ * A single device event together with the metadata the server attached when receiving it.
+ *
+ * @param sequence Server-assigned, strictly increasing sequence number (usable as a cursor)
+ * @param deviceId The device that reported the event
+ * @param receivedAt When the server received the event
+ * @param event The event as reported by the device
+ */
+public record StoredDeviceEvent(
+    long sequence, String deviceId, Instant receivedAt, DeviceEventApiDto event) {
+
+  /**
+   * Returns the point in time the event happened. Uses the device-reported time and falls back to
+   * the receive time for events without one.
+   *
+   * @return Event time
+   */
+  public Instant eventTime() {
+    return event.getTime() != null ? event.getTime().toInstant() : receivedAt;
+  }
+}
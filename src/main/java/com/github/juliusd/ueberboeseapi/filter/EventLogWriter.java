@@ -0,0 +1,109 @@
+package com.github.juliusd.ueberboeseapi.filter;
+
+import static org.slf4j.LoggerFactory.getLogger;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import lombok.extern.slf4j.Slf4j;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * Writes raw request bodies to the event log on a background thread.
+ *
+ * <p>Request threads only hand over the cached body bytes to a bounded queue; decoding and writing
+ * to the {@code EVENT_FILE} appender happen in batches on the {@code event-log-writer} thread. If
+ * the queue is full the body is dropped and counted, so a slow disk never slows down the devices.
+ */
+@Component
+@Slf4j
+public class EventLogWriter {
+
+  private static final Logger EVENT_LOG = getLogger("com.github.juliusd.ueberboeseapi.EventLog");
+
+  private final BlockingQueue<Entry> queue;
+  private final int batchSize;
+  private final Thread writerThread;
+  private final Counter written;
+  private final Counter dropped;
+  private volatile boolean running = true;
+
+  public EventLogWriter(
+      MeterRegistry meterRegistry,
+      @Value("${ueberboese.event-log.queue-capacity}") int queueCapacity,
+      @Value("${ueberboese.event-log.batch-size}") int batchSize) {
+    this.queue = new ArrayBlockingQueue<>(queueCapacity);
+    this.batchSize = batchSize;
+
+    Gauge.builder("ueberboese.eventlog.queue.size", queue, BlockingQueue::size)
+        .description("Request bodies waiting to be written to the event log")
+        .register(meterRegistry);
+    this.written =
+        Counter.builder("ueberboese.eventlog.written")
+            .description("Request bodies written to the event log")
+            .register(meterRegistry);
+    this.dropped =
+        Counter.builder("ueberboese.eventlog.dropped")
+            .description("Request bodies not logged because the queue was full")
+            .register(meterRegistry);
+
+    this.writerThread = new Thread(this::runWriter, "event-log-writer");
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  /**
+   * Queues a request body for logging. Never blocks.
+   *
+   * @param type Log prefix identifying the kind of request
+   * @param body Raw request body; must not be modified afterwards
+   */
+  public void submit(String type, byte[] body) {
+    if (!queue.offer(new Entry(type, body))) {
+      dropped.increment();
+      log.debug("Event log queue full, dropping {} body of {} bytes", type, body.length);
+    }
+  }
+
+  @PreDestroy
+  public void close() throws InterruptedException {
+    running = false;
+    writerThread.join(TimeUnit.SECONDS.toMillis(5));
+  }
+
+  private void runWriter() {
+    List<Entry> batch = new ArrayList<>(batchSize);
+    while (running || !queue.isEmpty()) {
+      try {
+        Entry first = running ? queue.poll(1, TimeUnit.SECONDS) : null;
+        if (first != null) {
+          batch.add(first);
+        }
+        queue.drainTo(batch, batchSize - batch.size());
+        for (Entry entry : batch) {
+          EVENT_LOG.info(
+              "{}: {}", entry.type(), new String(entry.body(), StandardCharsets.UTF_8).trim());
+        }
+        written.increment(batch.size());
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+        running = false;
+      } catch (RuntimeException e) {
+        log.error("Failed to write {} request bodies to the event log", batch.size(), e);
+      } finally {
+        batch.clear();
+      }
+    }
+  }
+
+  private record Entry(String type, byte[] body) {}
+}
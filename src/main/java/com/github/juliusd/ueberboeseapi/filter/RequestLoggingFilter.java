@@ -1,16 +1,14 @@
 package com.github.juliusd.ueberboeseapi.filter;
 
-import static org.slf4j.LoggerFactory.getLogger;
-
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
 import java.io.IOException;
-import java.nio.charset.StandardCharsets;
+import java.util.regex.Pattern;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.jspecify.annotations.NonNull;
-import org.slf4j.Logger;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 import org.springframework.web.util.ContentCachingRequestWrapper;
@@ -19,13 +17,19 @@ import org.springframework.web.util.ContentCachingRequestWrapper;
  * Filter that logs raw request bodies for event endpoints.
  *
  * <p>This filter wraps requests with ContentCachingRequestWrapper to allow reading the request body
- * multiple times - once for logging and once for Spring's normal request processing.
+ * multiple times - once for logging and once for Spring's normal request processing. The cached
+ * bytes are handed over to the {@link EventLogWriter}, which writes them asynchronously.
  */
 @Component
 @Slf4j
+@RequiredArgsConstructor
 public class RequestLoggingFilter extends OncePerRequestFilter {
 
-  private static final Logger EVENT_LOG = getLogger("com.github.juliusd.ueberboeseapi.EventLog");
+  private static final String EVENT_REPORT_PATH = "/v1/scmudc/";
+  private static final Pattern BMX_REPORT_PATH = Pattern.compile(".*/bmx/.+/v1/report.*");
+  private static final int MAX_LOGGED_BODY_SIZE = 1024 * 1024;
+
+  private final EventLogWriter eventLogWriter;
 
   @Override
   protected void doFilterInternal(
@@ -36,26 +40,28 @@ public class RequestLoggingFilter extends OncePerRequestFilter {
 
     // Always log request method and URI with query parameters
     String uri = request.getRequestURI();
-    String queryString = request.getQueryString();
-    String fullUri = queryString != null ? uri + "?" + queryString : uri;
-    log.info("Request: {} {}", request.getMethod(), fullUri);
+    if (log.isInfoEnabled()) {
+      String queryString = request.getQueryString();
+      log.info(
+          "Request: {} {}",
+          request.getMethod(),
+          queryString != null ? uri + "?" + queryString : uri);
+    }
 
     // Only wrap and log for event endpoints
-    boolean isEventReport = request.getRequestURI().matches(".*/v1/scmudc/.*");
-    if (isEventReport || request.getRequestURI().matches(".*/bmx/.+/v1/report.*")) {
+    boolean isEventReport = uri.contains(EVENT_REPORT_PATH);
+    if (isEventReport || BMX_REPORT_PATH.matcher(uri).matches()) {
       // Wrap request with content size limit of 1MB
       ContentCachingRequestWrapper wrappedRequest =
-          new ContentCachingRequestWrapper(request, 1024 * 1024);
+          new ContentCachingRequestWrapper(request, MAX_LOGGED_BODY_SIZE);
 
       // Continue with the filter chain
       filterChain.doFilter(wrappedRequest, response);
 
-      // Log the raw request body after the request has been processed
+      // Hand the raw request body over to the background writer
       byte[] content = wrappedRequest.getContentAsByteArray();
       if (content.length > 0) {
-        String rawBody = new String(content, StandardCharsets.UTF_8);
-        String type = isEventReport ? "event" : "bxm-report";
-        EVENT_LOG.info("{}: {}", type, rawBody.trim());
+        eventLogWriter.submit(isEventReport ? "event" : "bxm-report", content);
       }
     } else {
       // For non-event endpoints, proceed normally without wrapping
@@ -0,0 +1,40 @@
+package com.github.juliusd.ueberboeseapi.mgmt;
+
+import com.github.juliusd.ueberboeseapi.analytics.ListeningStat;
+import com.github.juliusd.ueberboeseapi.analytics.ListeningStatRepository;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.AnalyticsApi;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.GetListeningStats200ResponseApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ListeningStatApiDto;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class AnalyticsMgmtController implements AnalyticsApi {
+
+  private final ListeningStatRepository listeningStatRepository;
+
+  @Override
+  public ResponseEntity<GetListeningStats200ResponseApiDto> getListeningStats() {
+    log.info("Retrieving listening statistics");
+
+    List<ListeningStat> stats = listeningStatRepository.findAllOrderedByListeningTime();
+
+    GetListeningStats200ResponseApiDto response = new GetListeningStats200ResponseApiDto();
+    response.setStats(stats.stream().map(AnalyticsMgmtController::toApiDto).toList());
+    return ResponseEntity.ok().header("Content-Type", "application/json").body(response);
+  }
+
+  private static ListeningStatApiDto toApiDto(ListeningStat stat) {
+    ListeningStatApiDto dto = new ListeningStatApiDto();
+    dto.setStationId(stat.stationId());
+    dto.setListeningSeconds(stat.listeningSeconds());
+    dto.setReportCount(stat.reportCount());
+    dto.setLastReportedAt(stat.lastReportedAt());
+    return dto;
+  }
+}
@@ -0,0 +1,81 @@
+package com.github.juliusd.ueberboeseapi.mgmt;
+
+import com.github.juliusd.ueberboeseapi.customstation.CustomStation;
+import com.github.juliusd.ueberboeseapi.customstation.CustomStationService;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.CustomStationManagementApi;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.CustomStationApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ErrorApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ImportCustomStationsRequestApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ListCustomStations200ResponseApiDto;
+import java.util.List;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequiredArgsConstructor
+@Slf4j
+public class CustomStationMgmtController implements CustomStationManagementApi {
+
+  private final CustomStationService customStationService;
+
+  @Override
+  public ResponseEntity<ListCustomStations200ResponseApiDto> listCustomStations() {
+    log.info("Listing custom stations");
+
+    List<CustomStation> stations = customStationService.getStations();
+
+    log.info("Listed {} custom station(s)", stations.size());
+    return ResponseEntity.ok()
+        .header("Content-Type", "application/json")
+        .body(toResponse(stations));
+  }
+
+  @Override
+  public ResponseEntity<ListCustomStations200ResponseApiDto> importCustomStations(
+      ImportCustomStationsRequestApiDto importCustomStationsRequestApiDto) {
+    if (importCustomStationsRequestApiDto == null
+        || importCustomStationsRequestApiDto.getStations() == null) {
+      throw new IllegalArgumentException("stations is required");
+    }
+    log.info(
+        "Importing {} custom station(s)", importCustomStationsRequestApiDto.getStations().size());
+
+    List<CustomStation> stations =
+        customStationService.importStations(importCustomStationsRequestApiDto.getStations());
+
+    return ResponseEntity.ok()
+        .header("Content-Type", "application/json")
+        .body(toResponse(stations));
+  }
+
+  private static ListCustomStations200ResponseApiDto toResponse(List<CustomStation> stations) {
+    ListCustomStations200ResponseApiDto response = new ListCustomStations200ResponseApiDto();
+    response.setStations(stations.stream().map(CustomStationMgmtController::toApiDto).toList());
+    return response;
+  }
+
+  private static CustomStationApiDto toApiDto(CustomStation station) {
+    CustomStationApiDto dto = new CustomStationApiDto();
+    dto.setId(station.id());
+    dto.setName(station.name());
+    dto.setStreamUrl(station.streamUrl());
+    dto.setImageUrl(station.imageUrl());
+    dto.setLocation("/station/" + station.id());
+    return dto;
+  }
+
+  /** Exception handler for IllegalArgumentException - returns 400 Bad Request. */
+  @ExceptionHandler(IllegalArgumentException.class)
+  public ResponseEntity<ErrorApiDto> handleIllegalArgumentException(IllegalArgumentException e) {
+    log.warn("Bad request: {}", e.getMessage());
+
+    ErrorApiDto error = new ErrorApiDto();
+    error.setError("Bad request");
+    error.setMessage(e.getMessage());
+
+    return ResponseEntity.badRequest().header("Content-Type", "application/json").body(error);
+  }
+}
@@ -0,0 +1,93 @@
+package com.github.juliusd.ueberboeseapi.mgmt;
+
+import com.github.juliusd.ueberboeseapi.event.PersistentEventStore;
+import com.github.juliusd.ueberboeseapi.event.StoredDeviceEvent;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.DeviceEventRecordApiDto;
+import com.github.juliusd.ueberboeseapi.service.EventStorageService;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.util.Optional;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
+
+/**
+ * Streams device events as newline-delimited JSON (one {@link DeviceEventRecordApiDto} per line).
+ *
+ * <p>This endpoint is not part of mgmt-api.yaml because the generator cannot express a streamed
+ * response body. Events are read from the persistent event store if it is enabled, otherwise from
+ * memory. Each event is serialized and written on its own, so the export runs in constant memory
+ * and a slow client simply blocks the writing thread.
+ *
+ * <p>Clients resume an export by passing the highest {@code sequence} they have seen as {@code
+ * since}. Sequences are assigned before events are stored, so events of concurrent requests can be
+ * stored out of order. An export therefore stops at the committed sequence, below which no event
+ * can show up anymore, and a resumed export never skips an event.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class EventExportController {
+
+  private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
+  private static final int WRITE_BUFFER_SIZE = 16 * 1024;
+
+  private final EventStorageService eventStorageService;
+  private final Optional<PersistentEventStore> persistentEventStore;
+  private final JsonMapper jsonMapper;
+
+  /**
+   * Exports events of one or all devices.
+   *
+   * @param deviceId The device ID, or null for all devices
+   * @param since Only export events with a greater sequence, or null for all events
+   * @return Streamed NDJSON response
+   */
+  @GetMapping(value = "/mgmt/events/export", produces = "application/x-ndjson")
+  public ResponseEntity<StreamingResponseBody> exportEvents(
+      @RequestParam(value = "deviceId", required = false) String deviceId,
+      @RequestParam(value = "since", required = false) Long since) {
+    long afterSequence = since != null ? since : Long.MIN_VALUE;
+    log.info("Exporting events (device: {}, since: {})", deviceId, since);
+
+    StreamingResponseBody body =
+        outputStream -> {
+          try (OutputStream out = new BufferedOutputStream(outputStream, WRITE_BUFFER_SIZE)) {
+            if (persistentEventStore.isPresent()) {
+              PersistentEventStore store = persistentEventStore.get();
+              // Committed in memory first, then written by the store
+              long upToSequence = store.writtenSequence(eventStorageService.committedSequence());
+              store.scanAfter(
+                  deviceId, afterSequence, upToSequence, stored -> writeLine(out, stored));
+            } else {
+              eventStorageService.scanAfter(
+                  deviceId, afterSequence, stored -> writeLine(out, stored));
+            }
+          } catch (UncheckedIOException e) {
+            // Typically the client went away; unwrap so the container handles it as such
+            throw e.getCause();
+          }
+        };
+
+    return ResponseEntity.ok().contentType(NDJSON).body(body);
+  }
+
+  private boolean writeLine(OutputStream out, StoredDeviceEvent stored) {
+    try {
+      out.write(jsonMapper.writeValueAsBytes(MgmtController.toDeviceEventRecordApiDto(stored)));
+      out.write('\n');
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+    return true;
+  }
+}
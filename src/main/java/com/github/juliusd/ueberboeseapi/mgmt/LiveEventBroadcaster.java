@@ -0,0 +1,298 @@
+package com.github.juliusd.ueberboeseapi.mgmt;
+
+import com.github.juliusd.ueberboeseapi.event.DeviceEventListener;
+import com.github.juliusd.ueberboeseapi.event.StoredDeviceEvent;
+import com.github.juliusd.ueberboeseapi.service.EventStorageService;
+import jakarta.annotation.PreDestroy;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Pushes incoming device events to Server-Sent Events subscribers.
+ *
+ * <p>The device-facing request thread only offers each event to the bounded queue of every matching
+ * subscriber. Sending happens on a virtual thread per subscriber, so a slow consumer never blocks
+ * the devices or other subscribers. When a queue is full the oldest queued event is dropped; the
+ * subscriber is told how many events it missed with a {@code dropped} event.
+ *
+ * <p>Events are sent in sequence order and only once they are committed (see {@link
+ * EventStorageService#committedSequence()}), so the SSE id of every event is a safe {@code
+ * Last-Event-ID} to resume from. A new subscriber first catches up from the event storage in pages
+ * of {@code buffer-size} events, from its resume point up to the events that were already on their
+ * way when it subscribed; live events it has already sent that way are skipped.
+ */
+@Component
+@Slf4j
+public class LiveEventBroadcaster implements DeviceEventListener {
+
+  private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+  // Slots reserved against maxSubscribers, taken before a subscriber is created
+  private final AtomicInteger reservedSlots = new AtomicInteger();
+  private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+  private final int bufferSize;
+  private final int maxSubscribers;
+  private final long timeoutMillis;
+
+  public LiveEventBroadcaster(
+      @Value("${ueberboese.events.stream.buffer-size}") int bufferSize,
+      @Value("${ueberboese.events.stream.max-subscribers}") int maxSubscribers,
+      @Value("${ueberboese.events.stream.timeout}") Duration timeout) {
+    this.bufferSize = bufferSize;
+    this.maxSubscribers = maxSubscribers;
+    this.timeoutMillis = timeout.toMillis();
+  }
+
+  @Override
+  public void onDeviceEvents(List<StoredDeviceEvent> events) {
+    if (subscribers.isEmpty()) {
+      return;
+    }
+    for (Subscriber subscriber : subscribers) {
+      for (StoredDeviceEvent event : events) {
+        if (subscriber.matches(event)) {
+          subscriber.offer(event);
+        }
+      }
+    }
+  }
+
+  @Override
+  public void onEventsCommitted() {
+    // Queued events are held until they are committed, which is the case by now at the earliest
+    for (Subscriber subscriber : subscribers) {
+      subscriber.scheduleSend();
+    }
+  }
+
+  /**
+   * Registers a new subscriber.
+   *
+   * @param deviceId Only push events of this device, or null for all devices
+   * @param type Only push events of this type, or null for all types
+   * @param afterSequence Only push events with a greater sequence, e.g. the client's last event ID
+   * @param eventStorageService Source of the events the subscriber catches up on
+   * @return The emitter to return from the controller, or null if the subscriber limit is reached
+   */
+  public SseEmitter subscribe(
+      String deviceId, String type, long afterSequence, EventStorageService eventStorageService) {
+    if (!reserveSlot()) {
+      return null;
+    }
+    SseEmitter emitter = new SseEmitter(timeoutMillis);
+    Subscriber subscriber =
+        new Subscriber(emitter, deviceId, type, afterSequence, eventStorageService);
+    emitter.onCompletion(subscriber::unsubscribe);
+    emitter.onTimeout(subscriber::unsubscribe);
+    emitter.onError(e -> subscriber.unsubscribe());
+    try {
+      // Buffered until the emitter is initialized; commits the response headers right away
+      emitter.send(SseEmitter.event().comment("subscribed"));
+    } catch (IOException e) {
+      subscriber.unsubscribe();
+      emitter.completeWithError(e);
+      return emitter;
+    }
+    subscribers.add(subscriber);
+    if (subscriber.unsubscribed.get()) {
+      // Completed before it was added, the completion callback had nothing to remove yet
+      subscribers.remove(subscriber);
+      return emitter;
+    }
+
+    // Events assigned up to now may have passed the listeners before the subscriber was added,
+    // they are read from the storage instead; all later ones are offered to the subscriber
+    subscriber.catchUpTo = eventStorageService.lastAssignedSequence();
+    subscriber.scheduleSend();
+    log.info("Live event subscriber added (device: {}, type: {})", deviceId, type);
+    return emitter;
+  }
+
+  int getSubscriberCount() {
+    return subscribers.size();
+  }
+
+  int getReservedSlots() {
+    return reservedSlots.get();
+  }
+
+  private boolean reserveSlot() {
+    int reserved;
+    do {
+      reserved = reservedSlots.get();
+      if (reserved >= maxSubscribers) {
+        return false;
+      }
+    } while (!reservedSlots.compareAndSet(reserved, reserved + 1));
+    return true;
+  }
+
+  @PreDestroy
+  public void close() {
+    subscribers.forEach(
+        subscriber -> {
+          subscriber.unsubscribe();
+          subscriber.emitter.complete();
+        });
+    senders.shutdownNow();
+  }
+
+  private final class Subscriber {
+
+    private final SseEmitter emitter;
+    private final String deviceId;
+    private final String type;
+    private final EventStorageService eventStorageService;
+    // Queued events by sequence, guarded by the queue itself
+    private final NavigableMap<Long, StoredDeviceEvent> queue = new TreeMap<>();
+    private final AtomicBoolean sending = new AtomicBoolean();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicBoolean unsubscribed = new AtomicBoolean();
+    // Events up to this sequence are read from the storage rather than queued
+    private volatile long catchUpTo = Long.MIN_VALUE;
+    private volatile boolean catchingUp = true;
+
+    // Only accessed by the sending thread
+    private long lastSentSequence;
+
+    Subscriber(
+        SseEmitter emitter,
+        String deviceId,
+        String type,
+        long afterSequence,
+        EventStorageService eventStorageService) {
+      this.emitter = emitter;
+      this.deviceId = deviceId;
+      this.type = type;
+      this.lastSentSequence = afterSequence;
+      this.eventStorageService = eventStorageService;
+    }
+
+    /** Removes the subscriber and releases its slot; safe to call from every completion path. */
+    void unsubscribe() {
+      if (unsubscribed.compareAndSet(false, true)) {
+        subscribers.remove(this);
+        reservedSlots.decrementAndGet();
+      }
+    }
+
+    boolean matches(StoredDeviceEvent event) {
+      return (deviceId == null || deviceId.equals(event.deviceId()))
+          && (type == null || type.equals(event.event().getType()));
+    }
+
+    void offer(StoredDeviceEvent event) {
+      if (event.sequence() <= catchUpTo) {
+        return;
+      }
+      synchronized (queue) {
+        if (queue.size() >= bufferSize) {
+          // Slow consumer: make room by dropping the oldest queued event
+          queue.pollFirstEntry();
+          dropped.incrementAndGet();
+        }
+        queue.put(event.sequence(), event);
+      }
+    }
+
+    void scheduleSend() {
+      if ((catchingUp || hasCommittedEvent()) && sending.compareAndSet(false, true)) {
+        senders.execute(this::send);
+      }
+    }
+
+    private boolean hasCommittedEvent() {
+      synchronized (queue) {
+        return !queue.isEmpty() && queue.firstKey() <= eventStorageService.committedSequence();
+      }
+    }
+
+    private StoredDeviceEvent pollCommittedEvent() {
+      synchronized (queue) {
+        if (queue.isEmpty() || queue.firstKey() > eventStorageService.committedSequence()) {
+          return null;
+        }
+        return queue.pollFirstEntry().getValue();
+      }
+    }
+
+    private void send() {
+      try {
+        do {
+          if (catchingUp) {
+            catchUp();
+          }
+          long missed = dropped.getAndSet(0);
+          if (missed > 0) {
+            emitter.send(SseEmitter.event().name("dropped").data(missed));
+          }
+          StoredDeviceEvent event;
+          while (!catchingUp && (event = pollCommittedEvent()) != null) {
+            // Skip events that were already sent while catching up
+            if (event.sequence() > lastSentSequence) {
+              sendEvent(event);
+            }
+          }
+          sending.set(false);
+          // Re-check: an event may have been committed after the last poll but before the reset
+        } while (!catchingUp && hasCommittedEvent() && sending.compareAndSet(false, true));
+      } catch (IOException | IllegalStateException e) {
+        log.debug("Live event subscriber disconnected: {}", e.getMessage());
+        unsubscribe();
+        emitter.completeWithError(e);
+      }
+    }
+
+    /**
+     * Sends the stored events after the last sent one in pages, up to the committed sequence. Done
+     * once every event assigned before the subscription is committed; until then the next commit
+     * continues.
+     */
+    private void catchUp() throws IOException {
+      long committed = eventStorageService.committedSequence();
+      List<StoredDeviceEvent> page = new ArrayList<>(bufferSize);
+      do {
+        page.clear();
+        eventStorageService.scanAfter(
+            deviceId,
+            lastSentSequence,
+            event -> {
+              if (matches(event)) {
+                page.add(event);
+              }
+              return page.size() < bufferSize;
+            });
+        for (StoredDeviceEvent event : page) {
+          sendEvent(event);
+        }
+      } while (page.size() == bufferSize);
+      if (committed >= catchUpTo) {
+        catchingUp = false;
+      }
+    }
+
+    private void sendEvent(StoredDeviceEvent event) throws IOException {
+      emitter.send(
+          SseEmitter.event()
+              .id(String.valueOf(event.sequence()))
+              .name("device-event")
+              .data(MgmtController.toDeviceEventRecordApiDto(event), MediaType.APPLICATION_JSON));
+      lastSentSequence = event.sequence();
+    }
+  }
+}
@@ -0,0 +1,47 @@
+package com.github.juliusd.ueberboeseapi.mgmt;
+
+import com.github.juliusd.ueberboeseapi.service.EventStorageService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * Server-Sent Events stream of device events as they arrive.
+ *
+ * <p>Each event is sent as a {@code device-event} with the event sequence as SSE id, so a
+ * reconnecting client (sending {@code Last-Event-ID}) first receives the events it missed that are
+ * still held in memory. Events are sent in sequence order, see {@link LiveEventBroadcaster}. Not
+ * part of mgmt-api.yaml because the generator cannot express an event stream.
+ */
+@RestController
+@Slf4j
+@RequiredArgsConstructor
+public class LiveEventStreamController {
+
+  private final LiveEventBroadcaster liveEventBroadcaster;
+  private final EventStorageService eventStorageService;
+
+  @GetMapping(value = "/mgmt/events/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+  public ResponseEntity<SseEmitter> streamEvents(
+      @RequestParam(value = "deviceId", required = false) String deviceId,
+      @RequestParam(value = "type", required = false) String type,
+      @RequestHeader(value = "Last-Event-ID", required = false) Long lastEventId) {
+    long afterSequence =
+        lastEventId != null ? lastEventId : eventStorageService.committedSequence();
+
+    SseEmitter emitter =
+        liveEventBroadcaster.subscribe(deviceId, type, afterSequence, eventStorageService);
+    if (emitter == null) {
+      log.warn("Rejecting live event subscriber, limit reached");
+      return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+    }
+    return ResponseEntity.ok().contentType(MediaType.TEXT_EVENT_STREAM).body(emitter);
+  }
+}
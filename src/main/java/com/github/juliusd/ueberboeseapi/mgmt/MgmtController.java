@@ -1,16 +1,28 @@
 package com.github.juliusd.ueberboeseapi.mgmt;
 
+import com.github.juliusd.ueberboeseapi.event.DeviceState;
+import com.github.juliusd.ueberboeseapi.event.DeviceStateProjector;
+import com.github.juliusd.ueberboeseapi.event.PersistentEventStore;
+import com.github.juliusd.ueberboeseapi.event.StoredDeviceEvent;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.AccountManagementApi;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.EventManagementApi;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.DeviceEventApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.DeviceEventRecordApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.DeviceStateApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ErrorApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.GetDeviceEvents200ResponseApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ListDeviceStates200ResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ListSpeakers200ResponseApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.QueryDeviceEvents200ResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.SpeakerApiDto;
 import com.github.juliusd.ueberboeseapi.service.DeviceTrackingService;
 import com.github.juliusd.ueberboeseapi.service.EventStorageService;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -22,8 +34,12 @@ import org.springframework.web.bind.annotation.RestController;
 @Slf4j
 public class MgmtController implements AccountManagementApi, EventManagementApi {
 
+  private static final int MAX_QUERY_EVENTS = 10_000;
+
   private final DeviceTrackingService deviceTrackingService;
   private final EventStorageService eventStorageService;
+  private final Optional<PersistentEventStore> persistentEventStore;
+  private final DeviceStateProjector deviceStateProjector;
 
   @Override
   public ResponseEntity<ListSpeakers200ResponseApiDto> listSpeakers(String accountId) {
@@ -31,7 +47,8 @@ public class MgmtController implements AccountManagementApi, EventManagementApi
 
     List<SpeakerApiDto> speakers = new ArrayList<>();
 
-    for (DeviceTrackingService.DeviceInfo deviceInfo : deviceTrackingService.getAllDevices()) {
+    for (DeviceTrackingService.DeviceInfo deviceInfo :
+        deviceTrackingService.getDevicesForAccount(accountId)) {
       SpeakerApiDto speaker = new SpeakerApiDto();
       speaker.setIpAddress(deviceInfo.getIpAddress());
       speakers.add(speaker);
@@ -52,12 +69,7 @@ public class MgmtController implements AccountManagementApi, EventManagementApi
     List<DeviceEventApiDto> allDeviceEvents = new ArrayList<>();
 
     for (var sourceEvent : storedEvents) {
-      DeviceEventApiDto deviceEvent = new DeviceEventApiDto();
-      deviceEvent.setData(sourceEvent.getData());
-      deviceEvent.setMonoTime(sourceEvent.getMonoTime());
-      deviceEvent.setTime(sourceEvent.getTime());
-      deviceEvent.setType(sourceEvent.getType());
-      allDeviceEvents.add(deviceEvent);
+      allDeviceEvents.add(toDeviceEventApiDto(sourceEvent));
     }
 
     GetDeviceEvents200ResponseApiDto response = new GetDeviceEvents200ResponseApiDto();
@@ -67,6 +79,128 @@ public class MgmtController implements AccountManagementApi, EventManagementApi
     return ResponseEntity.ok().header("Content-Type", "application/json").body(response);
   }
 
+  @Override
+  public ResponseEntity<GetDeviceEvents200ResponseApiDto> getDeviceEventHistory(
+      String deviceId, OffsetDateTime from, OffsetDateTime to, Integer limit) {
+    log.info("Retrieving event history for device: {} (from: {}, to: {})", deviceId, from, to);
+
+    if (persistentEventStore.isEmpty()) {
+      ErrorApiDto error = new ErrorApiDto();
+      error.setError("Not found");
+      error.setMessage("Persistent event store is not enabled");
+      return (ResponseEntity<GetDeviceEvents200ResponseApiDto>)
+          (ResponseEntity<?>)
+              ResponseEntity.status(404).header("Content-Type", "application/json").body(error);
+    }
+
+    int effectiveLimit = Math.clamp(limit != null ? limit : 1000, 1, MAX_QUERY_EVENTS);
+    List<StoredDeviceEvent> storedEvents =
+        persistentEventStore
+            .get()
+            .query(
+                deviceId,
+                from != null ? from.toInstant() : null,
+                to != null ? to.toInstant() : null,
+                effectiveLimit);
+
+    GetDeviceEvents200ResponseApiDto response = new GetDeviceEvents200ResponseApiDto();
+    response.setEvents(
+        storedEvents.stream().map(stored -> toDeviceEventApiDto(stored.event())).toList());
+
+    log.info("Retrieved {} persisted events for device: {}", storedEvents.size(), deviceId);
+    return ResponseEntity.ok().header("Content-Type", "application/json").body(response);
+  }
+
+  @Override
+  public ResponseEntity<QueryDeviceEvents200ResponseApiDto> queryDeviceEvents(
+      String deviceId, String type, OffsetDateTime from, OffsetDateTime to, Integer limit) {
+    log.info("Querying events (device: {}, type: {}, from: {}, to: {})", deviceId, type, from, to);
+
+    int effectiveLimit = Math.clamp(limit != null ? limit : 1000, 1, MAX_QUERY_EVENTS);
+    List<StoredDeviceEvent> storedEvents =
+        eventStorageService.queryEvents(
+            deviceId,
+            type,
+            from != null ? from.toInstant() : null,
+            to != null ? to.toInstant() : null,
+            effectiveLimit);
+
+    QueryDeviceEvents200ResponseApiDto response = new QueryDeviceEvents200ResponseApiDto();
+    response.setEvents(
+        storedEvents.stream().map(MgmtController::toDeviceEventRecordApiDto).toList());
+
+    log.info("Query returned {} events", storedEvents.size());
+    return ResponseEntity.ok().header("Content-Type", "application/json").body(response);
+  }
+
+  @Override
+  public ResponseEntity<DeviceStateApiDto> getDeviceState(String deviceId) {
+    log.info("Retrieving state for device: {}", deviceId);
+
+    var state = deviceStateProjector.getState(deviceId);
+    if (state.isEmpty()) {
+      ErrorApiDto error = new ErrorApiDto();
+      error.setError("Not found");
+      error.setMessage("No state known for device " + deviceId);
+      return (ResponseEntity<DeviceStateApiDto>)
+          (ResponseEntity<?>)
+              ResponseEntity.status(404).header("Content-Type", "application/json").body(error);
+    }
+
+    return ResponseEntity.ok()
+        .header("Content-Type", "application/json")
+        .body(toDeviceStateApiDto(state.get()));
+  }
+
+  @Override
+  public ResponseEntity<ListDeviceStates200ResponseApiDto> listDeviceStates() {
+    List<DeviceStateApiDto> states =
+        deviceStateProjector.getAllStates().stream()
+            .sorted(Comparator.comparing(DeviceState::deviceId))
+            .map(MgmtController::toDeviceStateApiDto)
+            .toList();
+
+    ListDeviceStates200ResponseApiDto response = new ListDeviceStates200ResponseApiDto();
+    response.setStates(states);
+
+    log.info("Retrieved state of {} devices", states.size());
+    return ResponseEntity.ok().header("Content-Type", "application/json").body(response);
+  }
+
+  private static DeviceStateApiDto toDeviceStateApiDto(DeviceState state) {
+    DeviceStateApiDto dto = new DeviceStateApiDto();
+    dto.setDeviceId(state.deviceId());
+    dto.setSource(state.source());
+    dto.setPlayState(state.playState());
+    dto.setVolume(state.volume());
+    dto.setLastPreset(state.lastPreset());
+    dto.setMasterDevice(state.masterDevice());
+    dto.setLastEventSequence(state.lastEventSequence());
+    dto.setUpdatedAt(state.updatedAt() != null ? state.updatedAt().atOffset(ZoneOffset.UTC) : null);
+    return dto;
+  }
+
+  static DeviceEventRecordApiDto toDeviceEventRecordApiDto(StoredDeviceEvent stored) {
+    DeviceEventRecordApiDto record = new DeviceEventRecordApiDto();
+    record.setSequence(stored.sequence());
+    record.setDeviceId(stored.deviceId());
+    record.setData(stored.event().getData());
+    record.setMonoTime(stored.event().getMonoTime());
+    record.setTime(stored.event().getTime());
+    record.setType(stored.event().getType());
+    return record;
+  }
+
+  private static DeviceEventApiDto toDeviceEventApiDto(
+      com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto sourceEvent) {
+    DeviceEventApiDto deviceEvent = new DeviceEventApiDto();
+    deviceEvent.setData(sourceEvent.getData());
+    deviceEvent.setMonoTime(sourceEvent.getMonoTime());
+    deviceEvent.setTime(sourceEvent.getTime());
+    deviceEvent.setType(sourceEvent.getType());
+    return deviceEvent;
+  }
+
   /** Exception handler for RuntimeException - returns 500 Internal Server Error. */
   @ExceptionHandler(RuntimeException.class)
   public ResponseEntity<ErrorApiDto> handleRuntimeException(RuntimeException e) {
@@ -3,11 +3,14 @@ package com.github.juliusd.ueberboeseapi.mgmt;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.SpotifyManagementApi;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ConfirmSpotifyAuth200ResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ErrorApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.GetSpotifyEntities200ResponseApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.GetSpotifyEntitiesRequestApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.GetSpotifyEntity200ResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.GetSpotifyEntityRequestApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.InitSpotifyAuth200ResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.ListSpotifyAccounts200ResponseApiDto;
 import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.SpotifyAccountListItemApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.SpotifyEntityResultApiDto;
 import com.github.juliusd.ueberboeseapi.spotify.InvalidSpotifyUriException;
 import com.github.juliusd.ueberboeseapi.spotify.SpotifyAccount;
 import com.github.juliusd.ueberboeseapi.spotify.SpotifyAccountService;
@@ -19,6 +22,7 @@ import java.util.List;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -135,6 +139,33 @@ public class SpotifyMgmtController implements SpotifyManagementApi {
     }
   }
 
+  @Override
+  public ResponseEntity<GetSpotifyEntities200ResponseApiDto> getSpotifyEntities(
+      GetSpotifyEntitiesRequestApiDto getSpotifyEntitiesRequestApiDto) {
+    List<String> uris = getSpotifyEntitiesRequestApiDto.getUris();
+    log.info("Getting Spotify entity info for {} URIs", uris.size());
+
+    List<SpotifyEntityResultApiDto> entities =
+        spotifyEntityService.getEntityInfos(uris).stream()
+            .map(
+                result -> {
+                  var dto = new SpotifyEntityResultApiDto();
+                  dto.setUri(result.uri());
+                  dto.setStatus(
+                      SpotifyEntityResultApiDto.StatusEnum.valueOf(result.status().name()));
+                  if (result.info() != null) {
+                    dto.setName(result.info().name());
+                    dto.setImageUrl(result.info().imageUrl());
+                  }
+                  return dto;
+                })
+            .toList();
+
+    var response = new GetSpotifyEntities200ResponseApiDto();
+    response.setEntities(entities);
+    return ResponseEntity.ok().header("Content-Type", "application/json").body(response);
+  }
+
   /** Exception handler for IllegalArgumentException - returns 400 Bad Request. */
   @ExceptionHandler(IllegalArgumentException.class)
   public ResponseEntity<ErrorApiDto> handleIllegalArgumentException(IllegalArgumentException e) {
@@ -147,6 +178,23 @@ public class SpotifyMgmtController implements SpotifyManagementApi {
     return ResponseEntity.badRequest().header("Content-Type", "application/json").body(error);
   }
 
+  /** Exception handler for MethodArgumentNotValidException - returns 400 Bad Request. */
+  @ExceptionHandler(MethodArgumentNotValidException.class)
+  public ResponseEntity<ErrorApiDto> handleMethodArgumentNotValidException(
+      MethodArgumentNotValidException e) {
+    log.warn("Invalid request: {}", e.getMessage());
+
+    ErrorApiDto error = new ErrorApiDto();
+    error.setError("Bad request");
+    error.setMessage(
+        e.getBindingResult().getFieldErrors().stream()
+            .map(fieldError -> fieldError.getField() + " " + fieldError.getDefaultMessage())
+            .findFirst()
+            .orElse("Invalid request body"));
+
+    return ResponseEntity.badRequest().header("Content-Type", "application/json").body(error);
+  }
+
   /** Exception handler for InvalidSpotifyUriException - returns 400 Bad Request. */
   @ExceptionHandler(InvalidSpotifyUriException.class)
   public ResponseEntity<ErrorApiDto> handleInvalidSpotifyUriException(
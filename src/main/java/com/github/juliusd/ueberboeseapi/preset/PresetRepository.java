@@ -27,4 +27,8 @@ public interface PresetRepository extends CrudRepository<Preset, Long> {
       """)
   Optional<Preset> findByAccountIdAndDeviceIdAndLocationAndSourceIdAndContentItemType(
       String accountId, String deviceId, String location, String sourceId, String contentItemType);
+
+  /** Distinct locations of all presets pointing to a TuneIn station. */
+  @Query("SELECT DISTINCT LOCATION FROM PRESET WHERE LOCATION LIKE '%/station/s%'")
+  List<String> findDistinctStationLocations();
 }
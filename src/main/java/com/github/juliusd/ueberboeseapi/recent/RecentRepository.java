@@ -1,5 +1,6 @@
 package com.github.juliusd.ueberboeseapi.recent;
 
+import java.time.OffsetDateTime;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jdbc.repository.query.Modifying;
@@ -25,4 +26,12 @@ public interface RecentRepository extends CrudRepository<Recent, Long> {
 
   @Query("SELECT * FROM RECENT WHERE ACCOUNT_ID = :accountId AND ID = :id")
   Optional<Recent> findByAccountIdAndId(String accountId, Long id);
+
+  /** Distinct TuneIn station locations played since the given time, most recently played first. */
+  @Query(
+      """
+      SELECT LOCATION FROM RECENT WHERE LOCATION LIKE '%/station/s%' AND LAST_PLAYED_AT >= :since
+       GROUP BY LOCATION ORDER BY MAX(LAST_PLAYED_AT) DESC
+      """)
+  List<String> findDistinctStationLocationsPlayedSince(OffsetDateTime since);
 }
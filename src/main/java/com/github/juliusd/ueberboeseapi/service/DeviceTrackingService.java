@@ -1,19 +1,35 @@
 package com.github.juliusd.ueberboeseapi.service;
 
 import com.github.juliusd.ueberboeseapi.device.Device;
+import com.github.juliusd.ueberboeseapi.device.DeviceRegistry;
 import com.github.juliusd.ueberboeseapi.device.DeviceRepository;
+import jakarta.annotation.PreDestroy;
 import java.time.OffsetDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 /**
  * Service for tracking devices that report to the /streaming/support/power_on endpoint. Stores
  * device information in the H2 database including IP address and timestamps.
+ *
+ * <p>New devices and IP address changes are written immediately. A power_on of a known device at
+ * its known IP address only changes lastSeen, so it is coalesced in memory and written in batched
+ * updates by {@link #flushLastSeen()}. This keeps a fleet rebooting at once from turning into one
+ * read and one full-row write per request. Devices are read from the {@link DeviceRegistry}.
  */
 @Service
 @Slf4j
@@ -21,10 +37,15 @@ import org.springframework.stereotype.Service;
 public class DeviceTrackingService {
 
   private final DeviceRepository deviceRepository;
+  private final DeviceRegistry deviceRegistry;
+
+  /** Latest power_on per device that has not yet been written to the database. */
+  private final Map<String, OffsetDateTime> pendingLastSeen = new ConcurrentHashMap<>();
 
   /**
    * Records a device power-on event. If this is the first time the device is seen, creates a new
-   * entry with firstSeen timestamp. Otherwise updates the lastSeen timestamp.
+   * entry with firstSeen timestamp. If the IP address changed, the device is updated right away.
+   * Otherwise only the lastSeen timestamp is remembered until the next flush.
    *
    * @param deviceId The device identifier from the power_on request
    * @param ipAddress The IP address of the device
@@ -32,12 +53,24 @@ public class DeviceTrackingService {
   public void recordDevicePowerOn(String deviceId, String ipAddress) {
     log.debug("Recording power_on for device: {} at IP: {}", deviceId, ipAddress);
 
+    boolean knownAtSameAddress =
+        ipAddress != null
+            && deviceRegistry
+                .findById(deviceId)
+                .filter(device -> ipAddress.equals(device.ipAddress()))
+                .isPresent();
+    if (knownAtSameAddress) {
+      pendingLastSeen.merge(
+          deviceId, now(), (previous, now) -> now.isAfter(previous) ? now : previous);
+      return;
+    }
+
     deviceRepository
         .findById(deviceId)
         .ifPresentOrElse(
             existingDevice -> {
               // Update existing device
-              OffsetDateTime now = OffsetDateTime.now();
+              OffsetDateTime now = now();
               log.debug(
                   "Updating device: {} at IP: {} (last seen: {}, previous IP: {})",
                   deviceId,
@@ -49,11 +82,11 @@ public class DeviceTrackingService {
               if (!Objects.equals(existingDevice.ipAddress(), ipAddress)) {
                 updatedDeviceBuilder.ipAddress(ipAddress).updatedOn(now);
               }
-              deviceRepository.save(updatedDeviceBuilder.build());
+              saveDevice(updatedDeviceBuilder.build());
             },
             () -> {
               // First time seeing this device
-              OffsetDateTime now = OffsetDateTime.now();
+              OffsetDateTime now = now();
               log.info(
                   "New device registered: {} at IP: {} (first seen: {})", deviceId, ipAddress, now);
               Device newDevice =
@@ -66,24 +99,110 @@ public class DeviceTrackingService {
                       .updatedOn(now)
                       .version(null)
                       .build();
-              deviceRepository.save(newDevice);
+              saveDevice(newDevice);
             });
   }
 
+  /**
+   * Writes all coalesced lastSeen timestamps to the database. Devices seen within the same second
+   * share one UPDATE statement using the latest timestamp of that second. Devices whose row is gone
+   * (e.g. deleted in the meantime) are forgotten, so their next power_on registers them again.
+   */
+  @Scheduled(
+      fixedDelayString = "${ueberboese.device-tracking.flush-interval}",
+      initialDelayString = "${ueberboese.device-tracking.flush-interval}")
+  @PreDestroy
+  public synchronized void flushLastSeen() {
+    if (pendingLastSeen.isEmpty()) {
+      return;
+    }
+
+    Map<OffsetDateTime, LastSeenBatch> batches = new HashMap<>();
+    for (String deviceId : pendingLastSeen.keySet()) {
+      OffsetDateTime lastSeen = pendingLastSeen.remove(deviceId);
+      if (lastSeen != null) {
+        batches
+            .computeIfAbsent(
+                lastSeen.truncatedTo(ChronoUnit.SECONDS), second -> new LastSeenBatch())
+            .add(deviceId, lastSeen);
+      }
+    }
+
+    int devices = 0;
+    for (LastSeenBatch batch : batches.values()) {
+      int updated = deviceRepository.updateLastSeen(batch.lastSeen, batch.deviceIds);
+      deviceRegistry.updateLastSeen(batch.deviceIds, batch.lastSeen);
+      if (updated < batch.deviceIds.size()) {
+        forgetMissingDevices(batch);
+      }
+      devices += batch.deviceIds.size();
+    }
+    log.debug("Flushed lastSeen of {} devices in {} statements", devices, batches.size());
+  }
+
+  private void forgetMissingDevices(LastSeenBatch batch) {
+    Set<String> missing = new HashSet<>(batch.deviceIds);
+    deviceRepository
+        .findAllById(batch.deviceIds)
+        .forEach(device -> missing.remove(device.deviceId()));
+    for (String deviceId : missing) {
+      log.info("Device {} no longer stored, registering it again on next power_on", deviceId);
+      deviceRegistry.remove(deviceId);
+    }
+  }
+
+  private void saveDevice(Device device) {
+    // A coalesced lastSeen older than this write must not overwrite it on the next flush
+    pendingLastSeen.computeIfPresent(
+        device.deviceId(), (id, pending) -> pending.isAfter(device.lastSeen()) ? pending : null);
+    deviceRepository.save(device);
+  }
+
   /**
    * Returns all tracked devices.
    *
    * @return Collection of DeviceInfo objects for all devices that have reported to power_on
    */
   public Collection<DeviceInfo> getAllDevices() {
-    var devices = deviceRepository.findAllByOrderByLastSeenDesc();
+    flushLastSeen();
+    var devices = deviceRegistry.findAll();
     log.debug("Retrieving all tracked devices (count: {})", devices.size());
-    return devices.stream()
-        .map(
-            device ->
-                new DeviceInfo(
-                    device.deviceId(), device.ipAddress(), device.firstSeen(), device.lastSeen()))
-        .toList();
+    return devices.stream().map(DeviceTrackingService::toDeviceInfo).toList();
+  }
+
+  /**
+   * Returns the devices paired with an account, most recently seen first.
+   *
+   * @param accountId The Marge account ID the devices are paired with
+   * @return Collection of DeviceInfo objects for the account's devices
+   */
+  public Collection<DeviceInfo> getDevicesForAccount(String accountId) {
+    flushLastSeen();
+    var devices = deviceRegistry.findByAccount(accountId);
+    log.debug("Retrieving tracked devices of account {} (count: {})", accountId, devices.size());
+    return devices.stream().map(DeviceTrackingService::toDeviceInfo).toList();
+  }
+
+  /** Current time at the precision of the LAST_SEEN column, so registry and table agree. */
+  private static OffsetDateTime now() {
+    return OffsetDateTime.now().truncatedTo(ChronoUnit.MICROS);
+  }
+
+  private static DeviceInfo toDeviceInfo(Device device) {
+    return new DeviceInfo(
+        device.deviceId(), device.ipAddress(), device.firstSeen(), device.lastSeen());
+  }
+
+  private static final class LastSeenBatch {
+    private final List<String> deviceIds = new ArrayList<>();
+    private OffsetDateTime lastSeen;
+
+    void add(String deviceId, OffsetDateTime seen) {
+      deviceIds.add(deviceId);
+      if (lastSeen == null || seen.isAfter(lastSeen)) {
+        lastSeen = seen;
+      }
+    }
   }
 
   /** Data class representing information about a tracked device. */
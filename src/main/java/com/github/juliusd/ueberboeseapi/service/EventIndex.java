@@ -0,0 +1,153 @@
+package com.github.juliusd.ueberboeseapi.service;
+
+import com.github.juliusd.ueberboeseapi.event.StoredDeviceEvent;
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * Secondary indexes over the events held in memory by {@link EventStorageService}.
+ *
+ * <p>All events are kept in a skip list ordered by event time (then sequence), and additionally in
+ * one such skip list per event type and one per device. A time range query is therefore a sub set
+ * view on the narrowest matching skip list instead of a scan over every device buffer. All
+ * structures are concurrent, so queries never block incoming events. Per-type and per-device lists
+ * are dropped once their last event is removed, so neither evicted devices nor made up event types
+ * leave anything behind.
+ */
+final class EventIndex {
+
+  private static final Comparator<StoredDeviceEvent> BY_TIME =
+      Comparator.comparingLong(EventIndex::eventTimeMillis)
+          .thenComparingLong(StoredDeviceEvent::sequence);
+
+  private final NavigableSet<StoredDeviceEvent> byTime = new ConcurrentSkipListSet<>(BY_TIME);
+  private final NavigableSet<StoredDeviceEvent> bySequence =
+      new ConcurrentSkipListSet<>(Comparator.comparingLong(StoredDeviceEvent::sequence));
+  private final Map<String, NavigableSet<StoredDeviceEvent>> byType = new ConcurrentHashMap<>();
+  private final Map<String, NavigableSet<StoredDeviceEvent>> byDevice = new ConcurrentHashMap<>();
+
+  void add(StoredDeviceEvent event) {
+    byTime.add(event);
+    bySequence.add(event);
+    addTo(byType, typeOf(event), event);
+    addTo(byDevice, event.deviceId(), event);
+  }
+
+  void remove(StoredDeviceEvent event) {
+    byTime.remove(event);
+    bySequence.remove(event);
+    removeFrom(byType, typeOf(event), event);
+    removeFrom(byDevice, event.deviceId(), event);
+  }
+
+  private static void addTo(
+      Map<String, NavigableSet<StoredDeviceEvent>> index, String key, StoredDeviceEvent event) {
+    // compute is atomic per key, so a concurrent remove cannot drop the set this event goes into
+    index.compute(
+        key,
+        (k, events) -> {
+          NavigableSet<StoredDeviceEvent> keyEvents =
+              events != null ? events : new ConcurrentSkipListSet<>(BY_TIME);
+          keyEvents.add(event);
+          return keyEvents;
+        });
+  }
+
+  private static void removeFrom(
+      Map<String, NavigableSet<StoredDeviceEvent>> index, String key, StoredDeviceEvent event) {
+    index.computeIfPresent(
+        key,
+        (k, events) -> {
+          events.remove(event);
+          return events.isEmpty() ? null : events;
+        });
+  }
+
+  /**
+   * Finds events matching all given filters, ordered by event time.
+   *
+   * @param deviceId The device ID, or null for all devices
+   * @param type The event type, or null for all types
+   * @param from Inclusive lower bound of the event time, or null for no bound
+   * @param to Exclusive upper bound of the event time, or null for no bound
+   * @param limit Maximum number of events to return
+   * @return Matching events, oldest first
+   */
+  List<StoredDeviceEvent> query(String deviceId, String type, Instant from, Instant to, int limit) {
+    // A device has few events compared to a type, so its index is the narrower starting point
+    NavigableSet<StoredDeviceEvent> candidates =
+        deviceId != null ? byDevice.get(deviceId) : type != null ? byType.get(type) : byTime;
+    if (candidates == null) {
+      return List.of();
+    }
+    if (from != null) {
+      candidates = candidates.tailSet(lowerBound(from), true);
+    }
+    if (to != null) {
+      candidates = candidates.headSet(lowerBound(to), false);
+    }
+
+    List<StoredDeviceEvent> result = new ArrayList<>();
+    for (StoredDeviceEvent event : candidates) {
+      if (deviceId != null && type != null && !type.equals(typeOf(event))) {
+        continue;
+      }
+      result.add(event);
+      if (result.size() >= limit) {
+        break;
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns a live view of all events with a sequence greater than the given one, in sequence
+   * order. Iterating it does not copy the events.
+   *
+   * @param afterSequence Exclusive lower bound of the sequence
+   * @return Weakly consistent view on the index
+   */
+  NavigableSet<StoredDeviceEvent> after(long afterSequence) {
+    return bySequence.tailSet(sequenceBound(afterSequence), false);
+  }
+
+  int size() {
+    return byTime.size();
+  }
+
+  /** Number of event types with at least one indexed event. Used for testing. */
+  int typeCount() {
+    return byType.size();
+  }
+
+  void clear() {
+    byTime.clear();
+    bySequence.clear();
+    byType.clear();
+    byDevice.clear();
+  }
+
+  private static StoredDeviceEvent lowerBound(Instant time) {
+    // Sorts before every real event with the same time, as sequences are never negative
+    return new StoredDeviceEvent(Long.MIN_VALUE, null, time, new DeviceEventApiDto());
+  }
+
+  private static StoredDeviceEvent sequenceBound(long sequence) {
+    return new StoredDeviceEvent(sequence, null, Instant.EPOCH, new DeviceEventApiDto());
+  }
+
+  private static long eventTimeMillis(StoredDeviceEvent event) {
+    return event.eventTime().toEpochMilli();
+  }
+
+  private static String typeOf(StoredDeviceEvent event) {
+    return event.event().getType() != null ? event.event().getType() : "";
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.juliusd.ueberboeseapi.service;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Fixed-capacity, lock-free ring buffer holding the most recent elements of a single device.
+ *
+ * <p>Every element gets a sequence number claimed from an atomic counter and is written into slot
+ * {@code sequence % capacity}. Adding never shifts elements: once the buffer is full the new
+ * element simply replaces the oldest one. Readers never block writers and vice versa; {@link
+ * #snapshot()} only returns slots whose stamped sequence matches the expected one, so entries that
+ * are still being written or were overwritten while copying are skipped.
+ *
+ * @param <E> Element type
+ */
+final class EventRingBuffer<E> {
+
+  private final int capacity;
+  private final AtomicReferenceArray<Slot<E>> slots;
+  private final AtomicLong nextSequence = new AtomicLong();
+
+  EventRingBuffer(int capacity) {
+    if (capacity <= 0) {
+      throw new IllegalArgumentException("capacity must be positive but was " + capacity);
+    }
+    this.capacity = capacity;
+    this.slots = new AtomicReferenceArray<>(capacity);
+  }
+
+  /**
+   * Appends an element, overwriting the oldest one if the buffer is full.
+   *
+   * @param element The element to append
+   * @return The element that was evicted to make room, or null if nothing was evicted
+   */
+  E add(E element) {
+    long sequence = nextSequence.getAndIncrement();
+    int index = (int) (sequence % capacity);
+    Slot<E> slot = new Slot<>(sequence, element);
+
+    while (true) {
+      Slot<E> current = slots.get(index);
+      if (current != null && current.sequence() > sequence) {
+        // A writer that claimed a later sequence already lapped us - our element is outdated
+        return element;
+      }
+      if (slots.compareAndSet(index, current, slot)) {
+        return current != null ? current.element() : null;
+      }
+    }
+  }
+
+  /**
+   * Returns a copy of the currently stored elements, oldest first. Never blocks.
+   *
+   * @return Snapshot of the buffer content
+   */
+  List<E> snapshot() {
+    long end = nextSequence.get();
+    long start = Math.max(0, end - capacity);
+    List<E> result = new ArrayList<>((int) (end - start));
+    for (long sequence = start; sequence < end; sequence++) {
+      Slot<E> slot = slots.get((int) (sequence % capacity));
+      if (slot != null && slot.sequence() == sequence) {
+        result.add(slot.element());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * Returns the number of stored elements.
+   *
+   * @return Number of elements, at most the capacity
+   */
+  int size() {
+    return (int) Math.min(nextSequence.get(), capacity);
+  }
+
+  int capacity() {
+    return capacity;
+  }
+
+  private record Slot<E>(long sequence, E element) {}
+}
@@ -1,11 +1,25 @@
 package com.github.juliusd.ueberboeseapi.service;
 
+import com.github.juliusd.ueberboeseapi.event.DeviceEventListener;
+import com.github.juliusd.ueberboeseapi.event.StoredDeviceEvent;
 import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto;
 import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventsRequestApiDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableSet;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Predicate;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
@@ -14,43 +28,248 @@ import org.springframework.stereotype.Service;
  * Service for storing and retrieving device events in-memory.
  *
  * <p>This service maintains an in-memory storage of events received from Bose SoundTouch devices,
- * organized by device ID. Events are limited to a configurable maximum per device, with oldest
- * events being removed when the limit is exceeded.
+ * organized by device ID. Each device gets a fixed-capacity {@link EventRingBuffer} sized by {@code
+ * ueberboese.events.max-events-per-device}, so the oldest events are overwritten in O(1) once the
+ * limit is reached and reads never block incoming events.
+ *
+ * <p>The number of events across all devices is bounded by {@code
+ * ueberboese.events.max-total-events}. Once it is exceeded, whole devices are evicted, least
+ * recently active first, until the total is back below 90% of the budget. This keeps the heap
+ * bounded even if clients post events for arbitrary device IDs.
+ *
+ * <p>Every stored event gets a strictly increasing sequence number and is passed on to all {@link
+ * DeviceEventListener} beans, which are also told about evicted devices. Events currently held in
+ * memory are additionally indexed by type and time (see {@link EventIndex}) for {@link
+ * #queryEvents}.
  */
 @Service
 @Slf4j
 public class EventStorageService {
 
+  private final List<DeviceEventListener> listeners;
+  private final int maxEventsPerDevice;
+  private final int maxTotalEvents;
+
+  // Last assigned sequence, derived from the wall clock in micros so it keeps growing across
+  // restarts
+  private final AtomicLong lastSequence = new AtomicLong(micros(Instant.now()));
+
+  // First sequence of every request whose events are still being stored or handed to listeners
+  private final NavigableSet<Long> inFlight = new ConcurrentSkipListSet<>();
+  private final Object sequenceLock = new Object();
+
   // In-memory storage of events by device ID
-  private final Map<String, List<DeviceEventApiDto>> eventsByDevice = new ConcurrentHashMap<>();
+  private final Map<String, DeviceEvents> eventsByDevice = new ConcurrentHashMap<>();
+
+  private final EventIndex eventIndex = new EventIndex();
 
-  @Value("${ueberboese.events.max-events-per-device}")
-  private int maxEventsPerDevice;
+  // Events currently held across all devices
+  private final AtomicInteger totalEvents = new AtomicInteger();
+  private final AtomicBoolean evictionRunning = new AtomicBoolean();
+  private final Counter evictedDevices;
+  private final Counter evictedEvents;
+
+  public EventStorageService(
+      List<DeviceEventListener> listeners,
+      MeterRegistry meterRegistry,
+      @Value("${ueberboese.events.max-events-per-device}") int maxEventsPerDevice,
+      @Value("${ueberboese.events.max-total-events}") int maxTotalEvents) {
+    if (maxTotalEvents < maxEventsPerDevice) {
+      throw new IllegalArgumentException(
+          "ueberboese.events.max-total-events must not be smaller than max-events-per-device");
+    }
+    this.listeners = listeners;
+    this.maxEventsPerDevice = maxEventsPerDevice;
+    this.maxTotalEvents = maxTotalEvents;
+
+    Gauge.builder("ueberboese.events.memory.events", totalEvents, AtomicInteger::get)
+        .description("Device events currently held in memory")
+        .register(meterRegistry);
+    Gauge.builder("ueberboese.events.memory.devices", eventsByDevice, Map::size)
+        .description("Devices with events currently held in memory")
+        .register(meterRegistry);
+    this.evictedDevices =
+        Counter.builder("ueberboese.events.memory.evicted.devices")
+            .description("Devices evicted because the global event budget was exceeded")
+            .register(meterRegistry);
+    this.evictedEvents =
+        Counter.builder("ueberboese.events.memory.evicted.events")
+            .description("Events dropped together with evicted devices")
+            .register(meterRegistry);
+  }
 
   /**
    * Store an event for a specific device.
    *
    * <p>If storing this event would exceed the maximum events per device limit, the oldest event(s)
-   * will be automatically removed to maintain the limit.
+   * will be automatically overwritten to maintain the limit. If the global budget is exceeded, the
+   * least recently active devices are evicted.
    *
    * @param deviceId The device ID
    * @param event The event data to store
    */
   public void storeEvent(String deviceId, DeviceEventsRequestApiDto event) {
-    List<DeviceEventApiDto> events =
-        eventsByDevice.computeIfAbsent(deviceId, k -> new ArrayList<>());
+    DeviceEvents events =
+        eventsByDevice.computeIfAbsent(deviceId, k -> new DeviceEvents(maxEventsPerDevice));
+    events.lastActivity = System.nanoTime();
+
+    Instant receivedAt = Instant.now();
+    List<DeviceEventApiDto> deviceEvents = event.getPayload().getEvents();
+    if (deviceEvents.isEmpty()) {
+      return;
+    }
+    long firstSequence = reserveSequences(receivedAt, deviceEvents.size());
+    try {
+      store(deviceId, events, receivedAt, firstSequence, deviceEvents);
+    } finally {
+      inFlight.remove(firstSequence);
+    }
+
+    for (DeviceEventListener listener : listeners) {
+      try {
+        listener.onEventsCommitted();
+      } catch (RuntimeException e) {
+        log.error(
+            "Device event listener {} failed after commit for device: {}", listener, deviceId, e);
+      }
+    }
+  }
+
+  private void store(
+      String deviceId,
+      DeviceEvents events,
+      Instant receivedAt,
+      long firstSequence,
+      List<DeviceEventApiDto> deviceEvents) {
+    List<StoredDeviceEvent> stored = new ArrayList<>(deviceEvents.size());
+    for (DeviceEventApiDto deviceEvent : deviceEvents) {
+      StoredDeviceEvent storedEvent =
+          new StoredDeviceEvent(firstSequence + stored.size(), deviceId, receivedAt, deviceEvent);
+      // Index first, so an eviction racing with this add always finds the entry to remove
+      eventIndex.add(storedEvent);
+      StoredDeviceEvent evicted = events.buffer.add(storedEvent);
+      boolean reachable;
+      if (evicted != null) {
+        // Replaces an event already counted, as long as the device is still held
+        eventIndex.remove(evicted);
+        reachable = !events.isEvicted();
+      } else {
+        reachable = events.tryCount();
+        if (reachable) {
+          totalEvents.incrementAndGet();
+        }
+      }
+      if (!reachable) {
+        // The device was evicted concurrently, its buffer is no longer reachable
+        eventIndex.remove(storedEvent);
+      }
+      stored.add(storedEvent);
+    }
 
-    // Synchronize on the list to ensure thread-safe operations
-    synchronized (events) {
-      events.addAll(event.getPayload().getEvents());
+    if (totalEvents.get() > maxTotalEvents) {
+      evictLeastRecentlyActiveDevices();
+    }
+
+    for (DeviceEventListener listener : listeners) {
+      try {
+        listener.onDeviceEvents(stored);
+      } catch (RuntimeException e) {
+        log.error("Device event listener {} failed for device: {}", listener, deviceId, e);
+      }
+    }
+  }
 
-      // Remove oldest events if limit exceeded
-      while (events.size() > maxEventsPerDevice) {
-        events.removeFirst();
+  private void evictLeastRecentlyActiveDevices() {
+    // A single thread evicts at a time; others keep going and leave the work to it
+    if (!evictionRunning.compareAndSet(false, true)) {
+      return;
+    }
+    try {
+      int target = maxTotalEvents / 10 * 9;
+      List<Map.Entry<String, DeviceEvents>> candidates =
+          eventsByDevice.entrySet().stream()
+              .sorted(Comparator.comparingLong(entry -> entry.getValue().lastActivity))
+              .toList();
+      for (Map.Entry<String, DeviceEvents> candidate : candidates) {
+        if (totalEvents.get() <= target) {
+          break;
+        }
+        if (eventsByDevice.remove(candidate.getKey(), candidate.getValue())) {
+          int removed = evict(candidate.getValue());
+          evictedDevices.increment();
+          evictedEvents.increment(removed);
+          log.debug("Evicted {} events of device: {}", removed, candidate.getKey());
+          notifyEvicted(candidate.getKey());
+        }
       }
+    } finally {
+      evictionRunning.set(false);
     }
   }
 
+  private void notifyEvicted(String deviceId) {
+    for (DeviceEventListener listener : listeners) {
+      try {
+        listener.onDeviceEvicted(deviceId);
+      } catch (RuntimeException e) {
+        log.error(
+            "Device event listener {} failed on eviction of device: {}", listener, deviceId, e);
+      }
+    }
+  }
+
+  private int evict(DeviceEvents events) {
+    int removed = events.markEvicted();
+    totalEvents.addAndGet(-removed);
+    for (StoredDeviceEvent stored : events.buffer.snapshot()) {
+      eventIndex.remove(stored);
+    }
+    return removed;
+  }
+
+  /** Reserves consecutive sequences for the events of one request and marks them in flight. */
+  private long reserveSequences(Instant receivedAt, int count) {
+    long micros = micros(receivedAt);
+    synchronized (sequenceLock) {
+      long first = Math.max(lastSequence.get() + 1, micros);
+      // Marked in flight before the new last sequence is published, see committedSequence
+      inFlight.add(first);
+      lastSequence.set(first + count - 1);
+      return first;
+    }
+  }
+
+  private static long micros(Instant instant) {
+    return TimeUnit.SECONDS.toMicros(instant.getEpochSecond()) + instant.getNano() / 1_000;
+  }
+
+  /**
+   * Returns the highest sequence assigned so far, whether its event is committed yet or not.
+   *
+   * @return Last assigned sequence
+   */
+  public long lastAssignedSequence() {
+    return lastSequence.get();
+  }
+
+  /**
+   * Returns the committed low-water mark of the sequence: every event with a sequence up to it has
+   * been stored in memory and handed to all listeners, and no such event will appear later.
+   *
+   * <p>Sequences are assigned before events are stored, so with concurrent requests a higher
+   * sequence can become visible before a lower one. Readers that hand out a sequence as resume
+   * cursor must not go beyond this mark, otherwise a client resuming from it would skip the lower
+   * sequence for good.
+   *
+   * @return Highest committed sequence
+   */
+  public long committedSequence() {
+    // Read before the in-flight set: a request reserved afterwards only gets higher sequences
+    long last = lastSequence.get();
+    Long oldestInFlight = inFlight.ceiling(Long.MIN_VALUE);
+    return oldestInFlight != null ? Math.min(last, oldestInFlight - 1) : last;
+  }
+
   /**
    * Get all events for a specific device.
    *
@@ -63,12 +282,60 @@ public class EventStorageService {
       return new ArrayList<>();
     }
 
-    // Return a copy to avoid concurrent modification issues
-    synchronized (events) {
-      return new ArrayList<>(events);
+    return events.buffer.snapshot().stream().map(StoredDeviceEvent::event).toList();
+  }
+
+  /**
+   * Streams events held in memory with a sequence greater than the given cursor to a consumer,
+   * without copying all of them first. Events of a single device are read from its ring buffer,
+   * otherwise from the sequence index. Events beyond the {@link #committedSequence()} are left out,
+   * so the highest sequence a consumer sees is a safe cursor to resume from.
+   *
+   * @param deviceId The device ID, or null for all devices
+   * @param afterSequence Exclusive lower bound of the sequence
+   * @param consumer Receives each matching event, ordered by sequence; returning false stops the
+   *     scan
+   */
+  public void scanAfter(
+      String deviceId, long afterSequence, Predicate<StoredDeviceEvent> consumer) {
+    long upToSequence = committedSequence();
+    Iterable<StoredDeviceEvent> events;
+    if (deviceId != null) {
+      DeviceEvents deviceEvents = eventsByDevice.get(deviceId);
+      if (deviceEvents == null) {
+        return;
+      }
+      // Bounded by max-events-per-device
+      events =
+          deviceEvents.buffer.snapshot().stream()
+              .filter(stored -> stored.sequence() > afterSequence)
+              .sorted(Comparator.comparingLong(StoredDeviceEvent::sequence))
+              .toList();
+    } else {
+      events = eventIndex.after(afterSequence);
+    }
+    for (StoredDeviceEvent stored : events) {
+      if (stored.sequence() > upToSequence || !consumer.test(stored)) {
+        return;
+      }
     }
   }
 
+  /**
+   * Find events held in memory by device, type and event time, using the in-memory indexes.
+   *
+   * @param deviceId The device ID, or null for all devices
+   * @param type The event type, or null for all types
+   * @param from Inclusive lower bound of the event time, or null for no bound
+   * @param to Exclusive upper bound of the event time, or null for no bound
+   * @param limit Maximum number of events to return
+   * @return Matching events, ordered by event time
+   */
+  public List<StoredDeviceEvent> queryEvents(
+      String deviceId, String type, Instant from, Instant to, int limit) {
+    return eventIndex.query(deviceId, type, from, to, limit);
+  }
+
   /**
    * Get the total number of events stored for a specific device.
    *
@@ -81,13 +348,55 @@ public class EventStorageService {
       return 0;
     }
 
-    synchronized (events) {
-      return events.size();
-    }
+    return events.buffer.size();
+  }
+
+  /**
+   * Get the number of events held in memory across all devices.
+   *
+   * @return Number of events stored
+   */
+  public int getTotalEventCount() {
+    return totalEvents.get();
   }
 
   /** Clear all stored events. Used for testing. */
   public void clearAllEvents() {
-    eventsByDevice.clear();
+    eventsByDevice.forEach(
+        (deviceId, events) -> {
+          if (eventsByDevice.remove(deviceId, events)) {
+            evict(events);
+          }
+        });
+    eventIndex.clear();
+  }
+
+  /** Events of a single device together with the bookkeeping for the global budget. */
+  private static final class DeviceEvents {
+
+    private final EventRingBuffer<StoredDeviceEvent> buffer;
+
+    // Events of this device counted in totalEvents; negative once the device was evicted
+    private final AtomicInteger counted = new AtomicInteger();
+
+    private volatile long lastActivity;
+
+    DeviceEvents(int capacity) {
+      this.buffer = new EventRingBuffer<>(capacity);
+    }
+
+    /** Counts a newly added event, unless the device has already been evicted. */
+    boolean tryCount() {
+      return counted.getAndUpdate(count -> count < 0 ? count : count + 1) >= 0;
+    }
+
+    boolean isEvicted() {
+      return counted.get() < 0;
+    }
+
+    /** Marks the device as evicted and returns the number of events it had counted. */
+    int markEvicted() {
+      return Math.max(0, counted.getAndSet(-1));
+    }
   }
 }
@@ -22,7 +22,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.ResponseEntity;
@@ -213,13 +212,8 @@ public class FullAccountService {
   }
 
   private void patch(FullAccountResponseApiDto response) {
-    // Get all stored Spotify accounts
-    List<SpotifyAccount> spotifyAccounts = spotifyAccountService.listAllAccounts();
-
-    // Create a map for efficient lookup: spotifyUserId -> SpotifyAccount
-    Map<String, SpotifyAccount> userIdToAccount =
-        spotifyAccounts.stream()
-            .collect(Collectors.toMap(SpotifyAccount::spotifyUserId, account -> account));
+    // Stored Spotify accounts by spotifyUserId, served from memory
+    Map<String, SpotifyAccount> userIdToAccount = spotifyAccountService.getAccountsByUserId();
 
     int patchedCount = 0;
 
@@ -0,0 +1,152 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import com.github.juliusd.ueberboeseapi.spotify.client.SpotifyOAuthClient;
+import com.github.juliusd.ueberboeseapi.spotify.dto.AuthorizationCodeCredentialsDto;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.CompletionException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.util.LinkedMultiValueMap;
+
+/**
+ * Caches the Spotify access token of each connected Spotify account, keyed by spotifyUserId.
+ *
+ * <p>A token is fetched with the refresh_token grant on first use and then handed out until it
+ * expires. Within {@code spotify.token-cache.refresh-ahead} of its expiry a background refresh is
+ * started while the cached token is still returned, so callers only wait for Spotify when there is
+ * no valid token at all. The cache runs at most one refresh per account at a time; concurrent
+ * callers wait for and share its result. If Spotify rotates the refresh token, the new one is
+ * stored in {@code SPOTIFY_ACCOUNT}.
+ */
+@Component
+@Slf4j
+public class SpotifyAccessTokenCache {
+
+  private final SpotifyAuthProperties spotifyAuthProperties;
+  private final SpotifyTokenCacheProperties properties;
+  private final SpotifyAccountService spotifyAccountService;
+  private final SpotifyOAuthClient spotifyOAuthClient;
+  private final MeterRegistry meterRegistry;
+  private final LoadingCache<String, CachedToken> cache;
+
+  public SpotifyAccessTokenCache(
+      SpotifyAuthProperties spotifyAuthProperties,
+      SpotifyTokenCacheProperties properties,
+      SpotifyAccountService spotifyAccountService,
+      SpotifyOAuthClient spotifyOAuthClient,
+      MeterRegistry meterRegistry) {
+    this.spotifyAuthProperties = spotifyAuthProperties;
+    this.properties = properties;
+    this.spotifyAccountService = spotifyAccountService;
+    this.spotifyOAuthClient = spotifyOAuthClient;
+    this.meterRegistry = meterRegistry;
+    this.cache =
+        Caffeine.newBuilder()
+            .expireAfter(
+                Expiry.writing(
+                    (String spotifyUserId, CachedToken token) ->
+                        Duration.between(Instant.now(), token.expiresAt())))
+            .recordStats()
+            .build(this::fetchToken);
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "spotify.tokens");
+  }
+
+  /**
+   * Returns valid credentials for a Spotify account. {@code expiresIn} is the remaining lifetime of
+   * the access token; the refresh token is never included.
+   *
+   * @param spotifyUserId The Spotify user ID of the account
+   * @return Credentials with the access token
+   * @throws SpotifyException if no token could be obtained
+   */
+  public AuthorizationCodeCredentialsDto getCredentials(String spotifyUserId) {
+    CachedToken token;
+    try {
+      token = cache.get(spotifyUserId);
+    } catch (CompletionException e) {
+      throw e.getCause() instanceof Exception cause
+          ? new SpotifyException(cause)
+          : new SpotifyException(e);
+    } catch (SpotifyException e) {
+      throw e;
+    } catch (RuntimeException e) {
+      throw new SpotifyException(e);
+    }
+
+    Instant now = Instant.now();
+    if (now.plus(properties.refreshAhead()).isAfter(token.expiresAt())) {
+      log.debug("Spotify access token of {} expires soon, refreshing ahead", spotifyUserId);
+      cache.refresh(spotifyUserId);
+    }
+
+    AuthorizationCodeCredentialsDto credentials = token.credentials();
+    return new AuthorizationCodeCredentialsDto(
+        credentials.accessToken(),
+        credentials.tokenType(),
+        (int) Math.max(0, Duration.between(now, token.expiresAt()).toSeconds()),
+        null,
+        credentials.scope());
+  }
+
+  /** Drops the cached token of an account, e.g. after it was disconnected. */
+  public void invalidate(String spotifyUserId) {
+    cache.invalidate(spotifyUserId);
+  }
+
+  /** Drops all cached tokens. */
+  public void invalidateAll() {
+    cache.invalidateAll();
+  }
+
+  private CachedToken fetchToken(String spotifyUserId) {
+    SpotifyAccount account =
+        spotifyAccountService
+            .getAccountBySpotifyUserId(spotifyUserId)
+            .orElseThrow(
+                () ->
+                    new NoSpotifyAccountException(
+                        "Spotify account " + spotifyUserId + " is not connected"));
+
+    LinkedMultiValueMap<String, String> formData = new LinkedMultiValueMap<>();
+    formData.add("grant_type", "refresh_token");
+    formData.add("refresh_token", account.refreshToken());
+    formData.add("client_id", spotifyAuthProperties.clientId());
+    formData.add("client_secret", spotifyAuthProperties.clientSecret());
+
+    Instant requestedAt = Instant.now();
+    AuthorizationCodeCredentialsDto credentials;
+    try {
+      credentials = spotifyOAuthClient.refreshAccessToken(formData);
+      if (credentials == null || credentials.accessToken() == null) {
+        throw new IllegalStateException("Spotify returned no access token");
+      }
+    } catch (RuntimeException e) {
+      meterRegistry.counter("ueberboese.spotify.token.refreshes", "outcome", "failure").increment();
+      log.warn("Failed to refresh Spotify access token of {}: {}", spotifyUserId, e.getMessage());
+      throw new SpotifyException(e);
+    }
+    meterRegistry.counter("ueberboese.spotify.token.refreshes", "outcome", "success").increment();
+
+    String rotatedRefreshToken = credentials.refreshToken();
+    if (rotatedRefreshToken != null && !rotatedRefreshToken.equals(account.refreshToken())) {
+      log.info("Spotify rotated the refresh token of {}, storing it", spotifyUserId);
+      spotifyAccountService.updateRefreshToken(spotifyUserId, rotatedRefreshToken);
+    }
+
+    Duration expiresIn =
+        credentials.expiresIn() != null
+            ? Duration.ofSeconds(credentials.expiresIn())
+            : properties.defaultExpiresIn();
+    log.debug("Obtained Spotify access token of {} valid for {}", spotifyUserId, expiresIn);
+    // Measured from before the request, so the token never outlives Spotify's own expiry
+    return new CachedToken(credentials, requestedAt.plus(expiresIn));
+  }
+
+  private record CachedToken(AuthorizationCodeCredentialsDto credentials, Instant expiresAt) {}
+}
@@ -0,0 +1,126 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.function.Function;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.relational.core.mapping.event.AbstractRelationalEventListener;
+import org.springframework.data.relational.core.mapping.event.AfterDeleteEvent;
+import org.springframework.data.relational.core.mapping.event.AfterSaveEvent;
+import org.springframework.stereotype.Component;
+
+/**
+ * In-memory view of the SPOTIFY_ACCOUNT table, indexed by Spotify user ID.
+ *
+ * <p>The table is loaded on first access. Afterwards every account saved or deleted through {@link
+ * SpotifyAccountRepository} is applied via Spring Data's mapping events. Each change publishes a
+ * new immutable {@link Snapshot} with a higher version, so readers never block and never see a
+ * half-applied change. Bulk statements bypass the events, callers report them with {@link
+ * #invalidate()}.
+ */
+@Component
+@Slf4j
+public class SpotifyAccountRegistry extends AbstractRelationalEventListener<SpotifyAccount> {
+
+  private static final Comparator<SpotifyAccount> BY_CREATED_AT_DESC =
+      Comparator.comparing(
+              SpotifyAccount::createdAt,
+              Comparator.nullsLast(Comparator.<OffsetDateTime>reverseOrder()))
+          .thenComparing(SpotifyAccount::spotifyUserId);
+
+  private final SpotifyAccountRepository repository;
+
+  private volatile Snapshot snapshot;
+  private long version;
+
+  public SpotifyAccountRegistry(SpotifyAccountRepository repository) {
+    this.repository = repository;
+  }
+
+  /** Returns the current accounts. The snapshot does not change once returned. */
+  public Snapshot snapshot() {
+    Snapshot current = snapshot;
+    return current != null ? current : load();
+  }
+
+  public Optional<SpotifyAccount> findById(String spotifyUserId) {
+    return Optional.ofNullable(snapshot().byUserId().get(spotifyUserId));
+  }
+
+  /** Drops the cached accounts so they are loaded again on next access. */
+  public synchronized void invalidate() {
+    snapshot = null;
+  }
+
+  @Override
+  protected void onAfterSave(AfterSaveEvent<SpotifyAccount> event) {
+    SpotifyAccount account = event.getEntity();
+    update(
+        accounts -> {
+          accounts.put(account.spotifyUserId(), account);
+          return "saved " + account.spotifyUserId();
+        });
+  }
+
+  @Override
+  protected void onAfterDelete(AfterDeleteEvent<SpotifyAccount> event) {
+    Object id = event.getId().getValue();
+    if (id == null) {
+      invalidate();
+      return;
+    }
+    update(
+        accounts -> {
+          accounts.remove((String) id);
+          return "deleted " + id;
+        });
+  }
+
+  private synchronized void update(Function<Map<String, SpotifyAccount>, String> change) {
+    if (snapshot == null) {
+      return;
+    }
+    Map<String, SpotifyAccount> accounts = new HashMap<>(snapshot.byUserId());
+    String description = change.apply(accounts);
+    snapshot = Snapshot.of(++version, accounts.values());
+    log.debug("Spotify account registry {} (version {})", description, version);
+  }
+
+  private synchronized Snapshot load() {
+    if (snapshot == null) {
+      List<SpotifyAccount> accounts = repository.findAllByOrderByCreatedAtDesc();
+      snapshot = Snapshot.of(++version, accounts);
+      log.debug("Loaded {} Spotify accounts into the registry", accounts.size());
+    }
+    return snapshot;
+  }
+
+  /**
+   * Immutable state of the registry.
+   *
+   * @param version Increases with every change applied to the registry
+   * @param byUserId Accounts by Spotify user ID
+   * @param accounts Accounts sorted by createdAt descending (newest first)
+   * @param defaultAccount The oldest account, used for Spotify API calls made on behalf of the
+   *     server; null if no account is connected
+   */
+  public record Snapshot(
+      long version,
+      Map<String, SpotifyAccount> byUserId,
+      List<SpotifyAccount> accounts,
+      SpotifyAccount defaultAccount) {
+
+    static Snapshot of(long version, Collection<SpotifyAccount> accounts) {
+      List<SpotifyAccount> sorted = accounts.stream().sorted(BY_CREATED_AT_DESC).toList();
+      Map<String, SpotifyAccount> byUserId = new HashMap<>();
+      sorted.forEach(account -> byUserId.put(account.spotifyUserId(), account));
+      return new Snapshot(
+          version, Map.copyOf(byUserId), sorted, sorted.isEmpty() ? null : sorted.getLast());
+    }
+  }
+}
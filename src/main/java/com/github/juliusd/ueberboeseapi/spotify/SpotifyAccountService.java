@@ -2,9 +2,11 @@ package com.github.juliusd.ueberboeseapi.spotify;
 
 import java.time.OffsetDateTime;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -13,12 +15,16 @@ import org.springframework.stereotype.Service;
 public class SpotifyAccountService {
 
   private final SpotifyAccountRepository repository;
+  private final SpotifyAccountRegistry registry;
+  // Provider, as the token cache reads accounts through this service
+  private final ObjectProvider<SpotifyAccessTokenCache> accessTokenCache;
 
   /**
    * Saves a Spotify account after successful OAuth authentication.
    *
    * <p>Note: This method performs an upsert (insert or update). If an account with the same
-   * spotifyUserId already exists, it will be updated with the new values.
+   * spotifyUserId already exists, it will be updated with the new values. A cached access token of
+   * the account is dropped, as it was issued for the previous authorization.
    *
    * @param spotifyUserId The Spotify user ID
    * @param displayName The user's display name from Spotify
@@ -39,10 +45,36 @@ public class SpotifyAccountService {
         new SpotifyAccount(spotifyUserId, displayName, refreshToken, createdAt, now, version);
 
     repository.save(account);
+    accessTokenCache.ifAvailable(cache -> cache.invalidate(spotifyUserId));
     log.info("Successfully saved Spotify account for accountId: {}", spotifyUserId);
     return spotifyUserId;
   }
 
+  /**
+   * Replaces the stored refresh token of an account, e.g. after Spotify rotated it during a token
+   * refresh.
+   *
+   * @param spotifyUserId The Spotify user ID
+   * @param refreshToken The new refresh token
+   */
+  public void updateRefreshToken(String spotifyUserId, String refreshToken) {
+    repository
+        .findById(spotifyUserId)
+        .ifPresentOrElse(
+            account -> {
+              repository.save(
+                  new SpotifyAccount(
+                      account.spotifyUserId(),
+                      account.displayName(),
+                      refreshToken,
+                      account.createdAt(),
+                      OffsetDateTime.now(),
+                      account.version()));
+              log.info("Updated refresh token of Spotify account {}", spotifyUserId);
+            },
+            () -> log.warn("Cannot update refresh token, {} is not connected", spotifyUserId));
+  }
+
   /**
    * Retrieves a Spotify account by Spotify user ID.
    *
@@ -50,13 +82,9 @@ public class SpotifyAccountService {
    * @return Optional containing the account if found
    */
   public Optional<SpotifyAccount> getAccountBySpotifyUserId(String spotifyUserId) {
-    log.debug("Attempting to load Spotify account for userId: {}", spotifyUserId);
+    Optional<SpotifyAccount> account = registry.findById(spotifyUserId);
 
-    Optional<SpotifyAccount> account = repository.findById(spotifyUserId);
-
-    if (account.isPresent()) {
-      log.info("Successfully loaded Spotify account for accountId: {}", spotifyUserId);
-    } else {
+    if (account.isEmpty()) {
       log.debug("Spotify account not found for userId: {}", spotifyUserId);
     }
 
@@ -70,7 +98,7 @@ public class SpotifyAccountService {
    * @return true if the account exists, false otherwise
    */
   public boolean accountExists(String spotifyUserId) {
-    return repository.existsBySpotifyUserId(spotifyUserId);
+    return registry.findById(spotifyUserId).isPresent();
   }
 
   /**
@@ -79,11 +107,25 @@ public class SpotifyAccountService {
    * @return List of all Spotify accounts, sorted by createdAt descending (newest first)
    */
   public List<SpotifyAccount> listAllAccounts() {
-    log.debug("Listing all Spotify accounts from database");
+    return registry.snapshot().accounts();
+  }
 
-    List<SpotifyAccount> accounts = repository.findAllByOrderByCreatedAtDesc();
+  /**
+   * Returns all stored Spotify accounts by their Spotify user ID.
+   *
+   * @return Unmodifiable map of Spotify user ID to account
+   */
+  public Map<String, SpotifyAccount> getAccountsByUserId() {
+    return registry.snapshot().byUserId();
+  }
 
-    log.info("Found {} Spotify account(s)", accounts.size());
-    return accounts;
+  /**
+   * Returns the account used for Spotify API calls made on behalf of the server, which is the
+   * oldest connected account.
+   *
+   * @return Optional containing the oldest account, empty if no account is connected
+   */
+  public Optional<SpotifyAccount> getDefaultAccount() {
+    return Optional.ofNullable(registry.snapshot().defaultAccount());
   }
 }
@@ -0,0 +1,149 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Circuit breakers for the Spotify hosts, one per named client.
+ *
+ * <p>A circuit opens after {@code spotify.resilience.failure-threshold} consecutive failed calls.
+ * While open, calls are rejected without reaching Spotify. After {@code
+ * spotify.resilience.open-duration} a single trial call is let through, which closes the circuit
+ * again on success. The state of every circuit is exposed as gauge {@code
+ * ueberboese.spotify.circuit.state} (0 closed, 1 half open, 2 open).
+ */
+@Component
+@Slf4j
+public class SpotifyCircuitBreakers {
+
+  private final SpotifyResilienceProperties properties;
+  private final MeterRegistry meterRegistry;
+  private final LongSupplier nanoTime;
+  private final Map<String, CircuitBreaker> circuitBreakers = new ConcurrentHashMap<>();
+
+  @Autowired
+  public SpotifyCircuitBreakers(
+      SpotifyResilienceProperties properties, MeterRegistry meterRegistry) {
+    this(properties, meterRegistry, System::nanoTime);
+  }
+
+  SpotifyCircuitBreakers(
+      SpotifyResilienceProperties properties, MeterRegistry meterRegistry, LongSupplier nanoTime) {
+    this.properties = properties;
+    this.meterRegistry = meterRegistry;
+    this.nanoTime = nanoTime;
+  }
+
+  public CircuitBreaker get(String client) {
+    return circuitBreakers.computeIfAbsent(client, this::create);
+  }
+
+  /** Closes all circuits and forgets their failures. */
+  public void resetAll() {
+    circuitBreakers.values().forEach(CircuitBreaker::reset);
+  }
+
+  private CircuitBreaker create(String client) {
+    CircuitBreaker circuitBreaker =
+        new CircuitBreaker(
+            client, properties.failureThreshold(), properties.openDuration(), nanoTime);
+    Gauge.builder(
+            "ueberboese.spotify.circuit.state",
+            circuitBreaker,
+            breaker -> breaker.state().ordinal())
+        .description("State of the Spotify circuit breaker: 0 closed, 1 half open, 2 open")
+        .tag("client", client)
+        .register(meterRegistry);
+    return circuitBreaker;
+  }
+
+  public enum State {
+    CLOSED,
+    HALF_OPEN,
+    OPEN
+  }
+
+  public static class CircuitBreaker {
+
+    private final String client;
+    private final int failureThreshold;
+    private final long openNanos;
+    private final LongSupplier nanoTime;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean trialInFlight;
+
+    CircuitBreaker(
+        String client, int failureThreshold, Duration openDuration, LongSupplier nanoTime) {
+      this.client = client;
+      this.failureThreshold = failureThreshold;
+      this.openNanos = openDuration.toNanos();
+      this.nanoTime = nanoTime;
+    }
+
+    public synchronized State state() {
+      if (state == State.OPEN && nanoTime.getAsLong() - openedAt >= openNanos) {
+        state = State.HALF_OPEN;
+        trialInFlight = false;
+      }
+      return state;
+    }
+
+    /**
+     * Returns whether a call may be made. In half open state only one trial call is permitted until
+     * its outcome is recorded.
+     */
+    public synchronized boolean tryAcquire() {
+      return switch (state()) {
+        case CLOSED -> true;
+        case OPEN -> false;
+        case HALF_OPEN -> {
+          if (trialInFlight) {
+            yield false;
+          }
+          trialInFlight = true;
+          yield true;
+        }
+      };
+    }
+
+    public synchronized void onSuccess() {
+      if (state != State.CLOSED) {
+        log.info("Spotify circuit {} closed", client);
+      }
+      state = State.CLOSED;
+      consecutiveFailures = 0;
+      trialInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+      consecutiveFailures++;
+      trialInFlight = false;
+      if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+        if (state != State.OPEN) {
+          log.warn(
+              "Spotify circuit {} opened after {} consecutive failures",
+              client,
+              consecutiveFailures);
+        }
+        state = State.OPEN;
+        openedAt = nanoTime.getAsLong();
+      }
+    }
+
+    synchronized void reset() {
+      state = State.CLOSED;
+      consecutiveFailures = 0;
+      trialInFlight = false;
+    }
+  }
+}
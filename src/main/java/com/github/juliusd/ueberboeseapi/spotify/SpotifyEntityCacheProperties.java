@@ -0,0 +1,40 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import java.time.Duration;
+import java.util.Map;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the cache of Spotify entity names and images used by the management
+ * entity lookup.
+ *
+ * <p>Example configuration in application.properties:
+ *
+ * <pre>
+ * spotify.entity-cache.maximum-size=10000
+ * spotify.entity-cache.default-ttl=1d
+ * spotify.entity-cache.ttl.track=7d
+ * spotify.entity-cache.ttl.playlist=1h
+ * spotify.entity-cache.not-found-ttl=10m
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "spotify.entity-cache")
+public record SpotifyEntityCacheProperties(
+    /** Maximum number of cached entities. */
+    long maximumSize,
+    /** How long an entity is cached if there is no TTL for its type. */
+    Duration defaultTtl,
+    /** How long an entity is cached per entity type, e.g. track or playlist. */
+    Map<String, Duration> ttl,
+    /** How long an entity Spotify reported as not found is remembered. */
+    Duration notFoundTtl) {
+
+  public SpotifyEntityCacheProperties {
+    ttl = ttl != null ? Map.copyOf(ttl) : Map.of();
+  }
+
+  /** Returns the TTL of found entities of the given type. */
+  public Duration ttlFor(String type) {
+    return ttl.getOrDefault(type, defaultTtl);
+  }
+}
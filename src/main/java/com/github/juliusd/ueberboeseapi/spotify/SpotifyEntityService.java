@@ -1,96 +1,284 @@
 package com.github.juliusd.ueberboeseapi.spotify;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.juliusd.ueberboeseapi.spotify.SpotifyUriParser.SpotifyUri;
 import com.github.juliusd.ueberboeseapi.spotify.client.SpotifyEntitiesClient;
-import com.github.juliusd.ueberboeseapi.spotify.client.SpotifyOAuthClient;
 import com.github.juliusd.ueberboeseapi.spotify.dto.*;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import lombok.RequiredArgsConstructor;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
-
+import org.springframework.web.client.HttpClientErrorException;
+
+/**
+ * Resolves Spotify URIs to the name and image of the entity.
+ *
+ * <p>Results are cached per parsed URI with a TTL per entity type; entities Spotify does not know
+ * are cached as well, for {@code spotify.entity-cache.not-found-ttl}. Batch lookups fetch all
+ * uncached entities of a type with Spotify's multi-id endpoints. Playlists have no such endpoint
+ * and are fetched one by one.
+ */
 @Service
 @Slf4j
-@RequiredArgsConstructor
 public class SpotifyEntityService {
 
-  private final SpotifyAuthProperties spotifyAuthProperties;
+  /** Maximum number of IDs Spotify accepts per request on the multi-id endpoints. */
+  private static final Map<String, Integer> MAX_IDS_PER_REQUEST =
+      Map.of("track", 50, "album", 20, "artist", 50, "show", 50, "episode", 50);
+
+  private static final Set<String> SUPPORTED_TYPES =
+      Set.of("track", "album", "artist", "playlist", "show", "episode");
+
   private final SpotifyAccountService spotifyAccountService;
   private final SpotifyUriParser spotifyUriParser;
   private final SpotifyEntitiesClient spotifyEntitiesClient;
-  private final SpotifyOAuthClient spotifyOAuthClient;
+  private final SpotifyAccessTokenCache spotifyAccessTokenCache;
+  private final Cache<SpotifyUri, Lookup> cache;
+
+  public SpotifyEntityService(
+      SpotifyAccountService spotifyAccountService,
+      SpotifyUriParser spotifyUriParser,
+      SpotifyEntitiesClient spotifyEntitiesClient,
+      SpotifyAccessTokenCache spotifyAccessTokenCache,
+      SpotifyEntityCacheProperties properties,
+      MeterRegistry meterRegistry) {
+    this.spotifyAccountService = spotifyAccountService;
+    this.spotifyUriParser = spotifyUriParser;
+    this.spotifyEntitiesClient = spotifyEntitiesClient;
+    this.spotifyAccessTokenCache = spotifyAccessTokenCache;
+    this.cache =
+        Caffeine.newBuilder()
+            .maximumSize(properties.maximumSize())
+            .expireAfter(
+                Expiry.writing(
+                    (SpotifyUri spotifyUri, Lookup lookup) ->
+                        lookup.found()
+                            ? properties.ttlFor(spotifyUri.type())
+                            : properties.notFoundTtl()))
+            .recordStats()
+            .build();
+    CaffeineCacheMetrics.monitor(meterRegistry, cache, "spotify.entities");
+  }
 
   public SpotifyEntityInfo getEntityInfo(String uri) {
     log.info("Getting entity info for URI: {}", uri);
 
-    // Parse URI
-    SpotifyUriParser.SpotifyUri spotifyUri = spotifyUriParser.parseUri(uri);
+    SpotifyUri spotifyUri = parseSupportedUri(uri);
     log.debug("Parsed URI - type: {}, id: {}", spotifyUri.type(), spotifyUri.id());
 
-    // Get access token
-    String accessToken = getAccessToken();
+    Lookup lookup = cache.get(spotifyUri, key -> fetchEntity("Bearer " + getAccessToken(), key));
+    if (!lookup.found()) {
+      throw new SpotifyEntityNotFoundException("Spotify entity not found: " + uri);
+    }
+    return lookup.info();
+  }
+
+  /**
+   * Resolves several URIs at once. Invalid and unknown URIs do not fail the batch but are reported
+   * in their result.
+   *
+   * @param uris Spotify URIs
+   * @return One result per URI, in request order
+   */
+  public List<SpotifyEntityResult> getEntityInfos(List<String> uris) {
+    log.info("Getting entity info for {} URIs", uris.size());
+
+    Map<String, SpotifyUri> parsed = new LinkedHashMap<>();
+    for (String uri : uris) {
+      try {
+        parsed.put(uri, parseSupportedUri(uri));
+      } catch (InvalidSpotifyUriException e) {
+        log.debug("Invalid URI in batch: {} ({})", uri, e.getMessage());
+      }
+    }
+
+    Map<SpotifyUri, Lookup> lookups =
+        parsed.isEmpty()
+            ? Map.of()
+            : cache.getAll(new LinkedHashSet<>(parsed.values()), this::fetchEntities);
+
+    return uris.stream()
+        .map(
+            uri -> {
+              SpotifyUri spotifyUri = parsed.get(uri);
+              if (spotifyUri == null) {
+                return new SpotifyEntityResult(uri, SpotifyEntityResult.Status.INVALID_URI, null);
+              }
+              Lookup lookup = lookups.get(spotifyUri);
+              return lookup != null && lookup.found()
+                  ? new SpotifyEntityResult(uri, SpotifyEntityResult.Status.FOUND, lookup.info())
+                  : new SpotifyEntityResult(uri, SpotifyEntityResult.Status.NOT_FOUND, null);
+            })
+        .toList();
+  }
 
+  /** Drops all cached entities. */
+  public void invalidateCache() {
+    cache.invalidateAll();
+  }
+
+  private SpotifyUri parseSupportedUri(String uri) {
+    SpotifyUri spotifyUri = spotifyUriParser.parseUri(uri);
+    if (!SUPPORTED_TYPES.contains(spotifyUri.type())) {
+      throw new InvalidSpotifyUriException(
+          "Unsupported entity type: "
+              + spotifyUri.type()
+              + ". Supported types: track, album, artist, playlist, show, episode");
+    }
+    return spotifyUri;
+  }
+
+  private Map<SpotifyUri, Lookup> fetchEntities(Set<? extends SpotifyUri> spotifyUris) {
+    String authHeader = "Bearer " + getAccessToken();
+
+    Map<String, List<String>> idsByType = new LinkedHashMap<>();
+    for (SpotifyUri spotifyUri : spotifyUris) {
+      idsByType.computeIfAbsent(spotifyUri.type(), type -> new ArrayList<>()).add(spotifyUri.id());
+    }
+
+    Map<SpotifyUri, Lookup> lookups = new HashMap<>();
+    idsByType.forEach(
+        (type, ids) -> {
+          Integer maxIds = MAX_IDS_PER_REQUEST.get(type);
+          if (maxIds == null) {
+            ids.forEach(
+                id -> {
+                  SpotifyUri spotifyUri = new SpotifyUri(type, id);
+                  lookups.put(spotifyUri, fetchEntity(authHeader, spotifyUri));
+                });
+            return;
+          }
+          for (int from = 0; from < ids.size(); from += maxIds) {
+            List<String> chunk = ids.subList(from, Math.min(ids.size(), from + maxIds));
+            fetchSeveral(authHeader, type, chunk).forEach(lookups::put);
+          }
+        });
+    log.debug("Fetched {} Spotify entities of {} types", spotifyUris.size(), idsByType.keySet());
+    return lookups;
+  }
+
+  private Map<SpotifyUri, Lookup> fetchSeveral(String authHeader, String type, List<String> ids) {
+    List<SpotifyEntityInfo> infos;
     try {
-      // Prepare authorization header
-      String authHeader = "Bearer " + accessToken;
-
-      // Fetch entity based on type
-      return switch (spotifyUri.type()) {
-        case "track" -> getTrackInfo(authHeader, spotifyUri.id());
-        case "album" -> getAlbumInfo(authHeader, spotifyUri.id());
-        case "artist" -> getArtistInfo(authHeader, spotifyUri.id());
-        case "playlist" -> getPlaylistInfo(authHeader, spotifyUri.id());
-        case "show" -> getShowInfo(authHeader, spotifyUri.id());
-        case "episode" -> getEpisodeInfo(authHeader, spotifyUri.id());
-        default ->
-            throw new InvalidSpotifyUriException(
-                "Unsupported entity type: "
-                    + spotifyUri.type()
-                    + ". Supported types: track, album, artist, playlist, show, episode");
-      };
-    } catch (InvalidSpotifyUriException | SpotifyEntityNotFoundException e) {
-      // Let these exceptions propagate unchanged to the controller
-      throw e;
-    } catch (Exception e) {
-      log.error("Failed to fetch Spotify entity: {}", e.getMessage(), e);
+      String joinedIds = String.join(",", ids);
+      infos =
+          switch (type) {
+            case "track" ->
+                toInfos(
+                    spotifyEntitiesClient.getTracks(authHeader, joinedIds).tracks(),
+                    SpotifyEntityService::trackInfo);
+            case "album" ->
+                toInfos(
+                    spotifyEntitiesClient.getAlbums(authHeader, joinedIds).albums(),
+                    album -> entityInfo(album.name(), album.images()));
+            case "artist" ->
+                toInfos(
+                    spotifyEntitiesClient.getArtists(authHeader, joinedIds).artists(),
+                    artist -> entityInfo(artist.name(), artist.images()));
+            case "show" ->
+                toInfos(
+                    spotifyEntitiesClient.getShows(authHeader, joinedIds).shows(),
+                    show -> entityInfo(show.name(), show.images()));
+            case "episode" ->
+                toInfos(
+                    spotifyEntitiesClient.getEpisodes(authHeader, joinedIds).episodes(),
+                    episode -> entityInfo(episode.name(), episode.images()));
+            default -> throw new IllegalArgumentException("No multi-id endpoint for " + type);
+          };
+    } catch (RuntimeException e) {
+      if (!isBadRequest(e)) {
+        log.error("Failed to fetch Spotify {}s: {}", type, e.getMessage(), e);
+        throw new RuntimeException("Failed to fetch Spotify entity information", e);
+      }
+      // A single malformed ID fails the whole request, so look them up one by one
+      log.warn("Spotify rejected {} IDs {}, fetching them one by one", type, ids);
+      Map<SpotifyUri, Lookup> lookups = new HashMap<>();
+      for (String id : ids) {
+        SpotifyUri spotifyUri = new SpotifyUri(type, id);
+        lookups.put(spotifyUri, fetchEntity(authHeader, spotifyUri));
+      }
+      return lookups;
+    }
 
-      // Check if it's a 404 Not Found error from Spotify API
-      String errorMsg = e.getMessage();
-      if (errorMsg != null
-          && (errorMsg.toLowerCase().contains("not found") || errorMsg.contains("404"))) {
-        throw new SpotifyEntityNotFoundException("Spotify entity not found: " + uri, e);
+    Map<SpotifyUri, Lookup> lookups = new HashMap<>();
+    for (int i = 0; i < ids.size(); i++) {
+      SpotifyEntityInfo info = i < infos.size() ? infos.get(i) : null;
+      lookups.put(new SpotifyUri(type, ids.get(i)), new Lookup(info));
+    }
+    return lookups;
+  }
+
+  private Lookup fetchEntity(String authHeader, SpotifyUri spotifyUri) {
+    try {
+      SpotifyEntityInfo info =
+          switch (spotifyUri.type()) {
+            case "track" -> trackInfo(spotifyEntitiesClient.getTrack(authHeader, spotifyUri.id()));
+            case "album" -> {
+              AlbumDto album = spotifyEntitiesClient.getAlbum(authHeader, spotifyUri.id());
+              yield entityInfo(album.name(), album.images());
+            }
+            case "artist" -> {
+              ArtistDto artist = spotifyEntitiesClient.getArtist(authHeader, spotifyUri.id());
+              yield entityInfo(artist.name(), artist.images());
+            }
+            case "playlist" -> {
+              PlaylistDto playlist = spotifyEntitiesClient.getPlaylist(authHeader, spotifyUri.id());
+              yield entityInfo(playlist.name(), playlist.images());
+            }
+            case "show" -> {
+              ShowDto show = spotifyEntitiesClient.getShow(authHeader, spotifyUri.id());
+              yield entityInfo(show.name(), show.images());
+            }
+            case "episode" -> {
+              EpisodeDto episode = spotifyEntitiesClient.getEpisode(authHeader, spotifyUri.id());
+              yield entityInfo(episode.name(), episode.images());
+            }
+            default -> throw new IllegalArgumentException("Unsupported type " + spotifyUri.type());
+          };
+      log.info("Found {}: {} with image: {}", spotifyUri.type(), info.name(), info.imageUrl());
+      return new Lookup(info);
+    } catch (Exception e) {
+      if (hasClientErrorStatus(e, HttpStatus.NOT_FOUND)) {
+        log.info("Spotify {} {} not found", spotifyUri.type(), spotifyUri.id());
+        return new Lookup(null);
       }
 
+      log.error("Failed to fetch Spotify entity: {}", e.getMessage(), e);
       throw new RuntimeException("Failed to fetch Spotify entity information", e);
     }
   }
 
   private String getAccessToken() {
     try {
-      // Get the oldest connected Spotify account
-      List<SpotifyAccount> accounts = spotifyAccountService.listAllAccounts();
-      if (accounts.isEmpty()) {
-        log.error("No Spotify accounts connected");
-        throw new NoSpotifyAccountException(
-            "No Spotify accounts connected. Please connect a Spotify account via the management API.");
-      }
-
-      // Use the oldest account (last in the list sorted by createdAt descending)
-      SpotifyAccount oldestAccount = accounts.get(accounts.size() - 1);
+      // Use the oldest connected Spotify account
+      SpotifyAccount oldestAccount =
+          spotifyAccountService
+              .getDefaultAccount()
+              .orElseThrow(
+                  () -> {
+                    log.error("No Spotify accounts connected");
+                    return new NoSpotifyAccountException(
+                        "No Spotify accounts connected. Please connect a Spotify account via the management API.");
+                  });
       log.info(
           "Using Spotify account: {} ({})",
           oldestAccount.displayName(),
           oldestAccount.spotifyUserId());
 
-      // Prepare form data for token refresh
-      org.springframework.util.LinkedMultiValueMap<String, String> formData =
-          new org.springframework.util.LinkedMultiValueMap<>();
-      formData.add("grant_type", "refresh_token");
-      formData.add("refresh_token", oldestAccount.refreshToken());
-      formData.add("client_id", spotifyAuthProperties.clientId());
-      formData.add("client_secret", spotifyAuthProperties.clientSecret());
-
-      // Refresh the access token
-      var authorizationCodeCredentials = spotifyOAuthClient.refreshAccessToken(formData);
+      // Cached per account, Spotify is only asked when the token is about to expire
+      var authorizationCodeCredentials =
+          spotifyAccessTokenCache.getCredentials(oldestAccount.spotifyUserId());
 
       log.debug("Successfully obtained Spotify access token");
       return authorizationCodeCredentials.accessToken();
@@ -101,93 +289,41 @@ public class SpotifyEntityService {
     }
   }
 
-  private SpotifyEntityInfo getTrackInfo(String authHeader, String trackId) {
-    TrackDto track = spotifyEntitiesClient.getTrack(authHeader, trackId);
-
-    String name = track.name();
-    String imageUrl = null;
-
-    // Tracks get their images from the album
-    AlbumSimplifiedDto album = track.album();
-    if (album != null && album.images() != null && !album.images().isEmpty()) {
-      imageUrl = selectMediumImage(album.images());
-    }
-
-    log.info("Found track: {} with image: {}", name, imageUrl);
-    return new SpotifyEntityInfo(name, imageUrl);
+  private static boolean isBadRequest(Exception e) {
+    return hasClientErrorStatus(e, HttpStatus.BAD_REQUEST);
   }
 
-  private SpotifyEntityInfo getAlbumInfo(String authHeader, String albumId) {
-    AlbumDto album = spotifyEntitiesClient.getAlbum(authHeader, albumId);
-
-    String name = album.name();
-    String imageUrl = null;
-
-    if (album.images() != null && !album.images().isEmpty()) {
-      imageUrl = selectMediumImage(album.images());
+  /** Checks the status of the client error Spotify answered with, if that is what failed. */
+  private static boolean hasClientErrorStatus(Exception e, HttpStatus status) {
+    for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+      if (cause instanceof HttpClientErrorException clientError) {
+        return clientError.getStatusCode().isSameCodeAs(status);
+      }
     }
-
-    log.info("Found album: {} with image: {}", name, imageUrl);
-    return new SpotifyEntityInfo(name, imageUrl);
+    return false;
   }
 
-  private SpotifyEntityInfo getArtistInfo(String authHeader, String artistId) {
-    ArtistDto artist = spotifyEntitiesClient.getArtist(authHeader, artistId);
-
-    String name = artist.name();
-    String imageUrl = null;
-
-    if (artist.images() != null && !artist.images().isEmpty()) {
-      imageUrl = selectMediumImage(artist.images());
+  private static <T> List<SpotifyEntityInfo> toInfos(
+      List<T> entities, Function<T, SpotifyEntityInfo> toInfo) {
+    if (entities == null) {
+      throw new IllegalStateException("Spotify returned no entities");
     }
-
-    log.info("Found artist: {} with image: {}", name, imageUrl);
-    return new SpotifyEntityInfo(name, imageUrl);
+    // Unknown IDs are null entries, keep them to preserve the order
+    return entities.stream().map(entity -> entity != null ? toInfo.apply(entity) : null).toList();
   }
 
-  private SpotifyEntityInfo getPlaylistInfo(String authHeader, String playlistId) {
-    PlaylistDto playlist = spotifyEntitiesClient.getPlaylist(authHeader, playlistId);
-
-    String name = playlist.name();
-    String imageUrl = null;
-
-    if (playlist.images() != null && !playlist.images().isEmpty()) {
-      imageUrl = selectMediumImage(playlist.images());
-    }
-
-    log.info("Found playlist: {} with image: {}", name, imageUrl);
-    return new SpotifyEntityInfo(name, imageUrl);
-  }
-
-  private SpotifyEntityInfo getShowInfo(String authHeader, String showId) {
-    ShowDto show = spotifyEntitiesClient.getShow(authHeader, showId);
-
-    String name = show.name();
-    String imageUrl = null;
-
-    if (show.images() != null && !show.images().isEmpty()) {
-      imageUrl = selectMediumImage(show.images());
-    }
-
-    log.info("Found show: {} with image: {}", name, imageUrl);
-    return new SpotifyEntityInfo(name, imageUrl);
+  private static SpotifyEntityInfo trackInfo(TrackDto track) {
+    // Tracks get their images from the album
+    AlbumSimplifiedDto album = track.album();
+    return new SpotifyEntityInfo(
+        track.name(), album != null ? selectMediumImage(album.images()) : null);
   }
 
-  private SpotifyEntityInfo getEpisodeInfo(String authHeader, String episodeId) {
-    EpisodeDto episode = spotifyEntitiesClient.getEpisode(authHeader, episodeId);
-
-    String name = episode.name();
-    String imageUrl = null;
-
-    if (episode.images() != null && !episode.images().isEmpty()) {
-      imageUrl = selectMediumImage(episode.images());
-    }
-
-    log.info("Found episode: {} with image: {}", name, imageUrl);
-    return new SpotifyEntityInfo(name, imageUrl);
+  private static SpotifyEntityInfo entityInfo(String name, List<ImageDto> images) {
+    return new SpotifyEntityInfo(name, selectMediumImage(images));
   }
 
-  private String selectMediumImage(List<ImageDto> images) {
+  private static String selectMediumImage(List<ImageDto> images) {
     if (images == null || images.isEmpty()) {
       return null;
     }
@@ -199,4 +335,20 @@ public class SpotifyEntityService {
   }
 
   public record SpotifyEntityInfo(String name, String imageUrl) {}
+
+  /** Result of a batch lookup for one URI; {@code info} is only set if the entity was found. */
+  public record SpotifyEntityResult(String uri, Status status, SpotifyEntityInfo info) {
+    public enum Status {
+      FOUND,
+      NOT_FOUND,
+      INVALID_URI
+    }
+  }
+
+  /** Cached lookup result; {@code info} is null if Spotify does not know the entity. */
+  private record Lookup(SpotifyEntityInfo info) {
+    boolean found() {
+      return info != null;
+    }
+  }
 }
@@ -8,4 +8,8 @@ public class SpotifyException extends RuntimeException {
   public SpotifyException(Exception e) {
     super(e);
   }
+
+  public SpotifyException(String message, Throwable cause) {
+    super(message, cause);
+  }
 }
@@ -3,12 +3,17 @@ package com.github.juliusd.ueberboeseapi.spotify;
 import com.github.juliusd.ueberboeseapi.spotify.client.SpotifyEntitiesClient;
 import com.github.juliusd.ueberboeseapi.spotify.client.SpotifyOAuthClient;
 import com.github.juliusd.ueberboeseapi.spotify.client.SpotifyUserClient;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.net.URI;
+import java.net.http.HttpClient;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestFactory;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.RestClient;
 import org.springframework.web.client.support.RestClientAdapter;
 import org.springframework.web.service.invoker.HttpServiceProxyFactory;
@@ -22,6 +27,9 @@ import org.springframework.web.service.invoker.HttpServiceProxyFactory;
 public class SpotifyHttpServiceConfig {
 
   private final SpotifyApiUrlProperties spotifyApiUrlProperties;
+  private final SpotifyResilienceProperties spotifyResilienceProperties;
+  private final SpotifyCircuitBreakers spotifyCircuitBreakers;
+  private final MeterRegistry meterRegistry;
 
   /**
    * Creates a RestClient configured for Spotify API calls.
@@ -35,6 +43,7 @@ public class SpotifyHttpServiceConfig {
 
     return RestClient.builder()
         .baseUrl(baseUrl)
+        .requestFactory(requestFactory(spotifyResilienceProperties))
         .defaultHeader("Accept", "application/json")
         // Note: Do NOT set Content-Type header here - let Spring determine it based on the body
         .requestInterceptor(
@@ -49,22 +58,30 @@ public class SpotifyHttpServiceConfig {
               }
               return execution.execute(request, body);
             })
+        .requestInterceptor(resilienceInterceptor("accounts"))
         .defaultStatusHandler(
             HttpStatusCode::is4xxClientError,
             (request, response) -> {
-              String responseBody = new String(response.getBody().readAllBytes());
+              byte[] responseBody = response.getBody().readAllBytes();
               log.warn(
                   "Spotify API client error: {} {} - {} {}, Response body: {}",
                   request.getMethod(),
                   request.getURI(),
                   response.getStatusCode(),
                   response.getStatusText(),
-                  responseBody);
+                  new String(responseBody));
+              // Keeps the status code for callers
               throw new SpotifyException(
                   "Spotify API error: "
                       + response.getStatusCode()
                       + " - "
-                      + response.getStatusText());
+                      + response.getStatusText(),
+                  HttpClientErrorException.create(
+                      response.getStatusCode(),
+                      response.getStatusText(),
+                      response.getHeaders(),
+                      responseBody,
+                      null));
             })
         .defaultStatusHandler(
             HttpStatusCode::is5xxServerError,
@@ -99,24 +116,33 @@ public class SpotifyHttpServiceConfig {
 
     return RestClient.builder()
         .baseUrl(baseUrl)
+        .requestFactory(requestFactory(spotifyResilienceProperties))
+        .requestInterceptor(resilienceInterceptor("api"))
         .defaultHeader("Accept", "application/json")
         .defaultHeader("Content-Type", "application/json")
         .defaultStatusHandler(
             HttpStatusCode::is4xxClientError,
             (request, response) -> {
-              String responseBody = new String(response.getBody().readAllBytes());
+              byte[] responseBody = response.getBody().readAllBytes();
               log.warn(
                   "Spotify API client error: {} {} - {} {}, Response body: {}",
                   request.getMethod(),
                   request.getURI(),
                   response.getStatusCode(),
                   response.getStatusText(),
-                  responseBody);
+                  new String(responseBody));
+              // Keeps the status code for callers, see SpotifyEntityService
               throw new SpotifyException(
                   "Spotify API error: "
                       + response.getStatusCode()
                       + " - "
-                      + response.getStatusText());
+                      + response.getStatusText(),
+                  HttpClientErrorException.create(
+                      response.getStatusCode(),
+                      response.getStatusText(),
+                      response.getHeaders(),
+                      responseBody,
+                      null));
             })
         .defaultStatusHandler(
             HttpStatusCode::is5xxServerError,
@@ -138,6 +164,26 @@ public class SpotifyHttpServiceConfig {
         .build();
   }
 
+  /**
+   * Creates the request factory with the configured connect and read timeouts, so a slow Spotify
+   * cannot block request threads indefinitely.
+   *
+   * @param properties Resilience properties
+   * @return Request factory for the Spotify RestClients
+   */
+  static ClientHttpRequestFactory requestFactory(SpotifyResilienceProperties properties) {
+    HttpClient httpClient =
+        HttpClient.newBuilder().connectTimeout(properties.connectTimeout()).build();
+    JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+    requestFactory.setReadTimeout(properties.readTimeout());
+    return requestFactory;
+  }
+
+  private SpotifyResilienceInterceptor resilienceInterceptor(String client) {
+    return new SpotifyResilienceInterceptor(
+        client, spotifyResilienceProperties, spotifyCircuitBreakers, meterRegistry);
+  }
+
   /**
    * Creates an HttpServiceProxyFactory for creating HTTP service client proxies.
    *
@@ -0,0 +1,165 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.client.ClientHttpRequestExecution;
+import org.springframework.http.client.ClientHttpRequestInterceptor;
+import org.springframework.http.client.ClientHttpResponse;
+
+/**
+ * Retries failed Spotify calls and guards them with a circuit breaker.
+ *
+ * <p>GET requests are retried on I/O errors (including timeouts), 429 and 5xx responses. Other
+ * requests, like token refreshes, may already have taken effect on a timeout or server error and
+ * are only retried on 429 and refused connections. Retries wait with exponential backoff and
+ * jitter; a 429 waits as long as its Retry-After header asks, unless that is longer than {@code
+ * spotify.resilience.max-retry-after}. The last response is handed to the status handlers of the
+ * RestClient unchanged.
+ *
+ * <p>Register it as the last interceptor, as every attempt re-executes the remaining chain.
+ */
+@Slf4j
+public class SpotifyResilienceInterceptor implements ClientHttpRequestInterceptor {
+
+  private final String client;
+  private final SpotifyResilienceProperties properties;
+  private final SpotifyCircuitBreakers.CircuitBreaker circuitBreaker;
+  private final MeterRegistry meterRegistry;
+
+  public SpotifyResilienceInterceptor(
+      String client,
+      SpotifyResilienceProperties properties,
+      SpotifyCircuitBreakers circuitBreakers,
+      MeterRegistry meterRegistry) {
+    this.client = client;
+    this.properties = properties;
+    this.circuitBreaker = circuitBreakers.get(client);
+    this.meterRegistry = meterRegistry;
+  }
+
+  @Override
+  public ClientHttpResponse intercept(
+      HttpRequest request, byte[] body, ClientHttpRequestExecution execution) throws IOException {
+    if (!circuitBreaker.tryAcquire()) {
+      count("rejected");
+      throw new SpotifyException(
+          "Spotify API unavailable: circuit " + client + " is open after repeated failures");
+    }
+
+    boolean idempotent = HttpMethod.GET.equals(request.getMethod());
+    boolean succeeded = false;
+    try {
+      for (int attempt = 1; ; attempt++) {
+        boolean lastAttempt = attempt >= properties.maxAttempts();
+        ClientHttpResponse response;
+        try {
+          response = execution.execute(request, body);
+        } catch (IOException e) {
+          if (lastAttempt || !(idempotent || e instanceof ConnectException)) {
+            throw e;
+          }
+          retry(request, attempt, "io", backoff(attempt), e.getMessage());
+          continue;
+        }
+
+        HttpStatusCode status = response.getStatusCode();
+        boolean tooManyRequests = status.isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+        boolean retryable = tooManyRequests || (idempotent && status.is5xxServerError());
+        if (!retryable || lastAttempt) {
+          succeeded = !tooManyRequests && !status.is5xxServerError();
+          return response;
+        }
+
+        Duration delay =
+            tooManyRequests ? retryAfter(response).orElse(backoff(attempt)) : backoff(attempt);
+        if (delay.compareTo(properties.maxRetryAfter()) > 0) {
+          log.warn(
+              "Spotify asks to retry {} {} after {}, not waiting that long",
+              request.getMethod(),
+              request.getURI(),
+              delay);
+          return response;
+        }
+        response.close();
+        retry(request, attempt, String.valueOf(status.value()), delay, status.toString());
+      }
+    } finally {
+      if (succeeded) {
+        circuitBreaker.onSuccess();
+        count("success");
+      } else {
+        circuitBreaker.onFailure();
+        count("failure");
+      }
+    }
+  }
+
+  private void retry(HttpRequest request, int attempt, String reason, Duration delay, String cause)
+      throws IOException {
+    log.info(
+        "Retrying Spotify call {} {} in {} ms after attempt {} failed: {}",
+        request.getMethod(),
+        request.getURI(),
+        delay.toMillis(),
+        attempt,
+        cause);
+    meterRegistry
+        .counter("ueberboese.spotify.retries", "client", client, "reason", reason)
+        .increment();
+    try {
+      Thread.sleep(delay);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      throw new IOException("Interrupted while waiting to retry Spotify call", e);
+    }
+  }
+
+  /** Exponential backoff with equal jitter: between half and the full backoff of the attempt. */
+  private Duration backoff(int attempt) {
+    long backoff =
+        Math.min(
+            properties.maxBackoff().toMillis(),
+            properties.initialBackoff().toMillis() << Math.min(attempt - 1, 20));
+    long half = backoff / 2;
+    return Duration.ofMillis(half + ThreadLocalRandom.current().nextLong(backoff - half + 1));
+  }
+
+  private static Optional<Duration> retryAfter(ClientHttpResponse response) {
+    String retryAfter = response.getHeaders().getFirst("Retry-After");
+    if (retryAfter == null || retryAfter.isBlank()) {
+      return Optional.empty();
+    }
+    try {
+      return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(retryAfter.trim()))));
+    } catch (NumberFormatException e) {
+      // Retry-After may also be an HTTP date
+    }
+    try {
+      ZonedDateTime retryAt =
+          ZonedDateTime.parse(retryAfter.trim(), DateTimeFormatter.RFC_1123_DATE_TIME);
+      Duration delay = Duration.between(ZonedDateTime.now(), retryAt);
+      return Optional.of(delay.isNegative() ? Duration.ZERO : delay);
+    } catch (DateTimeParseException e) {
+      log.debug("Ignoring unparseable Retry-After header: {}", retryAfter);
+      return Optional.empty();
+    }
+  }
+
+  private void count(String outcome) {
+    meterRegistry
+        .counter("ueberboese.spotify.requests", "client", client, "outcome", outcome)
+        .increment();
+  }
+}
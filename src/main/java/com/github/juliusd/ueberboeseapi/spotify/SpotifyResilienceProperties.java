@@ -0,0 +1,42 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for timeouts, retries and circuit breaking of Spotify API calls.
+ *
+ * <p>Example configuration in application.properties:
+ *
+ * <pre>
+ * spotify.resilience.connect-timeout=2s
+ * spotify.resilience.read-timeout=5s
+ * spotify.resilience.max-attempts=3
+ * spotify.resilience.initial-backoff=200ms
+ * spotify.resilience.max-backoff=2s
+ * spotify.resilience.max-retry-after=5s
+ * spotify.resilience.failure-threshold=5
+ * spotify.resilience.open-duration=30s
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "spotify.resilience")
+public record SpotifyResilienceProperties(
+    /** Time to establish the connection to Spotify. */
+    Duration connectTimeout,
+    /** Time to wait for Spotify's response once connected. */
+    Duration readTimeout,
+    /** Attempts per call including the first one. */
+    int maxAttempts,
+    /** Backoff before the first retry, doubled for every further retry and jittered. */
+    Duration initialBackoff,
+    /** Upper bound of the backoff between two attempts. */
+    Duration maxBackoff,
+    /**
+     * Longest Retry-After of a 429 response that is waited for. Longer waits are not retried but
+     * answered with the error right away.
+     */
+    Duration maxRetryAfter,
+    /** Consecutive failed calls after which the circuit opens. */
+    int failureThreshold,
+    /** Time the circuit stays open before a single trial call is let through. */
+    Duration openDuration) {}
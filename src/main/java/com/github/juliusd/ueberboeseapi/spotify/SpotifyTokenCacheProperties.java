@@ -0,0 +1,24 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import java.time.Duration;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * Configuration properties for the cache of Spotify access tokens.
+ *
+ * <p>Example configuration in application.properties:
+ *
+ * <pre>
+ * spotify.token-cache.refresh-ahead=5m
+ * spotify.token-cache.default-expires-in=1h
+ * </pre>
+ */
+@ConfigurationProperties(prefix = "spotify.token-cache")
+public record SpotifyTokenCacheProperties(
+    /**
+     * A cached access token that expires within this time is refreshed in the background while the
+     * cached one is still handed out.
+     */
+    Duration refreshAhead,
+    /** Lifetime assumed for access tokens when Spotify does not send expires_in. */
+    Duration defaultExpiresIn) {}
@@ -1,7 +1,6 @@
 package com.github.juliusd.ueberboeseapi.spotify;
 
 import com.github.juliusd.ueberboeseapi.generated.dtos.OAuthTokenRequestApiDto;
-import com.github.juliusd.ueberboeseapi.spotify.client.SpotifyOAuthClient;
 import com.github.juliusd.ueberboeseapi.spotify.dto.AuthorizationCodeCredentialsDto;
 import java.util.Set;
 import lombok.RequiredArgsConstructor;
@@ -28,22 +27,22 @@ public class SpotifyTokenService {
 
   private final SpotifyAuthProperties spotifyAuthProperties;
   private final SpotifyAccountService spotifyAccountService;
-  private final SpotifyOAuthClient spotifyOAuthClient;
+  private final SpotifyAccessTokenCache spotifyAccessTokenCache;
 
   public AuthorizationCodeCredentialsDto loadSpotifyAuth(
       OAuthTokenRequestApiDto oauthTokenRequestApiDto) {
     checkProperties();
 
-    // Get the oldest connected Spotify account
-    var accounts = spotifyAccountService.listAllAccounts();
-    if (accounts.isEmpty()) {
-      log.error("No Spotify accounts connected");
-      throw new NoSpotifyAccountException(
-          "No Spotify accounts connected. Please connect a Spotify account via the management API.");
-    }
-
-    // Use the oldest account (last in the list sorted by createdAt descending)
-    var oldestAccount = accounts.getLast();
+    // Use the oldest connected Spotify account
+    var oldestAccount =
+        spotifyAccountService
+            .getDefaultAccount()
+            .orElseThrow(
+                () -> {
+                  log.error("No Spotify accounts connected");
+                  return new NoSpotifyAccountException(
+                      "No Spotify accounts connected. Please connect a Spotify account via the management API.");
+                });
     log.info(
         "Using Spotify account: {} ({})",
         oldestAccount.displayName(),
@@ -54,19 +53,12 @@ public class SpotifyTokenService {
     }
 
     try {
-      // Prepare form data for token refresh
-      org.springframework.util.LinkedMultiValueMap<String, String> formData =
-          new org.springframework.util.LinkedMultiValueMap<>();
-      formData.add("grant_type", "refresh_token");
-      formData.add("refresh_token", oldestAccount.refreshToken());
-      formData.add("client_id", spotifyAuthProperties.clientId());
-      formData.add("client_secret", spotifyAuthProperties.clientSecret());
-
-      // Call Spotify API to refresh the access token
-      var authorizationCodeCredentials = spotifyOAuthClient.refreshAccessToken(formData);
+      // Cached per account, Spotify is only asked when the token is about to expire
+      var authorizationCodeCredentials =
+          spotifyAccessTokenCache.getCredentials(oldestAccount.spotifyUserId());
 
       String actualScope = authorizationCodeCredentials.scope();
-      log.info("Spotify auth refresh request successful with scope {}", actualScope);
+      log.debug("Spotify auth available with scope {}", actualScope);
 
       // Validate that all required scopes are present
       validateScopes(actualScope);
@@ -74,7 +66,9 @@ public class SpotifyTokenService {
       return authorizationCodeCredentials;
     } catch (RuntimeException e) {
       log.warn("Spotify auth failed: {}", e.getMessage());
-      throw new SpotifyException(e);
+      throw e instanceof SpotifyException spotifyException
+          ? spotifyException
+          : new SpotifyException(e);
     }
   }
 
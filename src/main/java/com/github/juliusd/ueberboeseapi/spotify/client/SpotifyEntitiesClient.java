@@ -3,6 +3,7 @@ package com.github.juliusd.ueberboeseapi.spotify.client;
 import com.github.juliusd.ueberboeseapi.spotify.dto.*;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.service.annotation.GetExchange;
 
 /**
@@ -72,4 +73,58 @@ public interface SpotifyEntitiesClient {
   @GetExchange("/v1/episodes/{id}")
   EpisodeDto getEpisode(
       @RequestHeader("Authorization") String authorization, @PathVariable String id);
+
+  /**
+   * Get several tracks by ID. Unknown IDs are returned as null entries.
+   *
+   * @param authorization Bearer token for authentication
+   * @param ids Comma-separated list of at most 50 Spotify track IDs
+   * @return Tracks in the order of the requested IDs
+   */
+  @GetExchange("/v1/tracks")
+  TracksDto getTracks(
+      @RequestHeader("Authorization") String authorization, @RequestParam String ids);
+
+  /**
+   * Get several albums by ID. Unknown IDs are returned as null entries.
+   *
+   * @param authorization Bearer token for authentication
+   * @param ids Comma-separated list of at most 20 Spotify album IDs
+   * @return Albums in the order of the requested IDs
+   */
+  @GetExchange("/v1/albums")
+  AlbumsDto getAlbums(
+      @RequestHeader("Authorization") String authorization, @RequestParam String ids);
+
+  /**
+   * Get several artists by ID. Unknown IDs are returned as null entries.
+   *
+   * @param authorization Bearer token for authentication
+   * @param ids Comma-separated list of at most 50 Spotify artist IDs
+   * @return Artists in the order of the requested IDs
+   */
+  @GetExchange("/v1/artists")
+  ArtistsDto getArtists(
+      @RequestHeader("Authorization") String authorization, @RequestParam String ids);
+
+  /**
+   * Get several shows by ID. Unknown IDs are returned as null entries.
+   *
+   * @param authorization Bearer token for authentication
+   * @param ids Comma-separated list of at most 50 Spotify show IDs
+   * @return Shows in the order of the requested IDs
+   */
+  @GetExchange("/v1/shows")
+  ShowsDto getShows(@RequestHeader("Authorization") String authorization, @RequestParam String ids);
+
+  /**
+   * Get several episodes by ID. Unknown IDs are returned as null entries.
+   *
+   * @param authorization Bearer token for authentication
+   * @param ids Comma-separated list of at most 50 Spotify episode IDs
+   * @return Episodes in the order of the requested IDs
+   */
+  @GetExchange("/v1/episodes")
+  EpisodesDto getEpisodes(
+      @RequestHeader("Authorization") String authorization, @RequestParam String ids);
 }
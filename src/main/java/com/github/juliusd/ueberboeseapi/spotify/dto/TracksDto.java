@@ -0,0 +1,7 @@
+package com.github.juliusd.ueberboeseapi.spotify.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import java.util.List;
+
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record TracksDto(List<TrackDto> tracks) {}
@@ -0,0 +1,5 @@
+CREATE INDEX IF NOT EXISTS IDX_DEVICE_MARGE_ACCOUNT
+    ON DEVICE(MARGE_ACCOUNT_ID);
+
+CREATE INDEX IF NOT EXISTS IDX_DEVICE_LAST_SEEN
+    ON DEVICE(LAST_SEEN);
@@ -0,0 +1,9 @@
+CREATE TABLE IF NOT EXISTS CUSTOM_STATION (
+    ID VARCHAR(32) PRIMARY KEY,
+    NAME VARCHAR(255) NOT NULL,
+    STREAM_URL VARCHAR(2048) NOT NULL,
+    IMAGE_URL VARCHAR(2048),
+    CREATED_ON TIMESTAMP WITH TIME ZONE NOT NULL,
+    UPDATED_ON TIMESTAMP WITH TIME ZONE NOT NULL,
+    VERSION BIGINT NOT NULL DEFAULT 0
+);
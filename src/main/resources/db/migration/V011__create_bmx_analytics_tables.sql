@@ -0,0 +1,28 @@
+CREATE TABLE IF NOT EXISTS BMX_REPORT (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    DEVICE_ID VARCHAR(255) NOT NULL,
+    STATION_ID VARCHAR(255),
+    STREAM_ID VARCHAR(255),
+    LISTEN_ID VARCHAR(255),
+    STREAM_TYPE VARCHAR(64),
+    EVENT_TYPE VARCHAR(32),
+    REASON VARCHAR(255),
+    TIME_INTO_TRACK INTEGER,
+    LISTENING_SECONDS INTEGER NOT NULL,
+    REPORTED_AT TIMESTAMP WITH TIME ZONE NOT NULL,
+    RECEIVED_AT TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX IF NOT EXISTS IDX_BMX_REPORT_RECEIVED_AT
+    ON BMX_REPORT(RECEIVED_AT);
+
+CREATE TABLE IF NOT EXISTS LISTENING_STAT (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    STATION_ID VARCHAR(255) NOT NULL,
+    DEVICE_ID VARCHAR(255) NOT NULL,
+    LISTENING_SECONDS BIGINT NOT NULL,
+    REPORT_COUNT BIGINT NOT NULL,
+    LAST_REPORTED_AT TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT UQ_LISTENING_STAT_STATION_DEVICE
+        UNIQUE (STATION_ID, DEVICE_ID)
+);
@@ -0,0 +1,20 @@
+CREATE TABLE LISTENING_STAT_BY_STATION (
+    ID BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    STATION_ID VARCHAR(255) NOT NULL,
+    LISTENING_SECONDS BIGINT NOT NULL,
+    REPORT_COUNT BIGINT NOT NULL,
+    LAST_REPORTED_AT TIMESTAMP WITH TIME ZONE NOT NULL,
+    CONSTRAINT UQ_LISTENING_STAT_STATION
+        UNIQUE (STATION_ID)
+);
+
+INSERT INTO LISTENING_STAT_BY_STATION
+    (STATION_ID, LISTENING_SECONDS, REPORT_COUNT, LAST_REPORTED_AT)
+SELECT STATION_ID, SUM(LISTENING_SECONDS), SUM(REPORT_COUNT), MAX(LAST_REPORTED_AT)
+  FROM LISTENING_STAT
+ GROUP BY STATION_ID;
+
+DROP TABLE LISTENING_STAT;
+ALTER TABLE LISTENING_STAT_BY_STATION RENAME TO LISTENING_STAT;
+
+ALTER TABLE BMX_REPORT DROP COLUMN DEVICE_ID;
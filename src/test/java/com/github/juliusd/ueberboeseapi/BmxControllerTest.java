@@ -4,11 +4,13 @@ import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.configureFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 
 import com.github.tomakehurst.wiremock.WireMockServer;
 import com.github.tomakehurst.wiremock.client.WireMock;
 import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import java.time.Duration;
 import java.util.Base64;
 import org.junit.jupiter.api.AfterAll;
 import org.junit.jupiter.api.BeforeAll;
@@ -243,6 +245,141 @@ class BmxControllerTest extends TestBase {
         .body("audio.isRealtime", equalTo(true));
   }
 
+  @Test
+  void testGetTuneInPlaybackStopsReadingAfterStation() {
+    // The document is truncated after the station, which only matters if it were read to the end
+    // language=XML
+    String describeResponse =
+        """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <opml version="1">
+          <body>
+            <outline type="object" text="Radio name">
+              <station>
+                <guide_id>s80045</guide_id>
+                <name>Radio <![CDATA[name & more]]></name>
+                <logo>https://cdn-radiotime-logos.tunein.com/s80045q.png</logo>
+              </station>
+            </outline>
+            <outline type="object">
+              <station>""";
+
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/describe.ashx?id=s80045"))
+            .willReturn(aResponse().withStatus(200).withBody(describeResponse)));
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/Tune.ashx?id=s80045"))
+            .willReturn(aResponse().withStatus(200).withBody("https://stream.example.com/radio")));
+
+    given()
+        .contentType("application/json")
+        .when()
+        .get("/bmx/tunein/v1/playback/station/s80045")
+        .then()
+        .statusCode(200)
+        .body("name", equalTo("Radio name & more"))
+        .body("imageUrl", equalTo("https://cdn-radiotime-logos.tunein.com/s80045q.png"));
+  }
+
+  @Test
+  void testGetTuneInPlaybackRejectsExternalEntities() {
+    // language=XML
+    String describeResponse =
+        """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <!DOCTYPE opml [<!ENTITY secret SYSTEM "file:///etc/passwd">]>
+        <opml version="1">
+          <body>
+            <outline type="object">
+              <station>
+                <name>&secret;</name>
+              </station>
+            </outline>
+          </body>
+        </opml>""";
+
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/describe.ashx?id=s80046"))
+            .willReturn(aResponse().withStatus(200).withBody(describeResponse)));
+
+    given()
+        .contentType("application/json")
+        .when()
+        .get("/bmx/tunein/v1/playback/station/s80046")
+        .then()
+        .statusCode(500);
+  }
+
+  @Test
+  void testGetTuneInPlaybackWithoutMetadata() {
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/describe.ashx?id=s80047"))
+            .willReturn(aResponse().withStatus(503)));
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/Tune.ashx?id=s80047"))
+            .willReturn(aResponse().withStatus(200).withBody("https://stream.example.com/radio")));
+
+    given()
+        .contentType("application/json")
+        .when()
+        .get("/bmx/tunein/v1/playback/station/s80047")
+        .then()
+        .statusCode(200)
+        .body("name", equalTo("s80047"))
+        .body("audio.streamUrl", equalTo("https://stream.example.com/radio"));
+  }
+
+  @Test
+  void testGetTuneInPlaybackWithoutStreamUrls() {
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/describe.ashx?id=s80048"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody(
+                        "<opml><body><outline><station><name>Radio</name></station></outline></body></opml>")));
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/Tune.ashx?id=s80048")).willReturn(aResponse().withStatus(503)));
+
+    given()
+        .contentType("application/json")
+        .when()
+        .get("/bmx/tunein/v1/playback/station/s80048")
+        .then()
+        .statusCode(500);
+  }
+
+  @Test
+  void testGetTuneInPlaybackFetchesMetadataAndStreamUrlsConcurrently() {
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/describe.ashx?id=s80049"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(1000)
+                    .withBody(
+                        "<opml><body><outline><station><name>Slow Radio</name></station></outline></body></opml>")));
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/Tune.ashx?id=s80049"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withFixedDelay(1000)
+                    .withBody("https://stream.example.com/slow")));
+
+    long start = System.nanoTime();
+    given()
+        .contentType("application/json")
+        .when()
+        .get("/bmx/tunein/v1/playback/station/s80049")
+        .then()
+        .statusCode(200)
+        .body("name", equalTo("Slow Radio"));
+
+    // Sequential calls would take at least 2 seconds
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1900));
+  }
+
   @Test
   void testGetCustomStreamPlayback() {
     // Create base64-encoded JSON
@@ -267,6 +404,70 @@ class BmxControllerTest extends TestBase {
         .body("audio.streams", hasSize(1));
   }
 
+  @Test
+  void testGetCatalogStationPlayback() {
+    // Given
+    String stationId = importCatalogStation("Catalog Radio", "https://stream.example.com/catalog");
+
+    // When / Then
+    given()
+        .when()
+        .get("/core02/svc-bmx-adapter-orion/prod/orion/station/{stationId}", stationId)
+        .then()
+        .statusCode(200)
+        .contentType("application/json")
+        .body("name", equalTo("Catalog Radio"))
+        .body("imageUrl", equalTo("https://example.com/logo.png"))
+        .body("streamType", equalTo("liveRadio"))
+        .body("audio.streamUrl", equalTo("https://stream.example.com/catalog"))
+        .body("audio.streams", hasSize(1))
+        .body("audio.streams[0].streamUrl", equalTo("https://stream.example.com/catalog"));
+  }
+
+  @Test
+  void testGetCatalogStationPlaybackServesPrebuiltResponseUntilReimport() {
+    // Given
+    String stationId = importCatalogStation("Catalog Radio", "https://stream.example.com/catalog");
+    given()
+        .get("/core02/svc-bmx-adapter-orion/prod/orion/station/{stationId}", stationId)
+        .then()
+        .statusCode(200);
+    customStationRepository.save(
+        customStationRepository.findById(stationId).orElseThrow().toBuilder()
+            .name("Changed behind the cache")
+            .build());
+
+    // When / Then
+    given()
+        .get("/core02/svc-bmx-adapter-orion/prod/orion/station/{stationId}", stationId)
+        .then()
+        .statusCode(200)
+        .body("name", equalTo("Catalog Radio"));
+
+    importCatalogStation("Renamed Radio", "https://stream.example.com/catalog");
+    given()
+        .get("/core02/svc-bmx-adapter-orion/prod/orion/station/{stationId}", stationId)
+        .then()
+        .statusCode(200)
+        .body("name", equalTo("Renamed Radio"));
+  }
+
+  @Test
+  void testGetCatalogStationPlaybackForUnknownStation() {
+    given()
+        .when()
+        .get("/core02/svc-bmx-adapter-orion/prod/orion/station/c000000000000")
+        .then()
+        .statusCode(404);
+
+    // A station imported after a miss is found right away
+    String stationId = importCatalogStation("Late Radio", "https://stream.example.com/late");
+    given()
+        .get("/core02/svc-bmx-adapter-orion/prod/orion/station/{stationId}", stationId)
+        .then()
+        .statusCode(200);
+  }
+
   @Test
   void testGetCustomStreamPlaybackWithMissingData() {
     given()
@@ -402,4 +603,73 @@ class BmxControllerTest extends TestBase {
         .body("services[1].canAdd", equalTo(false))
         .body("services[1].canRemove", equalTo(true));
   }
+
+  @Test
+  void testGetBmxServicesWithETag() {
+    String etag =
+        given()
+            .when()
+            .get("/bmx/registry/v1/services")
+            .then()
+            .statusCode(200)
+            .header("ETag", matchesPattern("\"[0-9a-f]{32}\""))
+            .body("askAgainAfter", equalTo(1234567))
+            .extract()
+            .header("ETag");
+
+    given()
+        .header("If-None-Match", etag)
+        .when()
+        .get("/bmx/registry/v1/services")
+        .then()
+        .statusCode(304)
+        .header("ETag", equalTo(etag))
+        .body(emptyString());
+
+    given()
+        .header("If-None-Match", "\"outdated\"")
+        .when()
+        .get("/bmx/registry/v1/services")
+        .then()
+        .statusCode(200)
+        .body("bmx_services", hasSize(4));
+  }
+
+  @Test
+  void testGetBmxServicesAvailabilityWithETag() {
+    String etag =
+        given()
+            .when()
+            .get("/bmx/registry/v1/servicesAvailability")
+            .then()
+            .statusCode(200)
+            .extract()
+            .header("ETag");
+
+    given()
+        .header("If-None-Match", "W/" + etag)
+        .when()
+        .get("/bmx/registry/v1/servicesAvailability")
+        .then()
+        .statusCode(304)
+        .header("X-Bmx-Adapter-Version", equalTo("master.4.40"));
+  }
+
+  private static String importCatalogStation(String name, String streamUrl) {
+    return given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .contentType("application/json")
+        .body(
+            """
+            {"stations": [{"name": "%s", "streamUrl": "%s", "imageUrl": "https://example.com/logo.png"}]}
+            """
+                .formatted(name, streamUrl))
+        .when()
+        .post("/mgmt/custom-stations")
+        .then()
+        .statusCode(200)
+        .extract()
+        .path("stations[0].id");
+  }
 }
@@ -2,9 +2,13 @@ package com.github.juliusd.ueberboeseapi;
 
 import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
 
+import com.github.juliusd.ueberboeseapi.event.DeviceStateProjector;
 import com.github.juliusd.ueberboeseapi.service.EventStorageService;
 import io.restassured.http.ContentType;
+import io.restassured.path.json.JsonPath;
+import java.util.List;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -12,10 +16,12 @@ import org.springframework.beans.factory.annotation.Autowired;
 class EventControllerTest extends TestBase {
 
   @Autowired private EventStorageService eventStorageService;
+  @Autowired private DeviceStateProjector deviceStateProjector;
 
   @BeforeEach
   void clearEvents() {
     eventStorageService.clearAllEvents();
+    deviceStateProjector.clear();
   }
 
   @Test
@@ -283,6 +289,23 @@ class EventControllerTest extends TestBase {
         .statusCode(401);
   }
 
+  @Test
+  void getDeviceEventHistory_shouldReturnNotFoundWhenStoreIsDisabled() {
+    // Given
+    String deviceId = "587A628A4042";
+
+    // When / Then
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .accept(ContentType.JSON)
+        .when()
+        .get("/mgmt/devices/{deviceId}/events/history", deviceId)
+        .then()
+        .statusCode(404)
+        .body("message", equalTo("Persistent event store is not enabled"));
+  }
+
   @Test
   void submitDeviceEvents_shouldKeepOnlyLast50Events() {
     // Given: Submit 55 events for the same device
@@ -401,6 +424,199 @@ class EventControllerTest extends TestBase {
     assertThat(response2.jsonPath().getInt("events[0].monoTime")).isEqualTo(100);
   }
 
+  @Test
+  void queryDeviceEvents_shouldFilterByTypeDeviceAndTime() {
+    // Given: device1 exceeds its limit, so its 5 oldest events are evicted
+    for (int i = 0; i < 55; i++) {
+      submitEventWithMonoTime("DEVICE001", i);
+    }
+    for (int i = 0; i < 3; i++) {
+      submitEventWithMonoTime("DEVICE002", i + 100);
+    }
+
+    // When / Then: evicted events are no longer found
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .accept(ContentType.JSON)
+        .queryParam("type", "test-event")
+        .when()
+        .get("/mgmt/events")
+        .then()
+        .statusCode(200)
+        .body("events.size()", equalTo(53));
+
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .accept(ContentType.JSON)
+        .queryParam("deviceId", "DEVICE002")
+        .queryParam("from", "2026-01-09T08:00:00Z")
+        .queryParam("to", "2026-01-09T09:00:00Z")
+        .when()
+        .get("/mgmt/events")
+        .then()
+        .statusCode(200)
+        .body("events.size()", equalTo(3))
+        .body("events[0].deviceId", equalTo("DEVICE002"))
+        .body("events[0].monoTime", equalTo(100))
+        .body("events[0].type", equalTo("test-event"));
+
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .accept(ContentType.JSON)
+        .queryParam("type", "test-event")
+        .queryParam("to", "2026-01-09T08:00:00Z")
+        .when()
+        .get("/mgmt/events")
+        .then()
+        .statusCode(200)
+        .body("events.size()", equalTo(0));
+  }
+
+  @Test
+  void exportEvents_shouldStreamNdjsonAndResumeFromCursor() {
+    // Given
+    submitEventWithMonoTime("DEVICE001", 1);
+    submitEventWithMonoTime("DEVICE002", 2);
+    submitEventWithMonoTime("DEVICE001", 3);
+
+    // When
+    String export =
+        given()
+            .auth()
+            .basic("admin", "test-password-123")
+            .when()
+            .get("/mgmt/events/export")
+            .then()
+            .statusCode(200)
+            .contentType("application/x-ndjson")
+            .extract()
+            .asString();
+
+    // Then
+    List<String> lines = export.lines().toList();
+    assertThat(lines).hasSize(3);
+    List<Long> sequences =
+        lines.stream().map(line -> JsonPath.from(line).getLong("sequence")).toList();
+    assertThat(sequences).isSorted();
+    assertThat(JsonPath.from(lines.getFirst()).getString("deviceId")).isEqualTo("DEVICE001");
+    assertThat(JsonPath.from(lines.getFirst()).getInt("monoTime")).isEqualTo(1);
+
+    // When: resuming after the first event, restricted to one device
+    String resumed =
+        given()
+            .auth()
+            .basic("admin", "test-password-123")
+            .queryParam("since", sequences.getFirst())
+            .queryParam("deviceId", "DEVICE001")
+            .when()
+            .get("/mgmt/events/export")
+            .then()
+            .statusCode(200)
+            .extract()
+            .asString();
+
+    // Then
+    assertThat(resumed.lines().toList())
+        .singleElement()
+        .satisfies(line -> assertThat(JsonPath.from(line).getInt("monoTime")).isEqualTo(3));
+  }
+
+  @Test
+  void exportEvents_shouldRequireAuthentication() {
+    given().when().get("/mgmt/events/export").then().statusCode(401);
+  }
+
+  @Test
+  void getDeviceState_shouldReturnStateDerivedFromEvents() {
+    // Given
+    String deviceId = "587A628A4042";
+    String requestJson =
+        """
+        {
+          "envelope": {
+            "monoTime": 94118263,
+            "payloadProtocolVersion": "3.1",
+            "payloadType": "scmudc",
+            "protocolVersion": "1.0",
+            "time": "2026-01-09T08:02:32.874426+00:00",
+            "uniqueId": "587A628A4042"
+          },
+          "payload": {
+            "deviceInfo": {
+              "boseID": "6921042",
+              "deviceID": "587A628A4042",
+              "deviceType": "SoundTouch 20",
+              "serialNumber": "P123456789101123456789",
+              "softwareVersion": "27.0.6.46330.5043500 epdbuild.trunk.hepdswbld04.2022-08-04T11:20:29",
+              "systemSerialNumber": "069236P81556160AE"
+            },
+            "events": [
+              {
+                "data": {
+                  "source-state": "SPOTIFY"
+                },
+                "monoTime": 94118263,
+                "time": "2026-01-09T08:02:32.873379+00:00",
+                "type": "source-state-changed"
+              },
+              {
+                "data": {
+                  "play-state": "PLAY_STATE"
+                },
+                "monoTime": 94118439,
+                "time": "2026-01-09T08:02:33.049407+00:00",
+                "type": "play-state-changed"
+              }
+            ]
+          }
+        }
+        """;
+    given()
+        .header("Authorization", "Bearer mockAuthToken123")
+        .header("Content-Type", "text/json; charset=utf-8")
+        .body(requestJson)
+        .post("/v1/scmudc/{deviceId}", deviceId);
+
+    // When / Then
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .accept(ContentType.JSON)
+        .when()
+        .get("/mgmt/devices/{deviceId}/state", deviceId)
+        .then()
+        .statusCode(200)
+        .body("deviceId", equalTo(deviceId))
+        .body("source", equalTo("SPOTIFY"))
+        .body("playState", equalTo("PLAY_STATE"));
+
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .accept(ContentType.JSON)
+        .when()
+        .get("/mgmt/device-states")
+        .then()
+        .statusCode(200)
+        .body("states.size()", equalTo(1))
+        .body("states[0].source", equalTo("SPOTIFY"));
+  }
+
+  @Test
+  void getDeviceState_shouldReturnNotFoundForUnknownDevice() {
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .accept(ContentType.JSON)
+        .when()
+        .get("/mgmt/devices/{deviceId}/state", "UNKNOWN_DEVICE")
+        .then()
+        .statusCode(404);
+  }
+
   private void submitEventWithMonoTime(String deviceId, int monoTime) {
     String requestJson =
         """
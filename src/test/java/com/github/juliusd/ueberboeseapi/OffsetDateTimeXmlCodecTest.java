@@ -0,0 +1,80 @@
+package com.github.juliusd.ueberboeseapi;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+class OffsetDateTimeXmlCodecTest {
+
+  private final XmlMapper xmlMapper = new XmlMessageConverterConfig().customXmlMapper();
+
+  record Holder(OffsetDateTime date) {}
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "2018-08-11T08:55:25.000+00:00",
+        "2025-01-01T00:00:00.001+01:00",
+        "1999-12-31T23:59:59.999-05:30",
+        "0001-02-03T04:05:06.789+14:00",
+        "2024-06-15T12:00:00.123456789Z",
+        "2024-06-15T12:00:00+02:00:30",
+        "2024-06-15T12:00:00.5+00:00"
+      })
+  void serialize_shouldMatchFormatterOutput(String date) throws Exception {
+    OffsetDateTime value = OffsetDateTime.parse(date);
+
+    String xml = xmlMapper.writeValueAsString(new Holder(value));
+
+    String expected =
+        value.format(DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS"))
+            + (value.getOffset().equals(ZoneOffset.UTC) ? "+00:00" : value.getOffset().getId());
+    assertThat(xml).contains("<date>" + expected + "</date>");
+  }
+
+  @ParameterizedTest
+  @ValueSource(
+      strings = {
+        "2018-08-11T08:55:25.000+00:00",
+        "2018-08-11T08:55:25.000Z",
+        "2018-08-11T08:55:25Z",
+        "2018-08-11T08:55:25.1+01:00",
+        "2018-08-11T08:55:25.123456789-03:30",
+        "2018-08-11T08:55+00:00",
+        "2018-08-11T08:55:25+02:00:30",
+        "2018-08-11t08:55:25z"
+      })
+  void deserialize_shouldMatchIsoOffsetDateTime(String date) throws Exception {
+    Holder holder = xmlMapper.readValue("<Holder><date>" + date + "</date></Holder>", Holder.class);
+
+    assertThat(holder.date())
+        .isEqualTo(OffsetDateTime.parse(date, DateTimeFormatter.ISO_OFFSET_DATE_TIME));
+  }
+
+  @Test
+  void deserialize_shouldRejectInvalidDates() {
+    assertThatThrownBy(
+            () ->
+                xmlMapper.readValue(
+                    "<Holder><date>2018-02-30T08:55:25.000+00:00</date></Holder>", Holder.class))
+        .hasCauseInstanceOf(DateTimeParseException.class);
+  }
+
+  @Test
+  void roundTrip_shouldKeepMillisecondPrecision() throws Exception {
+    OffsetDateTime value = OffsetDateTime.of(2025, 3, 9, 7, 8, 9, 42_000_000, ZoneOffset.UTC);
+
+    Holder holder =
+        xmlMapper.readValue(xmlMapper.writeValueAsString(new Holder(value)), Holder.class);
+
+    assertThat(holder.date()).isEqualTo(value);
+  }
+}
@@ -1,12 +1,23 @@
 package com.github.juliusd.ueberboeseapi;
 
+import com.github.juliusd.ueberboeseapi.analytics.BmxAnalyticsService;
+import com.github.juliusd.ueberboeseapi.analytics.BmxReportRepository;
+import com.github.juliusd.ueberboeseapi.analytics.ListeningStatRepository;
+import com.github.juliusd.ueberboeseapi.bmx.TuneInClient;
+import com.github.juliusd.ueberboeseapi.customstation.CustomStationRepository;
+import com.github.juliusd.ueberboeseapi.customstation.CustomStationService;
+import com.github.juliusd.ueberboeseapi.device.DeviceRegistry;
 import com.github.juliusd.ueberboeseapi.device.DeviceRepository;
 import com.github.juliusd.ueberboeseapi.group.DeviceGroupRepository;
 import com.github.juliusd.ueberboeseapi.preset.PresetRepository;
 import com.github.juliusd.ueberboeseapi.recent.Recent;
 import com.github.juliusd.ueberboeseapi.recent.RecentRepository;
+import com.github.juliusd.ueberboeseapi.spotify.SpotifyAccessTokenCache;
 import com.github.juliusd.ueberboeseapi.spotify.SpotifyAccount;
+import com.github.juliusd.ueberboeseapi.spotify.SpotifyAccountRegistry;
 import com.github.juliusd.ueberboeseapi.spotify.SpotifyAccountRepository;
+import com.github.juliusd.ueberboeseapi.spotify.SpotifyCircuitBreakers;
+import com.github.juliusd.ueberboeseapi.spotify.SpotifyEntityService;
 import io.restassured.RestAssured;
 import java.time.OffsetDateTime;
 import org.junit.jupiter.api.BeforeEach;
@@ -45,20 +56,42 @@ public class TestBase {
 
   @LocalServerPort private int port;
   @Autowired protected SpotifyAccountRepository spotifyAccountRepository;
+  @Autowired protected SpotifyAccountRegistry spotifyAccountRegistry;
+  @Autowired protected SpotifyAccessTokenCache spotifyAccessTokenCache;
+  @Autowired protected SpotifyCircuitBreakers spotifyCircuitBreakers;
+  @Autowired protected SpotifyEntityService spotifyEntityService;
   @Autowired protected DeviceRepository deviceRepository;
   @Autowired protected RecentRepository recentRepository;
   @Autowired protected PresetRepository presetRepository;
   @Autowired protected DeviceGroupRepository deviceGroupRepository;
+  @Autowired protected DeviceRegistry deviceRegistry;
+  @Autowired protected TuneInClient tuneInClient;
+  @Autowired protected CustomStationRepository customStationRepository;
+  @Autowired protected CustomStationService customStationService;
+  @Autowired protected BmxAnalyticsService bmxAnalyticsService;
+  @Autowired protected BmxReportRepository bmxReportRepository;
+  @Autowired protected ListeningStatRepository listeningStatRepository;
 
   @BeforeEach
   void setUp() {
     RestAssured.port = port;
     RestAssured.enableLoggingOfRequestAndResponseIfValidationFails();
+    bmxAnalyticsService.flush();
     spotifyAccountRepository.deleteAll();
     deviceRepository.deleteAll();
     recentRepository.deleteAll();
     presetRepository.deleteAll();
     deviceGroupRepository.deleteAll();
+    customStationRepository.deleteAll();
+    bmxReportRepository.deleteAll();
+    listeningStatRepository.deleteAll();
+    deviceRegistry.invalidate();
+    tuneInClient.invalidateCache();
+    customStationService.invalidateCache();
+    spotifyAccountRegistry.invalidate();
+    spotifyAccessTokenCache.invalidateAll();
+    spotifyEntityService.invalidateCache();
+    spotifyCircuitBreakers.resetAll();
   }
 
   protected void givenRecentsInDB() {
@@ -0,0 +1,144 @@
+package com.github.juliusd.ueberboeseapi.analytics;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.greaterThanOrEqualTo;
+import static org.hamcrest.Matchers.hasSize;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import com.github.juliusd.ueberboeseapi.generated.dtos.BmxReportRequestApiDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class BmxAnalyticsServiceTest extends TestBase {
+
+  @Test
+  void report_shouldAggregateListeningTimePerStation() {
+    // When
+    report("s80044", "listen-1", "START", 0, "2025-10-31T05:00:00+0000");
+    report("s80044", "listen-1", "TIMED", 300, "2025-10-31T05:05:00+0000");
+    report("s80044", "listen-1", "PAUSE", 420, "2025-10-31T05:07:00+0000");
+    // The pause is not listening time
+    report("s80044", "listen-1", "RESUME", 420, "2025-10-31T05:30:00+0000");
+    report("s80044", "listen-1", "TIMED", 600, "2025-10-31T05:33:00+0000");
+    report("s80045", "listen-2", "START", 0, "2025-10-31T06:00:00+0000");
+    bmxAnalyticsService.flush();
+
+    // Then
+    assertThat(bmxReportRepository.count()).isEqualTo(6);
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .when()
+        .get("/mgmt/listening-stats")
+        .then()
+        .statusCode(200)
+        .body("stats", hasSize(2))
+        .body("stats[0].stationId", equalTo("s80044"))
+        .body("stats[0].listeningSeconds", equalTo(600))
+        .body("stats[0].reportCount", equalTo(5))
+        .body("stats[0].lastReportedAt", equalTo("2025-10-31T05:33:00Z"))
+        .body("stats[1].stationId", equalTo("s80045"))
+        .body("stats[1].listeningSeconds", equalTo(0));
+  }
+
+  @Test
+  void report_shouldAddToExistingCountersAcrossBatches() {
+    // Given
+    report("s80044", "listen-3", "START", 0, "2025-10-31T05:00:00+0000");
+    report("s80044", "listen-3", "TIMED", 100, "2025-10-31T05:01:40+0000");
+    bmxAnalyticsService.flush();
+
+    // When
+    report("s80044", "listen-3", "STOP", 250, "2025-10-31T05:04:10+0000");
+    bmxAnalyticsService.flush();
+
+    // Then
+    List<ListeningStat> stats = listeningStatRepository.findAllOrderedByListeningTime();
+    assertThat(stats).hasSize(1);
+    assertThat(stats.getFirst().listeningSeconds()).isEqualTo(250);
+    assertThat(stats.getFirst().reportCount()).isEqualTo(3);
+  }
+
+  @Test
+  void report_shouldTruncateOversizedValuesInsteadOfFailingTheBatch() {
+    // Given
+    BmxReportRequestApiDto body = new BmxReportRequestApiDto();
+    body.setReason("R".repeat(1000));
+    body.setTimeIntoTrack(0);
+
+    // When: an oversized report is written together with a regular one
+    bmxAnalyticsService.report(
+        body, "S".repeat(1000), "s80044", "L".repeat(1000), "T".repeat(1000));
+    report("s80045", "listen-5", "START", 0, "2025-10-31T05:00:00+0000");
+    bmxAnalyticsService.flush();
+
+    // Then
+    assertThat(bmxReportRepository.findAll())
+        .hasSize(2)
+        .anySatisfy(
+            report -> {
+              assertThat(report.stationId()).isEqualTo("s80044");
+              assertThat(report.streamId()).hasSize(255);
+              assertThat(report.listenId()).hasSize(255);
+              assertThat(report.streamType()).hasSize(64);
+              assertThat(report.reason()).hasSize(255);
+            });
+  }
+
+  @Test
+  void report_shouldAskForLaterReportsWhileQueueFillsUp() {
+    // Given
+    BmxAnalyticsService service =
+        new BmxAnalyticsService(
+            bmxReportRepository,
+            listeningStatRepository,
+            new BmxAnalyticsProperties(
+                4,
+                10,
+                Duration.ofSeconds(5),
+                Duration.ofMinutes(30),
+                Duration.ofMinutes(90),
+                Duration.ofDays(1)),
+            null,
+            new SimpleMeterRegistry());
+    BmxReportRequestApiDto body = new BmxReportRequestApiDto();
+
+    // When / Then
+    assertThat(service.nextReportIn()).isEqualTo(1800);
+    assertThat(service.report(body, null, "s80044", null, null).getNextReportIn()).isEqualTo(2700);
+    service.report(body, null, "s80044", null, null);
+    service.report(body, null, "s80044", null, null);
+    assertThat(service.report(body, null, "s80044", null, null).getNextReportIn()).isEqualTo(5400);
+    // Queue is full, the report is dropped
+    assertThat(service.report(body, null, "s80044", null, null).getNextReportIn()).isEqualTo(5400);
+  }
+
+  private static void report(
+      String guideId, String listenId, String eventType, int timeIntoTrack, String timeStamp) {
+    given()
+        .contentType("application/json")
+        .queryParam("stream_id", "e3342")
+        .queryParam("guide_id", guideId)
+        .queryParam("listen_id", listenId)
+        .queryParam("stream_type", "liveRadio")
+        .body(
+            """
+            {
+              "timeStamp": "%s",
+              "eventType": "%s",
+              "reason": "USER_SELECT_PLAYABLE",
+              "timeIntoTrack": %d
+            }
+            """
+                .formatted(timeStamp, eventType, timeIntoTrack))
+        .when()
+        .post("/bmx/tunein/v1/report")
+        .then()
+        .statusCode(200)
+        .body("nextReportIn", greaterThanOrEqualTo(1800));
+  }
+}
@@ -0,0 +1,78 @@
+package com.github.juliusd.ueberboeseapi.benchmark;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.FullAccountResponseApiDto;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Representative full account XML documents for benchmarks, derived from the test-data account.
+ *
+ * <p>{@link Size#TYPICAL} is the fixture as is (two speakers), {@link Size#SMALL} keeps only its
+ * first speaker and {@link Size#LARGE} holds 20 speakers cloned from the fixture.
+ */
+public final class AccountFixtures {
+
+  public enum Size {
+    SMALL("1000001", 1),
+    TYPICAL("6921042", 2),
+    LARGE("2000020", 20);
+
+    final String accountId;
+    final int devices;
+
+    Size(String accountId, int devices) {
+      this.accountId = accountId;
+      this.devices = devices;
+    }
+  }
+
+  private static final String FIXTURE = "/test-data/streaming-account-full-6921042.xml";
+
+  private AccountFixtures() {}
+
+  /** Returns the full account XML of the given size. */
+  static byte[] fullAccountXml(XmlMapper xmlMapper, Size size) {
+    try {
+      byte[] fixture = readFixture();
+      FullAccountResponseApiDto account =
+          xmlMapper.readValue(fixture, FullAccountResponseApiDto.class);
+      account.setId(size.accountId);
+
+      List<DeviceApiDto> templates = account.getDevices().getDevice();
+      List<DeviceApiDto> devices = new ArrayList<>(size.devices);
+      for (int i = 0; i < size.devices; i++) {
+        if (i < templates.size()) {
+          devices.add(templates.get(i));
+        } else {
+          // Deep copy of a fixture device via a fresh parse
+          DeviceApiDto copy =
+              xmlMapper
+                  .readValue(fixture, FullAccountResponseApiDto.class)
+                  .getDevices()
+                  .getDevice()
+                  .get(i % templates.size());
+          copy.setDeviceid("BENCH%05d".formatted(i));
+          devices.add(copy);
+        }
+      }
+      account.getDevices().setDevice(devices);
+      return xmlMapper.writeValueAsBytes(account);
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  private static byte[] readFixture() throws IOException {
+    try (InputStream in = AccountFixtures.class.getResourceAsStream(FIXTURE)) {
+      if (in == null) {
+        throw new IOException("Fixture not found: " + FIXTURE);
+      }
+      return in.readAllBytes();
+    }
+  }
+}
@@ -0,0 +1,72 @@
+package com.github.juliusd.ueberboeseapi.benchmark;
+
+import com.github.juliusd.ueberboeseapi.XmlMessageConverterConfig;
+import com.github.juliusd.ueberboeseapi.bmx.BmxService;
+import com.github.juliusd.ueberboeseapi.bmx.UeberboeseApiUrlProperties;
+import com.github.juliusd.ueberboeseapi.generated.dtos.BmxPlaybackResponseApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.BmxServicesResponseApiDto;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import tools.jackson.databind.json.JsonMapper;
+
+/** Serialization cost of the BMX responses with the JSON mapper of the HTTP message converter. */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BmxJsonBenchmark {
+
+  private JsonMapper jsonMapper;
+  private BmxServicesResponseApiDto services;
+  private BmxPlaybackResponseApiDto playback;
+  private byte[] playbackJson;
+
+  @Setup
+  public void setUp() {
+    jsonMapper = XmlMessageConverterConfig.createJsonMapper();
+    BmxService bmxService =
+        new BmxService(
+            null,
+            new UeberboeseApiUrlProperties("http://localhost:8080", Duration.ofMillis(1234567)),
+            null,
+            null);
+    services = bmxService.getBmxServices();
+    String stream =
+        """
+        {"streamUrl":"https://example.org/stream","imageUrl":"https://example.org/img.png","name":"Test Station"}
+        """;
+    playback =
+        bmxService.getCustomStreamPlayback(
+            Base64.getEncoder().encodeToString(stream.getBytes(StandardCharsets.UTF_8)));
+    playbackJson = jsonMapper.writeValueAsBytes(playback);
+  }
+
+  @Benchmark
+  public byte[] serializeServices() {
+    return jsonMapper.writeValueAsBytes(services);
+  }
+
+  @Benchmark
+  public byte[] serializePlayback() {
+    return jsonMapper.writeValueAsBytes(playback);
+  }
+
+  @Benchmark
+  public BmxPlaybackResponseApiDto parsePlayback() {
+    return jsonMapper.readValue(playbackJson, BmxPlaybackResponseApiDto.class);
+  }
+}
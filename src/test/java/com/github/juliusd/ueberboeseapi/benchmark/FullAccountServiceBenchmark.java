@@ -0,0 +1,141 @@
+package com.github.juliusd.ueberboeseapi.benchmark;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.github.juliusd.ueberboeseapi.UeberboeseApiApplication;
+import com.github.juliusd.ueberboeseapi.XmlMessageConverterConfig;
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.FullAccountResponseApiDto;
+import com.github.juliusd.ueberboeseapi.preset.Preset;
+import com.github.juliusd.ueberboeseapi.preset.PresetRepository;
+import com.github.juliusd.ueberboeseapi.recent.Recent;
+import com.github.juliusd.ueberboeseapi.recent.RecentRepository;
+import com.github.juliusd.ueberboeseapi.service.FullAccountService;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.util.FileSystemUtils;
+
+/**
+ * Cost of a {@code /full} request without HTTP: {@link FullAccountService} loading the stored
+ * account, overlaying recents and presets from the database and patching it, plus serializing the
+ * result. Runs against a Spring context with an in-memory database.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class FullAccountServiceBenchmark {
+
+  private static final int RECENTS_PER_DEVICE = 10;
+  private static final int PRESETS_PER_DEVICE = 6;
+
+  @Param({"SMALL", "TYPICAL", "LARGE"})
+  private AccountFixtures.Size size;
+
+  private Path dataDirectory;
+  private ConfigurableApplicationContext context;
+  private FullAccountService fullAccountService;
+  private XmlMapper xmlMapper;
+  private MockHttpServletRequest request;
+
+  @Setup
+  public void setUp() throws IOException {
+    XmlMapper fixtureMapper = new XmlMessageConverterConfig().customXmlMapper();
+    byte[] accountXml = AccountFixtures.fullAccountXml(fixtureMapper, size);
+    dataDirectory = Files.createTempDirectory("ueberboese-benchmark");
+    Files.write(
+        dataDirectory.resolve("streaming-account-full-%s.xml".formatted(size.accountId)),
+        accountXml);
+
+    context =
+        new SpringApplicationBuilder(UeberboeseApiApplication.class)
+            .run(
+                "--server.port=0",
+                "--management.server.port=0",
+                "--logging.level.root=WARN",
+                "--ueberboese.data-directory=" + dataDirectory,
+                "--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL;DB_CLOSE_DELAY=-1");
+    fullAccountService = context.getBean(FullAccountService.class);
+    xmlMapper = context.getBean("customXmlMapper", XmlMapper.class);
+    request =
+        new MockHttpServletRequest("GET", "/streaming/account/%s/full".formatted(size.accountId));
+
+    FullAccountResponseApiDto account =
+        fixtureMapper.readValue(accountXml, FullAccountResponseApiDto.class);
+    givenRecentsAndPresets(account);
+  }
+
+  @TearDown
+  public void tearDown() throws IOException {
+    context.close();
+    FileSystemUtils.deleteRecursively(dataDirectory);
+  }
+
+  @Benchmark
+  public FullAccountResponseApiDto overlayFullAccount() {
+    return fullAccountService.getFullAccount(size.accountId, request).orElseThrow();
+  }
+
+  @Benchmark
+  public byte[] fullAccountResponse() throws IOException {
+    return xmlMapper.writeValueAsBytes(
+        fullAccountService.getFullAccount(size.accountId, request).orElseThrow());
+  }
+
+  private void givenRecentsAndPresets(FullAccountResponseApiDto account) {
+    RecentRepository recentRepository = context.getBean(RecentRepository.class);
+    PresetRepository presetRepository = context.getBean(PresetRepository.class);
+    OffsetDateTime now = OffsetDateTime.now().withNano(0);
+
+    for (DeviceApiDto device : account.getDevices().getDevice()) {
+      for (int i = 0; i < RECENTS_PER_DEVICE; i++) {
+        recentRepository.save(
+            Recent.builder()
+                .accountId(size.accountId)
+                .deviceId(device.getDeviceid())
+                .name("Station " + i)
+                .location("/v1/playback/station/s%d-%s".formatted(80000 + i, device.getDeviceid()))
+                .sourceId("19989342")
+                .contentItemType("stationurl")
+                .lastPlayedAt(now.minusMinutes(i))
+                .createdOn(now.minusMinutes(i))
+                .updatedOn(now)
+                .build());
+      }
+      for (int button = 1; button <= PRESETS_PER_DEVICE; button++) {
+        presetRepository.save(
+            Preset.builder()
+                .accountId(size.accountId)
+                .deviceId(device.getDeviceid())
+                .buttonNumber(button)
+                .name("Preset " + button)
+                .location("/v1/playback/station/s%d".formatted(80040 + button))
+                .sourceId("19989342")
+                .contentItemType("stationurl")
+                .containerArt("http://example.org/s80044q.png")
+                .createdOn(now)
+                .updatedOn(now)
+                .build());
+      }
+    }
+  }
+}
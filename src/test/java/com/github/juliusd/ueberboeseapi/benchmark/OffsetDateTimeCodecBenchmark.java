@@ -0,0 +1,137 @@
+package com.github.juliusd.ueberboeseapi.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.fasterxml.jackson.dataformat.xml.ser.ToXmlGenerator;
+import com.github.juliusd.ueberboeseapi.XmlMessageConverterConfig;
+import com.github.juliusd.ueberboeseapi.generated.dtos.FullAccountResponseApiDto;
+import java.io.IOException;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Compares the {@code OffsetDateTime} codec of the {@code customXmlMapper} with the previous
+ * implementation, which created a formatter per date and parsed through {@link
+ * DateTimeFormatter#ISO_OFFSET_DATE_TIME}. Run with {@code -prof gc} to see the allocation rate.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class OffsetDateTimeCodecBenchmark {
+
+  private static final int DATES = 100;
+
+  public enum Codec {
+    LEGACY,
+    CURRENT
+  }
+
+  /** A document that is nothing but dates, to isolate the codec from the rest of the mapping. */
+  public record Dates(List<OffsetDateTime> date) {}
+
+  @Param({"LEGACY", "CURRENT"})
+  private Codec codec;
+
+  private XmlMapper xmlMapper;
+  private Dates dates;
+  private byte[] datesXml;
+  private FullAccountResponseApiDto fullAccount;
+  private byte[] fullAccountXml;
+
+  @Setup
+  public void setUp() throws IOException {
+    XmlMapper currentMapper = new XmlMessageConverterConfig().customXmlMapper();
+    xmlMapper = codec == Codec.CURRENT ? currentMapper : legacyXmlMapper();
+
+    OffsetDateTime start = OffsetDateTime.of(2025, 1, 1, 0, 0, 0, 0, ZoneOffset.UTC);
+    List<OffsetDateTime> values = new ArrayList<>(DATES);
+    for (int i = 0; i < DATES; i++) {
+      values.add(start.plusSeconds(i * 7919L).plusNanos(i * 1_000_000L));
+    }
+    dates = new Dates(values);
+    datesXml = xmlMapper.writeValueAsBytes(dates);
+
+    fullAccountXml = AccountFixtures.fullAccountXml(currentMapper, AccountFixtures.Size.LARGE);
+    fullAccount = xmlMapper.readValue(fullAccountXml, FullAccountResponseApiDto.class);
+  }
+
+  @Benchmark
+  public byte[] serializeDates() throws IOException {
+    return xmlMapper.writeValueAsBytes(dates);
+  }
+
+  @Benchmark
+  public Dates parseDates() throws IOException {
+    return xmlMapper.readValue(datesXml, Dates.class);
+  }
+
+  @Benchmark
+  public byte[] serializeFullAccount() throws IOException {
+    return xmlMapper.writeValueAsBytes(fullAccount);
+  }
+
+  @Benchmark
+  public FullAccountResponseApiDto parseFullAccount() throws IOException {
+    return xmlMapper.readValue(fullAccountXml, FullAccountResponseApiDto.class);
+  }
+
+  /** The {@code customXmlMapper} as it was before the allocation-free codec. */
+  private static XmlMapper legacyXmlMapper() {
+    SimpleModule module = new SimpleModule("LegacyOffsetDateTimeModule");
+    module.addSerializer(
+        OffsetDateTime.class,
+        new JsonSerializer<>() {
+          @Override
+          public void serialize(
+              OffsetDateTime value, JsonGenerator gen, SerializerProvider serializers)
+              throws IOException {
+            DateTimeFormatter formatter = DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ss.SSS");
+            String formattedDate = value.format(formatter);
+            String timezone =
+                value.getOffset().toString().equals("Z") ? "+00:00" : value.getOffset().toString();
+            gen.writeString(formattedDate + timezone);
+          }
+        });
+    module.addDeserializer(
+        OffsetDateTime.class,
+        new JsonDeserializer<>() {
+          @Override
+          public OffsetDateTime deserialize(JsonParser p, DeserializationContext ctxt)
+              throws IOException {
+            return OffsetDateTime.parse(p.getText(), DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+          }
+        });
+
+    XmlMapper xmlMapper = new XmlMapper();
+    xmlMapper.enable(ToXmlGenerator.Feature.WRITE_XML_DECLARATION);
+    xmlMapper.enable(ToXmlGenerator.Feature.WRITE_STANDALONE_YES_TO_XML_DECLARATION);
+    xmlMapper.disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    xmlMapper.registerModule(module);
+    return xmlMapper;
+  }
+}
@@ -0,0 +1,88 @@
+package com.github.juliusd.ueberboeseapi.benchmark;
+
+import com.fasterxml.jackson.dataformat.xml.XmlMapper;
+import com.github.juliusd.ueberboeseapi.XmlMessageConverterConfig;
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.FullAccountResponseApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.PresetsContainerApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.RecentsContainerApiDto;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Parse and serialize cost of the Bose streaming XML documents with the {@code customXmlMapper}
+ * used by the HTTP message converter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@State(Scope.Benchmark)
+public class XmlSerializationBenchmark {
+
+  @Param({"SMALL", "TYPICAL", "LARGE"})
+  private AccountFixtures.Size size;
+
+  private XmlMapper xmlMapper;
+  private byte[] fullAccountXml;
+  private FullAccountResponseApiDto fullAccount;
+  private byte[] presetsXml;
+  private PresetsContainerApiDto presets;
+  private byte[] recentsXml;
+  private RecentsContainerApiDto recents;
+
+  @Setup
+  public void setUp() throws IOException {
+    xmlMapper = new XmlMessageConverterConfig().customXmlMapper();
+    fullAccountXml = AccountFixtures.fullAccountXml(xmlMapper, size);
+    fullAccount = xmlMapper.readValue(fullAccountXml, FullAccountResponseApiDto.class);
+
+    DeviceApiDto device = fullAccount.getDevices().getDevice().getFirst();
+    presets = device.getPresets();
+    presetsXml = xmlMapper.writeValueAsBytes(presets);
+    recents = device.getRecents();
+    recentsXml = xmlMapper.writeValueAsBytes(recents);
+  }
+
+  @Benchmark
+  public FullAccountResponseApiDto parseFullAccount() throws IOException {
+    return xmlMapper.readValue(fullAccountXml, FullAccountResponseApiDto.class);
+  }
+
+  @Benchmark
+  public byte[] serializeFullAccount() throws IOException {
+    return xmlMapper.writeValueAsBytes(fullAccount);
+  }
+
+  @Benchmark
+  public PresetsContainerApiDto parsePresets() throws IOException {
+    return xmlMapper.readValue(presetsXml, PresetsContainerApiDto.class);
+  }
+
+  @Benchmark
+  public byte[] serializePresets() throws IOException {
+    return xmlMapper.writeValueAsBytes(presets);
+  }
+
+  @Benchmark
+  public RecentsContainerApiDto parseRecents() throws IOException {
+    return xmlMapper.readValue(recentsXml, RecentsContainerApiDto.class);
+  }
+
+  @Benchmark
+  public byte[] serializeRecents() throws IOException {
+    return xmlMapper.writeValueAsBytes(recents);
+  }
+}
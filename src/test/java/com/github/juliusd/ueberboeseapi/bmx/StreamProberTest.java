@@ -0,0 +1,136 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class StreamProberTest {
+
+  private static WireMockServer wireMockServer;
+
+  private StreamProber streamProber;
+
+  @BeforeAll
+  static void setupWireMock() {
+    wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort());
+    wireMockServer.start();
+  }
+
+  @AfterAll
+  static void teardownWireMock() {
+    if (wireMockServer != null) {
+      wireMockServer.stop();
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    wireMockServer.resetAll();
+    stubStream("/fast", 0);
+    stubStream("/slow", 300);
+    stubStream("/very-slow", 3000);
+    wireMockServer.stubFor(get(urlEqualTo("/dead")).willReturn(aResponse().withStatus(503)));
+    wireMockServer.stubFor(
+        get(urlEqualTo("/html"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "text/html")
+                    .withBody("<html>Station moved</html>")));
+    streamProber =
+        new StreamProber(properties(true, Duration.ofSeconds(2)), new SimpleMeterRegistry());
+  }
+
+  @Test
+  void rank_shouldPutFastestHealthyStreamFirst() {
+    List<String> ranked = streamProber.rank(urls("/dead", "/slow", "/html", "/fast"));
+
+    assertThat(ranked).containsExactlyElementsOf(urls("/fast", "/slow", "/dead", "/html"));
+  }
+
+  @Test
+  void rank_shouldReuseCachedResults() {
+    streamProber.rank(urls("/slow", "/fast"));
+    List<String> ranked = streamProber.rank(urls("/slow", "/fast"));
+
+    assertThat(ranked).containsExactlyElementsOf(urls("/fast", "/slow"));
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/fast")));
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/slow")));
+  }
+
+  @Test
+  void rank_shouldNotWaitLongerThanBudget() {
+    streamProber =
+        new StreamProber(properties(true, Duration.ofMillis(200)), new SimpleMeterRegistry());
+
+    long start = System.nanoTime();
+    List<String> ranked = streamProber.rank(urls("/very-slow", "/dead", "/fast"));
+
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1500));
+    assertThat(ranked).containsExactlyElementsOf(urls("/fast", "/very-slow", "/dead"));
+  }
+
+  @Test
+  void rank_shouldOnlyProbeMaxCandidates() {
+    List<String> ranked = streamProber.rank(urls("/dead", "/html", "/slow", "/dead?2", "/fast"));
+
+    // The fifth URL is beyond max-candidates and keeps its place behind the unprobed ones
+    assertThat(ranked.getFirst()).isEqualTo(url("/slow"));
+    assertThat(ranked.get(1)).isEqualTo(url("/fast"));
+    wireMockServer.verify(0, getRequestedFor(urlEqualTo("/fast")));
+  }
+
+  @Test
+  void rank_shouldKeepOrderWhenDisabled() {
+    streamProber =
+        new StreamProber(properties(false, Duration.ofSeconds(2)), new SimpleMeterRegistry());
+
+    List<String> ranked = streamProber.rank(urls("/dead", "/fast"));
+
+    assertThat(ranked).containsExactlyElementsOf(urls("/dead", "/fast"));
+    assertThat(wireMockServer.getAllServeEvents()).isEmpty();
+  }
+
+  private static void stubStream(String path, int delayMillis) {
+    wireMockServer.stubFor(
+        get(urlEqualTo(path))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withHeader("Content-Type", "audio/mpeg")
+                    .withFixedDelay(delayMillis)
+                    .withBody(new byte[] {(byte) 0xFF, (byte) 0xFB, 0x10, 0x00})));
+  }
+
+  private static StreamProbeProperties properties(boolean enabled, Duration budget) {
+    return new StreamProbeProperties(
+        enabled,
+        budget,
+        Duration.ofSeconds(5),
+        4,
+        Duration.ofMinutes(10),
+        Duration.ofMinutes(1),
+        100);
+  }
+
+  private static List<String> urls(String... paths) {
+    return Arrays.stream(paths).map(StreamProberTest::url).toList();
+  }
+
+  private static String url(String path) {
+    return wireMockServer.baseUrl() + path;
+  }
+}
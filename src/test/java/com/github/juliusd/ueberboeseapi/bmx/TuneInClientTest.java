@@ -0,0 +1,144 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.WireMock;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class TuneInClientTest extends TestBase {
+
+  // language=XML
+  private static final String DESCRIBE_RESPONSE =
+      """
+      <?xml version="1.0" encoding="UTF-8"?>
+      <opml version="1">
+        <body>
+          <outline type="object">
+            <station>
+              <name>Radio name</name>
+              <logo>https://cdn-radiotime-logos.tunein.com/s80044q.png</logo>
+            </station>
+          </outline>
+        </body>
+      </opml>""";
+
+  private static WireMockServer wireMockServer;
+
+  @Autowired private MeterRegistry meterRegistry;
+
+  @BeforeAll
+  static void setupWireMock() {
+    wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8889));
+    wireMockServer.start();
+  }
+
+  @AfterAll
+  static void teardownWireMock() {
+    if (wireMockServer != null) {
+      wireMockServer.stop();
+    }
+  }
+
+  @BeforeEach
+  void resetWireMock() {
+    wireMockServer.resetAll();
+  }
+
+  @Test
+  void getStationMetadata_shouldAnswerRepeatedLookupsFromCache() {
+    // Given
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/describe.ashx?id=s80044"))
+            .willReturn(aResponse().withStatus(200).withBody(DESCRIBE_RESPONSE)));
+    double hitsBefore = cacheGets("tunein.metadata", "hit");
+
+    // When
+    TuneInClient.StationMetadata first = tuneInClient.getStationMetadata("s80044");
+    TuneInClient.StationMetadata second = tuneInClient.getStationMetadata("s80044");
+
+    // Then
+    assertThat(first.getName()).isEqualTo("Radio name");
+    assertThat(second).isEqualTo(first);
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/describe.ashx?id=s80044")));
+    assertThat(cacheGets("tunein.metadata", "hit")).isEqualTo(hitsBefore + 1);
+  }
+
+  @Test
+  void getStreamUrls_shouldBeCachedSeparatelyFromMetadata() {
+    // Given
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/Tune.ashx?id=s80044"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody("https://stream.example.com/a\n\nhttps://stream.example.com/b\n")));
+
+    // When
+    tuneInClient.getStreamUrls("s80044");
+    var streamUrls = tuneInClient.getStreamUrls("s80044");
+
+    // Then
+    assertThat(streamUrls)
+        .containsExactly("https://stream.example.com/a", "https://stream.example.com/b");
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Tune.ashx?id=s80044")));
+    wireMockServer.verify(0, getRequestedFor(urlEqualTo("/describe.ashx?id=s80044")));
+  }
+
+  @Test
+  void getStationMetadata_shouldCacheFailures() {
+    // Given
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/describe.ashx?id=s99999"))
+            .willReturn(aResponse().withStatus(503)));
+
+    // When / Then
+    assertThatThrownBy(() -> tuneInClient.getStationMetadata("s99999"))
+        .hasMessage("Failed to fetch TuneIn station metadata");
+    assertThatThrownBy(() -> tuneInClient.getStationMetadata("s99999"))
+        .hasMessage("Failed to fetch TuneIn station metadata");
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/describe.ashx?id=s99999")));
+    assertThat(
+            meterRegistry
+                .counter("ueberboese.tunein.requests", "endpoint", "describe", "outcome", "failure")
+                .count())
+        .isPositive();
+  }
+
+  @Test
+  void invalidateCache_shouldFetchAgain() {
+    // Given
+    wireMockServer.stubFor(
+        WireMock.get(urlEqualTo("/describe.ashx?id=s80044"))
+            .willReturn(aResponse().withStatus(200).withBody(DESCRIBE_RESPONSE)));
+    tuneInClient.getStationMetadata("s80044");
+
+    // When
+    tuneInClient.invalidateCache();
+    tuneInClient.getStationMetadata("s80044");
+
+    // Then
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/describe.ashx?id=s80044")));
+  }
+
+  private double cacheGets(String cache, String result) {
+    var counter =
+        meterRegistry
+            .find("cache.gets")
+            .tag("cache", cache)
+            .tag("result", result)
+            .functionCounter();
+    return counter != null ? counter.count() : 0;
+  }
+}
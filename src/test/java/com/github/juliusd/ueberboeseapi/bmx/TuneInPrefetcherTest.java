@@ -0,0 +1,133 @@
+package com.github.juliusd.ueberboeseapi.bmx;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import com.github.juliusd.ueberboeseapi.preset.Preset;
+import com.github.juliusd.ueberboeseapi.recent.Recent;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import java.time.OffsetDateTime;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class TuneInPrefetcherTest extends TestBase {
+
+  private static WireMockServer wireMockServer;
+
+  @Autowired private TuneInPrefetcher tuneInPrefetcher;
+
+  @BeforeAll
+  static void setupWireMock() {
+    wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().port(8889));
+    wireMockServer.start();
+  }
+
+  @AfterAll
+  static void teardownWireMock() {
+    if (wireMockServer != null) {
+      wireMockServer.stop();
+    }
+  }
+
+  @BeforeEach
+  void resetWireMock() {
+    wireMockServer.resetAll();
+    wireMockServer.stubFor(
+        get(urlPathEqualTo("/describe.ashx"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody(
+                        "<opml><body><outline><station><name>Radio</name></station></outline></body></opml>")));
+    wireMockServer.stubFor(
+        get(urlPathEqualTo("/Tune.ashx"))
+            .willReturn(aResponse().withStatus(200).withBody("https://stream.example.com/radio")));
+  }
+
+  @Test
+  void prefetch_shouldWarmCacheForPresetsAndRecentRecents() throws Exception {
+    // Given
+    OffsetDateTime now = OffsetDateTime.now();
+    presetRepository.save(preset(1, "/v1/playback/station/s80044"));
+    presetRepository.save(preset(2, "/v1/playback/station/s80044"));
+    recentRepository.save(recent("/v1/playback/station/s80045", now.minusHours(1)));
+    recentRepository.save(recent("/v1/playback/station/s80046", now.minusDays(30)));
+    recentRepository.save(recent("/playback/container/c3BvdGlmeTphbGJ1bQ==", now));
+
+    // When
+    tuneInPrefetcher.prefetch().get(10, TimeUnit.SECONDS);
+
+    // Then
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/describe.ashx?id=s80044")));
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/Tune.ashx?id=s80044")));
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/describe.ashx?id=s80045")));
+    wireMockServer.verify(0, getRequestedFor(urlEqualTo("/describe.ashx?id=s80046")));
+    assertThat(wireMockServer.getAllServeEvents()).hasSize(4);
+
+    // A preset press is now answered from the cache
+    assertThat(tuneInClient.getStationMetadata("s80044").getName()).isEqualTo("Radio");
+    assertThat(tuneInClient.getStreamUrls("s80045"))
+        .containsExactly("https://stream.example.com/radio");
+    assertThat(wireMockServer.getAllServeEvents()).hasSize(4);
+  }
+
+  @Test
+  void prefetch_shouldKeepCachedValuesWhenTuneInFails() throws Exception {
+    // Given
+    presetRepository.save(preset(1, "/v1/playback/station/s80044"));
+    tuneInPrefetcher.prefetch().get(10, TimeUnit.SECONDS);
+    wireMockServer.resetAll();
+    wireMockServer.stubFor(
+        get(urlPathEqualTo("/describe.ashx")).willReturn(aResponse().withStatus(503)));
+    wireMockServer.stubFor(
+        get(urlPathEqualTo("/Tune.ashx")).willReturn(aResponse().withStatus(503)));
+
+    // When
+    tuneInPrefetcher.prefetch().get(10, TimeUnit.SECONDS);
+
+    // Then
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/describe.ashx?id=s80044")));
+    assertThat(tuneInClient.getStationMetadata("s80044").getName()).isEqualTo("Radio");
+    assertThat(tuneInClient.getStreamUrls("s80044"))
+        .containsExactly("https://stream.example.com/radio");
+  }
+
+  private static Preset preset(int buttonNumber, String location) {
+    OffsetDateTime now = OffsetDateTime.now();
+    return Preset.builder()
+        .accountId("6921042")
+        .deviceId("587A628A4042")
+        .buttonNumber(buttonNumber)
+        .name("Preset " + buttonNumber)
+        .location(location)
+        .sourceId("19989342")
+        .contentItemType("stationurl")
+        .createdOn(now)
+        .updatedOn(now)
+        .build();
+  }
+
+  private static Recent recent(String location, OffsetDateTime lastPlayedAt) {
+    return Recent.builder()
+        .accountId("6921042")
+        .deviceId("587A628A4042")
+        .name("Recent")
+        .location(location)
+        .sourceId("19989342")
+        .contentItemType("stationurl")
+        .lastPlayedAt(lastPlayedAt)
+        .createdOn(lastPlayedAt)
+        .updatedOn(lastPlayedAt)
+        .build();
+  }
+}
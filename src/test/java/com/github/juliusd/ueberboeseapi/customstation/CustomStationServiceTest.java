@@ -0,0 +1,58 @@
+package com.github.juliusd.ueberboeseapi.customstation;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import com.github.juliusd.ueberboeseapi.generated.dtos.BmxPlaybackResponseApiDto;
+import com.github.juliusd.ueberboeseapi.generated.mgmt.dtos.CustomStationImportApiDto;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class CustomStationServiceTest extends TestBase {
+
+  private static final String STREAM_URL = "https://stream.example.com/a.mp3";
+
+  @Autowired private CustomStationService customStationService;
+  @Autowired private PlatformTransactionManager transactionManager;
+
+  @Test
+  void importStations_shouldNotKeepPlaybackCachedByConcurrentReadBeforeCommit() {
+    // Given
+    String stationId =
+        customStationService.importStations(List.of(station("Radio A"))).getFirst().id();
+
+    // When: another request loads the station while the rename is not committed yet
+    new TransactionTemplate(transactionManager)
+        .executeWithoutResult(
+            status -> {
+              customStationService.importStations(List.of(station("Radio A renamed")));
+              String nameSeenConcurrently =
+                  CompletableFuture.supplyAsync(() -> playbackName(stationId))
+                      .orTimeout(10, TimeUnit.SECONDS)
+                      .join();
+              assertThat(nameSeenConcurrently).isEqualTo("Radio A");
+            });
+
+    // Then
+    assertThat(playbackName(stationId)).isEqualTo("Radio A renamed");
+  }
+
+  private String playbackName(String stationId) {
+    return customStationService
+        .getPlayback(stationId)
+        .map(BmxPlaybackResponseApiDto::getName)
+        .orElseThrow();
+  }
+
+  private static CustomStationImportApiDto station(String name) {
+    CustomStationImportApiDto station = new CustomStationImportApiDto();
+    station.setName(name);
+    station.setStreamUrl(STREAM_URL);
+    return station;
+  }
+}
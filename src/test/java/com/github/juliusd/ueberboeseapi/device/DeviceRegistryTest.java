@@ -0,0 +1,99 @@
+package com.github.juliusd.ueberboeseapi.device;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import java.time.OffsetDateTime;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.transaction.support.TransactionTemplate;
+
+class DeviceRegistryTest extends TestBase {
+
+  @Autowired private DeviceService deviceService;
+  @Autowired private TransactionTemplate transactionTemplate;
+
+  @Test
+  void findByAccount_shouldFollowPairAndUnpair() {
+    // Given: the registry is loaded before the devices are paired
+    assertThat(deviceRegistry.findAll()).isEmpty();
+
+    // When
+    deviceService.pairDevice("6921042", "DEVICE_A", "Kitchen");
+    deviceService.pairDevice("6921042", "DEVICE_B", "Living Room");
+    deviceService.unpairDevice("DEVICE_A");
+
+    // Then
+    assertThat(deviceRegistry.findByAccount("6921042"))
+        .extracting(Device::deviceId)
+        .containsExactly("DEVICE_B");
+    assertThat(deviceRegistry.findByAccount(DeviceService.UN_PAIRED))
+        .extracting(Device::deviceId)
+        .containsExactly("DEVICE_A");
+  }
+
+  @Test
+  void findByAccount_shouldIgnorePairingThatIsRolledBack() {
+    // Given
+    assertThat(deviceRegistry.findAll()).isEmpty();
+
+    // When
+    transactionTemplate.executeWithoutResult(
+        status -> {
+          deviceService.pairDevice("6921042", "DEVICE_A", "Kitchen");
+          status.setRollbackOnly();
+        });
+
+    // Then
+    assertThat(deviceRegistry.findByAccount("6921042")).isEmpty();
+    assertThat(deviceRegistry.findById("DEVICE_A")).isEmpty();
+  }
+
+  @Test
+  void findAll_shouldOrderByLastSeenAfterBulkUpdate() {
+    // Given
+    var now = OffsetDateTime.now().withNano(0);
+    deviceRepository.save(device("DEVICE_A", now.minusHours(2)));
+    deviceRepository.save(device("DEVICE_B", now.minusHours(1)));
+    assertThat(deviceRegistry.findAll())
+        .extracting(Device::deviceId)
+        .containsExactly("DEVICE_B", "DEVICE_A");
+
+    // When
+    deviceRepository.updateLastSeen(now, List.of("DEVICE_A"));
+    deviceRegistry.updateLastSeen(List.of("DEVICE_A"), now);
+
+    // Then
+    assertThat(deviceRegistry.findAll())
+        .extracting(Device::deviceId)
+        .containsExactly("DEVICE_A", "DEVICE_B");
+    assertThat(deviceRegistry.findById("DEVICE_A").orElseThrow().lastSeen()).isEqualTo(now);
+  }
+
+  @Test
+  void findById_shouldForgetDeletedDevices() {
+    // Given
+    var now = OffsetDateTime.now().withNano(0);
+    deviceRepository.save(device("DEVICE_A", now));
+    assertThat(deviceRegistry.findById("DEVICE_A")).isPresent();
+
+    // When
+    deviceRepository.deleteById("DEVICE_A");
+
+    // Then
+    assertThat(deviceRegistry.findById("DEVICE_A")).isEmpty();
+    assertThat(deviceRegistry.findAll()).isEmpty();
+  }
+
+  private static Device device(String deviceId, OffsetDateTime lastSeen) {
+    return Device.builder()
+        .deviceId(deviceId)
+        .ipAddress("192.168.1.100")
+        .margeAccountId("6921042")
+        .firstSeen(lastSeen)
+        .lastSeen(lastSeen)
+        .updatedOn(lastSeen)
+        .build();
+  }
+}
@@ -0,0 +1,106 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.Test;
+
+class DeviceStateProjectorTest {
+
+  private static final Instant BASE = Instant.parse("2026-01-09T08:00:00Z");
+
+  private final DeviceStateProjector projector = new DeviceStateProjector();
+
+  @Test
+  void onDeviceEvents_shouldFoldEventsIntoState() {
+    // When
+    projector.onDeviceEvents(
+        List.of(
+            event(1, "source-state-changed", Map.of("source-state", "SPOTIFY")),
+            event(2, "play-state-changed", Map.of("play-state", "PLAY_STATE")),
+            event(3, "volume-change", Map.of("volume", 25)),
+            event(4, "preset-pressed", Map.of("preset", "3")),
+            event(5, "masterdevice-changed", Map.of("masterdevice", "MASTER01")),
+            event(6, "art-changed", Map.of("art-status", "SHOW_DEFAULT_IMAGE", "art-uri", ""))));
+
+    // Then
+    DeviceState state = projector.getState("DEVICE1").orElseThrow();
+    assertThat(state.source()).isEqualTo("SPOTIFY");
+    assertThat(state.playState()).isEqualTo("PLAY_STATE");
+    assertThat(state.volume()).isEqualTo(25);
+    assertThat(state.lastPreset()).isEqualTo("3");
+    assertThat(state.masterDevice()).isEqualTo("MASTER01");
+    assertThat(state.lastEventSequence()).isEqualTo(6);
+    assertThat(state.updatedAt()).isEqualTo(BASE.plusSeconds(6));
+  }
+
+  @Test
+  void onDeviceEvents_shouldKeepLatestValue() {
+    // When
+    projector.onDeviceEvents(
+        List.of(
+            event(1, "play-state-changed", Map.of("play-state", "PLAY_STATE")),
+            event(2, "play-state-changed", Map.of("play-state", "STOP_STATE"))));
+
+    // Then
+    assertThat(projector.getState("DEVICE1").orElseThrow().playState()).isEqualTo("STOP_STATE");
+  }
+
+  @Test
+  void onDeviceEvents_shouldIgnoreEventsOvertakenByLaterOnes() {
+    // When
+    projector.onDeviceEvents(
+        List.of(event(2, "play-state-changed", Map.of("play-state", "STOP_STATE"))));
+    projector.onDeviceEvents(
+        List.of(event(1, "play-state-changed", Map.of("play-state", "PLAY_STATE"))));
+
+    // Then
+    assertThat(projector.getState("DEVICE1").orElseThrow().playState()).isEqualTo("STOP_STATE");
+  }
+
+  @Test
+  void onDeviceEvents_shouldIgnoreValuesUnderUnknownKeys() {
+    // When
+    projector.onDeviceEvents(
+        List.of(
+            event(1, "play-state-changed", Map.of("state", "PLAY_STATE")),
+            event(2, "volume-changed", Map.of("level", 30))));
+
+    // Then
+    DeviceState state = projector.getState("DEVICE1").orElseThrow();
+    assertThat(state.playState()).isNull();
+    assertThat(state.volume()).isNull();
+    assertThat(state.lastEventSequence()).isEqualTo(2);
+  }
+
+  @Test
+  void onDeviceEvicted_shouldForgetState() {
+    // Given
+    projector.onDeviceEvents(
+        List.of(event(1, "play-state-changed", Map.of("play-state", "PLAY_STATE"))));
+
+    // When
+    projector.onDeviceEvicted("DEVICE1");
+
+    // Then
+    assertThat(projector.getState("DEVICE1")).isEmpty();
+  }
+
+  @Test
+  void getState_shouldBeEmptyForUnknownDevice() {
+    assertThat(projector.getState("UNKNOWN")).isEmpty();
+  }
+
+  private static StoredDeviceEvent event(long sequence, String type, Map<String, Object> data) {
+    DeviceEventApiDto event = new DeviceEventApiDto();
+    event.setType(type);
+    event.setData(data);
+    event.setTime(OffsetDateTime.ofInstant(BASE.plusSeconds(sequence), ZoneOffset.UTC));
+    return new StoredDeviceEvent(sequence, "DEVICE1", Instant.now(), event);
+  }
+}
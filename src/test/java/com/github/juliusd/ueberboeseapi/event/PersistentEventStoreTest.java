@@ -0,0 +1,235 @@
+package com.github.juliusd.ueberboeseapi.event;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.DataDirectoryProperties;
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.util.unit.DataSize;
+
+class PersistentEventStoreTest {
+
+  // Recent enough to stay within the retention period
+  private static final Instant BASE =
+      Instant.now().minus(Duration.ofDays(1)).truncatedTo(ChronoUnit.HOURS);
+
+  @TempDir Path tempDir;
+
+  @Test
+  void query_shouldReturnPersistedEventsAfterRestart() throws Exception {
+    // Given
+    PersistentEventStore store = createStore();
+    store.onDeviceEvents(
+        List.of(
+            event(1, "DEVICE1", BASE, "play-state-changed", Map.of("play-state", "PLAY_STATE")),
+            event(2, "DEVICE2", BASE.plusSeconds(1), "volume-changed", Map.of("volume", 20)),
+            event(3, "DEVICE1", BASE.plusSeconds(2), "power-state-changed", Map.of())));
+    store.close();
+
+    // When
+    PersistentEventStore reopened = createStore();
+    List<StoredDeviceEvent> result = reopened.query("DEVICE1", null, null, 100);
+    reopened.close();
+
+    // Then
+    assertThat(result).extracting(StoredDeviceEvent::sequence).containsExactly(1L, 3L);
+    StoredDeviceEvent first = result.getFirst();
+    assertThat(first.deviceId()).isEqualTo("DEVICE1");
+    assertThat(first.event().getType()).isEqualTo("play-state-changed");
+    assertThat(first.event().getData()).containsEntry("play-state", "PLAY_STATE");
+    assertThat(first.event().getMonoTime()).isEqualTo(1);
+    assertThat(first.event().getTime()).isEqualTo(OffsetDateTime.ofInstant(BASE, ZoneOffset.UTC));
+  }
+
+  @Test
+  void query_shouldFilterByEventTimeAndApplyLimit() throws Exception {
+    // Given
+    PersistentEventStore store = createStore();
+    for (int i = 0; i < 10; i++) {
+      store.onDeviceEvents(
+          List.of(event(i, "DEVICE1", BASE.plus(Duration.ofMinutes(i * 30)), "tick", Map.of())));
+    }
+    store.close();
+
+    // When
+    List<StoredDeviceEvent> range =
+        store.query("DEVICE1", BASE.plus(Duration.ofHours(1)), BASE.plus(Duration.ofHours(3)), 100);
+    List<StoredDeviceEvent> limited = store.query("DEVICE1", null, null, 3);
+
+    // Then
+    assertThat(range).extracting(StoredDeviceEvent::sequence).containsExactly(2L, 3L, 4L, 5L);
+    assertThat(limited).extracting(StoredDeviceEvent::sequence).containsExactly(0L, 1L, 2L);
+  }
+
+  @Test
+  void scanAfter_shouldStreamEventsAfterCursor() throws Exception {
+    // Given
+    PersistentEventStore store = createStore();
+    store.onDeviceEvents(
+        List.of(
+            event(10, "DEVICE1", BASE, "a", Map.of()),
+            event(11, "DEVICE2", BASE.plusSeconds(1), "b", Map.of()),
+            event(12, "DEVICE1", BASE.plusSeconds(2), "c", Map.of())));
+    store.close();
+
+    // When
+    List<Long> all = new ArrayList<>();
+    store.scanAfter(null, 10, Long.MAX_VALUE, stored -> all.add(stored.sequence()));
+    List<Long> device1 = new ArrayList<>();
+    store.scanAfter(
+        "DEVICE1", Long.MIN_VALUE, Long.MAX_VALUE, stored -> device1.add(stored.sequence()));
+
+    // Then
+    assertThat(all).containsExactly(11L, 12L);
+    assertThat(device1).containsExactly(10L, 12L);
+  }
+
+  @Test
+  void scanAfter_shouldStopAtUpperBound() throws Exception {
+    // Given
+    PersistentEventStore store = createStore();
+    store.onDeviceEvents(
+        List.of(
+            event(10, "DEVICE1", BASE, "a", Map.of()),
+            event(11, "DEVICE1", BASE.plusSeconds(1), "b", Map.of()),
+            event(12, "DEVICE1", BASE.plusSeconds(2), "c", Map.of())));
+    store.close();
+
+    // When
+    List<Long> sequences = new ArrayList<>();
+    store.scanAfter(null, Long.MIN_VALUE, 11, stored -> sequences.add(stored.sequence()));
+
+    // Then
+    assertThat(sequences).containsExactly(10L, 11L);
+    assertThat(store.writtenSequence(12)).isEqualTo(12);
+  }
+
+  @Test
+  void scanAfter_shouldFindEventsWhoseSequenceRanAheadOfTheirSegment() throws Exception {
+    // Given: under load the sequence drifts past the time window the event was received in
+    long drifted = BASE.plus(Duration.ofHours(3)).toEpochMilli() * 1_000;
+    PersistentEventStore store = createStore();
+    store.onDeviceEvents(
+        List.of(
+            event(drifted, "DEVICE1", BASE, "drifted", Map.of()),
+            event(drifted + 1, "DEVICE1", BASE.plus(Duration.ofHours(3)), "later", Map.of())));
+    store.close();
+
+    // When
+    PersistentEventStore reopened = createStore();
+    List<String> types = new ArrayList<>();
+    reopened.scanAfter(
+        null, drifted - 1, Long.MAX_VALUE, stored -> types.add(stored.event().getType()));
+    reopened.close();
+
+    // Then
+    assertThat(types).containsExactly("drifted", "later");
+  }
+
+  @Test
+  void onDeviceEvents_shouldRecoverFromTornRecord() throws Exception {
+    // Given: a segment whose last record was cut off by a crash
+    PersistentEventStore store = createStore();
+    store.onDeviceEvents(List.of(event(1, "DEVICE1", BASE, "first", Map.of())));
+    store.close();
+    Path segment = singleSegment();
+    Files.write(segment, new byte[] {0, 0, 0, 42, 1, 2, 3}, StandardOpenOption.APPEND);
+
+    // When
+    PersistentEventStore reopened = createStore();
+    reopened.onDeviceEvents(List.of(event(2, "DEVICE1", BASE.plusSeconds(1), "second", Map.of())));
+    reopened.close();
+
+    // Then
+    assertThat(reopened.query("DEVICE1", null, null, 100))
+        .extracting(stored -> stored.event().getType())
+        .containsExactly("first", "second");
+  }
+
+  @Test
+  void onDeviceEvents_shouldSkipEventsTooLargeToBeRead() throws Exception {
+    // Given
+    PersistentEventStore store = createStore();
+    String huge = "x".repeat(EventRecordCodec.MAX_PAYLOAD_SIZE);
+
+    // When
+    store.onDeviceEvents(
+        List.of(
+            event(1, "DEVICE1", BASE, "first", Map.of()),
+            event(2, "DEVICE1", BASE.plusSeconds(1), "huge", Map.of("value", huge)),
+            event(3, "DEVICE1", BASE.plusSeconds(2), "third", Map.of())));
+    store.close();
+
+    // Then: the oversized event does not end the segment for the events after it
+    PersistentEventStore reopened = createStore();
+    assertThat(reopened.query("DEVICE1", null, null, 100))
+        .extracting(stored -> stored.event().getType())
+        .containsExactly("first", "third");
+    assertThat(store.getDroppedEventCount()).isEqualTo(1);
+    reopened.close();
+  }
+
+  @Test
+  void onDeviceEvents_shouldDeleteSegmentsOlderThanRetention() throws Exception {
+    // Given: an event received long before the retention period
+    PersistentEventStore store = createStore();
+    Instant longAgo = Instant.now().minus(Duration.ofDays(60));
+    store.onDeviceEvents(List.of(event(1, "DEVICE1", longAgo, "old", Map.of())));
+    store.close();
+    assertThat(singleSegment()).exists();
+
+    // When: a new event is written, which triggers the retention check
+    PersistentEventStore reopened = createStore();
+    reopened.onDeviceEvents(List.of(event(2, "DEVICE1", Instant.now(), "new", Map.of())));
+    reopened.close();
+
+    // Then
+    assertThat(reopened.query("DEVICE1", null, null, 100))
+        .extracting(stored -> stored.event().getType())
+        .containsExactly("new");
+  }
+
+  private PersistentEventStore createStore() throws Exception {
+    EventStoreProperties properties =
+        new EventStoreProperties(
+            true,
+            Duration.ofHours(1),
+            Duration.ofDays(30),
+            DataSize.ofMegabytes(16),
+            64,
+            Duration.ofMillis(10),
+            1000);
+    return new PersistentEventStore(properties, new DataDirectoryProperties(tempDir.toString()));
+  }
+
+  private Path singleSegment() throws Exception {
+    try (Stream<Path> files = Files.list(tempDir.resolve("events"))) {
+      List<Path> segments = files.toList();
+      assertThat(segments).hasSize(1);
+      return segments.getFirst();
+    }
+  }
+
+  private static StoredDeviceEvent event(
+      long sequence, String deviceId, Instant time, String type, Map<String, Object> data) {
+    DeviceEventApiDto event = new DeviceEventApiDto();
+    event.setType(type);
+    event.setTime(OffsetDateTime.ofInstant(time, ZoneOffset.UTC));
+    event.setMonoTime((int) sequence);
+    event.setData(data);
+    return new StoredDeviceEvent(sequence, deviceId, time, event);
+  }
+}
@@ -0,0 +1,44 @@
+package com.github.juliusd.ueberboeseapi.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import org.junit.jupiter.api.Test;
+
+class EventLogWriterTest {
+
+  private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+  @Test
+  void submit_shouldWriteBodiesInBackground() throws Exception {
+    // Given
+    EventLogWriter writer = new EventLogWriter(meterRegistry, 100, 10);
+
+    // When
+    for (int i = 0; i < 25; i++) {
+      writer.submit("event", ("{\"n\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+    }
+    writer.close();
+
+    // Then: close drains the queue before the writer stops
+    assertThat(meterRegistry.get("ueberboese.eventlog.written").counter().count()).isEqualTo(25);
+    assertThat(meterRegistry.get("ueberboese.eventlog.dropped").counter().count()).isZero();
+    assertThat(meterRegistry.get("ueberboese.eventlog.queue.size").gauge().value()).isZero();
+  }
+
+  @Test
+  void submit_shouldDropBodiesWhenQueueIsFull() throws Exception {
+    // Given: a stopped writer with room for a single body
+    EventLogWriter writer = new EventLogWriter(meterRegistry, 1, 10);
+    writer.close();
+
+    // When
+    writer.submit("event", new byte[] {'a'});
+    writer.submit("event", new byte[] {'b'});
+
+    // Then
+    assertThat(meterRegistry.get("ueberboese.eventlog.dropped").counter().count()).isEqualTo(1);
+    assertThat(meterRegistry.get("ueberboese.eventlog.queue.size").gauge().value()).isEqualTo(1);
+  }
+}
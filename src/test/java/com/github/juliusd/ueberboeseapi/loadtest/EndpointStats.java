@@ -0,0 +1,93 @@
+package com.github.juliusd.ueberboeseapi.loadtest;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/** Collects request latencies per endpoint and renders p50/p99 latency and throughput. */
+class EndpointStats {
+
+  private final Map<String, Samples> samples = new ConcurrentHashMap<>();
+
+  void record(String endpoint, long latencyNanos, boolean success) {
+    samples.computeIfAbsent(endpoint, key -> new Samples()).add(latencyNanos, success);
+  }
+
+  long totalErrors() {
+    return samples.values().stream().mapToLong(Samples::errors).sum();
+  }
+
+  long totalRequests() {
+    return samples.values().stream().mapToLong(Samples::count).sum();
+  }
+
+  String report(Duration elapsed) {
+    double seconds = elapsed.toMillis() / 1000.0;
+    StringBuilder report = new StringBuilder();
+    report.append(
+        String.format(
+            "%-22s %9s %7s %9s %9s %9s %9s%n",
+            "endpoint", "requests", "errors", "req/s", "p50 ms", "p99 ms", "max ms"));
+    new TreeMap<>(samples)
+        .forEach(
+            (endpoint, endpointSamples) -> {
+              long[] sorted = endpointSamples.sorted();
+              report.append(
+                  String.format(
+                      "%-22s %9d %7d %9.1f %9.1f %9.1f %9.1f%n",
+                      endpoint,
+                      sorted.length,
+                      endpointSamples.errors(),
+                      sorted.length / seconds,
+                      percentile(sorted, 0.50),
+                      percentile(sorted, 0.99),
+                      percentile(sorted, 1.0)));
+            });
+    report.append(
+        String.format(
+            "%-22s %9d %7d %9.1f%n",
+            "total", totalRequests(), totalErrors(), totalRequests() / seconds));
+    return report.toString();
+  }
+
+  private static double percentile(long[] sorted, double percentile) {
+    if (sorted.length == 0) {
+      return 0;
+    }
+    int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return sorted[Math.max(0, index)] / 1_000_000.0;
+  }
+
+  private static final class Samples {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+
+    synchronized void add(long latencyNanos, boolean success) {
+      if (count == latencies.length) {
+        latencies = Arrays.copyOf(latencies, count * 2);
+      }
+      latencies[count++] = latencyNanos;
+      if (!success) {
+        errors++;
+      }
+    }
+
+    synchronized long count() {
+      return count;
+    }
+
+    synchronized long errors() {
+      return errors;
+    }
+
+    synchronized long[] sorted() {
+      long[] sorted = Arrays.copyOf(latencies, count);
+      Arrays.sort(sorted);
+      return sorted;
+    }
+  }
+}
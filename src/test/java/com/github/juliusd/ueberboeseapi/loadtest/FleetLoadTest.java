@@ -0,0 +1,160 @@
+package com.github.juliusd.ueberboeseapi.loadtest;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.any;
+import static com.github.tomakehurst.wiremock.client.WireMock.anyUrl;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+/**
+ * Simulates a fleet of SoundTouch speakers against the server and reports p50/p99 latency and
+ * throughput per endpoint.
+ *
+ * <p>Excluded from the normal build. Run with {@code ./mvnw test -Ploadtest}; tune it with {@code
+ * -Dloadtest.speakers=2000 -Dloadtest.duration=PT5M -Dloadtest.ramp-up=PT30S
+ * -Dloadtest.think-time-min=PT0.5S -Dloadtest.think-time-max=PT5S}. Set {@code
+ * -Dloadtest.base-url=http://host:8080} to load an already running server instead of the embedded
+ * one. Upstream Bose, TuneIn and Spotify hosts are stubbed with WireMock.
+ */
+@Tag("loadtest")
+@Slf4j
+class FleetLoadTest extends TestBase {
+
+  private static final List<Integer> UPSTREAM_PORTS = List.of(8089, 8090, 8091, 8092, 8093, 8299);
+  private static final int TUNEIN_PORT = 8889;
+
+  private static List<WireMockServer> upstreams;
+
+  @LocalServerPort private int port;
+
+  @BeforeAll
+  static void startUpstreams() {
+    upstreams =
+        UPSTREAM_PORTS.stream()
+            .map(FleetLoadTest::startUpstream)
+            .collect(Collectors.toCollection(ArrayList::new));
+    upstreams.forEach(
+        upstream ->
+            upstream.stubFor(any(anyUrl()).willReturn(aResponse().withStatus(200).withBody(""))));
+
+    WireMockServer tuneIn = startUpstream(TUNEIN_PORT);
+    tuneIn.stubFor(
+        get(urlPathEqualTo("/describe.ashx"))
+            .willReturn(aResponse().withStatus(200).withBody(describeResponse())));
+    tuneIn.stubFor(
+        get(urlPathEqualTo("/Tune.ashx"))
+            .willReturn(
+                aResponse()
+                    .withStatus(200)
+                    .withBody(
+                        "https://stream.example.com/radio1\nhttps://stream.example.com/radio2")));
+    upstreams.add(tuneIn);
+  }
+
+  @AfterAll
+  static void stopUpstreams() {
+    if (upstreams != null) {
+      upstreams.forEach(WireMockServer::stop);
+    }
+  }
+
+  @Test
+  void simulateFleet() throws InterruptedException {
+    int speakers = Integer.getInteger("loadtest.speakers", 200);
+    Duration duration = duration("loadtest.duration", "PT60S");
+    Duration rampUp = duration("loadtest.ramp-up", "PT10S");
+    Duration thinkTimeMin = duration("loadtest.think-time-min", "PT0.2S");
+    Duration thinkTimeMax = duration("loadtest.think-time-max", "PT2S");
+    double maxErrorRate = Double.parseDouble(System.getProperty("loadtest.max-error-rate", "0.01"));
+    String baseUrl = System.getProperty("loadtest.base-url", "http://localhost:" + port);
+
+    log.info(
+        "Simulating {} speakers against {} for {} (ramp-up {})",
+        speakers,
+        baseUrl,
+        duration,
+        rampUp);
+
+    EndpointStats stats = new EndpointStats();
+    long start = System.nanoTime();
+    long deadline = start + rampUp.toNanos() + duration.toNanos();
+    long rampUpStepNanos = rampUp.toNanos() / Math.max(1, speakers);
+
+    try (HttpClient client =
+            HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(10))
+                .build();
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+      for (int i = 0; i < speakers; i++) {
+        executor.execute(
+            new SimulatedSpeaker(client, baseUrl, i, stats, deadline, thinkTimeMin, thinkTimeMax));
+        TimeUnit.NANOSECONDS.sleep(rampUpStepNanos);
+      }
+      executor.shutdown();
+      assertThat(executor.awaitTermination(duration.toSeconds() + 120, TimeUnit.SECONDS)).isTrue();
+    }
+
+    Duration elapsed = Duration.ofNanos(System.nanoTime() - start);
+    log.info("Fleet load test finished after {}:\n{}", elapsed, stats.report(elapsed));
+
+    assertThat(stats.totalRequests()).isPositive();
+    assertThat((double) stats.totalErrors() / stats.totalRequests())
+        .isLessThanOrEqualTo(maxErrorRate);
+  }
+
+  private static WireMockServer startUpstream(int upstreamPort) {
+    WireMockServer server =
+        new WireMockServer(
+            WireMockConfiguration.wireMockConfig().port(upstreamPort).containerThreads(200));
+    server.start();
+    return server;
+  }
+
+  private static Duration duration(String property, String defaultValue) {
+    return Duration.parse(System.getProperty(property, defaultValue));
+  }
+
+  private static String describeResponse() {
+    return """
+        <?xml version="1.0" encoding="UTF-8"?>
+        <opml version="1">
+          <head>
+            <title>Radio name</title>
+            <status>200</status>
+          </head>
+          <body>
+            <outline type="object" text="Radio name">
+              <station>
+                <guide_id>%1$s</guide_id>
+                <preset_id>%1$s</preset_id>
+                <name>Radio name</name>
+                <logo>https://cdn-radiotime-logos.tunein.com/%1$sq.png</logo>
+                <is_available>true</is_available>
+                <is_music>true</is_music>
+              </station>
+            </outline>
+          </body>
+        </opml>"""
+        .formatted(SimulatedSpeaker.STATION_ID);
+  }
+}
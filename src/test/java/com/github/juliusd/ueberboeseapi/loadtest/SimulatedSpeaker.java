@@ -0,0 +1,244 @@
+package com.github.juliusd.ueberboeseapi.loadtest;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * One SoundTouch speaker of the simulated fleet.
+ *
+ * <p>Boots like a real speaker (power_on, full account, presets, recents) and then, until the
+ * deadline, repeatedly sends scmudc events, plays TuneIn stations via BMX, adds recents and
+ * re-reads its presets and recents, pausing for a random think time between requests.
+ */
+class SimulatedSpeaker implements Runnable {
+
+  static final String ACCOUNT_ID = "6921042";
+  static final String STATION_ID = "s80044";
+
+  /** The fixture account only knows these devices, so presets are read for one of them. */
+  private static final String[] ACCOUNT_DEVICE_IDS = {"123980WER", "42342FF23"};
+
+  private static final String BOSE_XML = "application/vnd.bose.streaming-v1.2+xml";
+  private static final DateTimeFormatter DEVICE_TIME =
+      DateTimeFormatter.ofPattern("yyyy-MM-dd'T'HH:mm:ssxxx");
+
+  private final HttpClient client;
+  private final String baseUrl;
+  private final String deviceId;
+  private final String accountDeviceId;
+  private final String ipAddress;
+  private final long bootNanos = System.nanoTime();
+  private final EndpointStats stats;
+  private final long deadlineNanos;
+  private final Duration thinkTimeMin;
+  private final Duration thinkTimeMax;
+
+  SimulatedSpeaker(
+      HttpClient client,
+      String baseUrl,
+      int index,
+      EndpointStats stats,
+      long deadlineNanos,
+      Duration thinkTimeMin,
+      Duration thinkTimeMax) {
+    this.client = client;
+    this.baseUrl = baseUrl;
+    this.deviceId = "%012X".formatted(0x5A0000000000L + index);
+    this.accountDeviceId = ACCOUNT_DEVICE_IDS[index % ACCOUNT_DEVICE_IDS.length];
+    this.ipAddress = "10.%d.%d.%d".formatted(index >> 16 & 0xFF, index >> 8 & 0xFF, index & 0xFF);
+    this.stats = stats;
+    this.deadlineNanos = deadlineNanos;
+    this.thinkTimeMin = thinkTimeMin;
+    this.thinkTimeMax = thinkTimeMax;
+  }
+
+  @Override
+  public void run() {
+    try {
+      powerOn();
+      think();
+      getFullAccount();
+      getPresets();
+      getRecents();
+
+      while (System.nanoTime() < deadlineNanos) {
+        think();
+        int action = ThreadLocalRandom.current().nextInt(100);
+        if (action < 50) {
+          sendEvent();
+        } else if (action < 70) {
+          playStation();
+        } else if (action < 80) {
+          addRecent();
+        } else if (action < 90) {
+          getRecents();
+        } else {
+          getPresets();
+        }
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  private void powerOn() throws InterruptedException {
+    String body =
+        """
+        <?xml version="1.0" encoding="UTF-8" ?>
+        <device-data>
+          <device id="%s">
+            <serialnumber>P12343567890</serialnumber>
+            <firmware-version>27.0.6.46330.5043500 epdbuild.trunk.hepdswbld04.2022-08-04T11:20:29</firmware-version>
+            <product product_code="SoundTouch 10 sm2" type="5">
+              <serialnumber>06123456789AE</serialnumber>
+            </product>
+          </device>
+          <diagnostic-data>
+            <device-landscape>
+              <rssi>Good</rssi>
+              <ip-address>%s</ip-address>
+              <network-connection-type>Wireless</network-connection-type>
+            </device-landscape>
+          </diagnostic-data>
+        </device-data>"""
+            .formatted(deviceId, ipAddress);
+    send("power_on", boseRequest("/streaming/support/power_on").POST(ofString(body)));
+  }
+
+  private void getFullAccount() throws InterruptedException {
+    send("full", boseRequest("/streaming/account/%s/full".formatted(ACCOUNT_ID)).GET());
+  }
+
+  private void getPresets() throws InterruptedException {
+    send(
+        "presets",
+        boseRequest(
+                "/streaming/account/%s/device/%s/presets".formatted(ACCOUNT_ID, accountDeviceId))
+            .GET());
+  }
+
+  private void getRecents() throws InterruptedException {
+    send("recents", boseRequest(devicePath("/recents")).GET());
+  }
+
+  private void addRecent() throws InterruptedException {
+    String body =
+        """
+        <?xml version="1.0" encoding="UTF-8" ?>
+        <recent>
+          <lastplayedat>%s</lastplayedat>
+          <sourceid>19989342</sourceid>
+          <name>Radio TEDDY</name>
+          <location>/v1/playback/station/%s</location>
+          <contentItemType>stationurl</contentItemType>
+        </recent>"""
+            .formatted(OffsetDateTime.now().format(DEVICE_TIME), STATION_ID);
+    send("addRecentItem", boseRequest(devicePath("/recent")).POST(ofString(body)));
+  }
+
+  private void sendEvent() throws InterruptedException {
+    String now = OffsetDateTime.now().format(DateTimeFormatter.ISO_OFFSET_DATE_TIME);
+    int monoTime = (int) ((System.nanoTime() - bootNanos) / 1_000_000);
+    String body =
+        """
+        {
+          "envelope": {
+            "monoTime": %d,
+            "payloadProtocolVersion": "3.1",
+            "payloadType": "scmudc",
+            "protocolVersion": "1.0",
+            "time": "%s",
+            "uniqueId": "%s"
+          },
+          "payload": {
+            "deviceInfo": {
+              "boseID": "%s",
+              "deviceID": "%s",
+              "deviceType": "SoundTouch 20",
+              "serialNumber": "P123456789101123456789",
+              "softwareVersion": "27.0.6.46330.5043500 epdbuild.trunk.hepdswbld04.2022-08-04T11:20:29",
+              "systemSerialNumber": "069236P81556160AE"
+            },
+            "events": [
+              {
+                "data": {
+                  "value": "%s"
+                },
+                "monoTime": %d,
+                "time": "%s",
+                "type": "play-state-changed"
+              }
+            ]
+          }
+        }"""
+            .formatted(
+                monoTime,
+                now,
+                deviceId,
+                ACCOUNT_ID,
+                deviceId,
+                ThreadLocalRandom.current().nextBoolean() ? "PLAY_STATE" : "STOP_STATE",
+                monoTime,
+                now);
+    send(
+        "scmudc",
+        request("/v1/scmudc/" + deviceId)
+            .header("Authorization", "Bearer mockAuthToken123")
+            .header("Content-Type", "text/json; charset=utf-8")
+            .POST(ofString(body)));
+  }
+
+  private void playStation() throws InterruptedException {
+    send(
+        "bmx-playback",
+        request("/bmx/tunein/v1/playback/station/" + STATION_ID)
+            .header("Content-Type", "application/json")
+            .GET());
+  }
+
+  private String devicePath(String suffix) {
+    return "/streaming/account/%s/device/%s%s".formatted(ACCOUNT_ID, deviceId, suffix);
+  }
+
+  private HttpRequest.Builder boseRequest(String path) {
+    return request(path)
+        .header("Accept", BOSE_XML)
+        .header("Content-Type", BOSE_XML)
+        .header("User-Agent", "Bose_Lisa/27.0.6")
+        .header("Authorization", "Bearer load/test/token");
+  }
+
+  private HttpRequest.Builder request(String path) {
+    return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(Duration.ofSeconds(30));
+  }
+
+  private static HttpRequest.BodyPublisher ofString(String body) {
+    return HttpRequest.BodyPublishers.ofString(body);
+  }
+
+  private void send(String endpoint, HttpRequest.Builder request) throws InterruptedException {
+    long start = System.nanoTime();
+    boolean success;
+    try {
+      HttpResponse<Void> response =
+          client.send(request.build(), HttpResponse.BodyHandlers.discarding());
+      success = response.statusCode() < 400;
+    } catch (IOException e) {
+      success = false;
+    }
+    stats.record(endpoint, System.nanoTime() - start, success);
+  }
+
+  private void think() throws InterruptedException {
+    long min = thinkTimeMin.toMillis();
+    long max = Math.max(min + 1, thinkTimeMax.toMillis());
+    Thread.sleep(ThreadLocalRandom.current().nextLong(min, max));
+  }
+}
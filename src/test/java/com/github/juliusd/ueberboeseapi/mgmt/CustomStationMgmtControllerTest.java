@@ -0,0 +1,143 @@
+package com.github.juliusd.ueberboeseapi.mgmt;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.matchesPattern;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import io.restassured.http.ContentType;
+import org.junit.jupiter.api.Test;
+
+class CustomStationMgmtControllerTest extends TestBase {
+
+  // language=JSON
+  private static final String IMPORT_REQUEST =
+      """
+      {
+        "stations": [
+          {
+            "name": "Radio B",
+            "streamUrl": "https://stream.example.com/b.mp3",
+            "imageUrl": "https://example.com/b.png"
+          },
+          {
+            "name": "Radio A",
+            "streamUrl": "https://stream.example.com/a.mp3"
+          }
+        ]
+      }
+      """;
+
+  @Test
+  void importCustomStations_shouldAssignCompactIds() {
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .contentType(ContentType.JSON)
+        .body(IMPORT_REQUEST)
+        .when()
+        .post("/mgmt/custom-stations")
+        .then()
+        .statusCode(200)
+        .contentType("application/json")
+        .body("stations", hasSize(2))
+        .body("stations[0].id", matchesPattern("c[0-9a-f]{12}"))
+        .body("stations[0].name", equalTo("Radio B"))
+        .body("stations[0].streamUrl", equalTo("https://stream.example.com/b.mp3"))
+        .body("stations[0].imageUrl", equalTo("https://example.com/b.png"))
+        .body("stations[1].name", equalTo("Radio A"));
+
+    assertThat(customStationRepository.count()).isEqualTo(2);
+  }
+
+  @Test
+  void importCustomStations_shouldUpdateExistingStationWithSameStreamUrl() {
+    // Given
+    String id = importAndGetFirstId(IMPORT_REQUEST);
+
+    // When
+    String reimportedId =
+        importAndGetFirstId(
+            """
+            {"stations": [{"name": "Radio B renamed", "streamUrl": "https://stream.example.com/b.mp3"}]}
+            """);
+
+    // Then
+    assertThat(reimportedId).isEqualTo(id);
+    assertThat(customStationRepository.count()).isEqualTo(2);
+    assertThat(customStationRepository.findById(id))
+        .hasValueSatisfying(
+            station -> {
+              assertThat(station.name()).isEqualTo("Radio B renamed");
+              assertThat(station.imageUrl()).isNull();
+              assertThat(station.version()).isEqualTo(1);
+            });
+  }
+
+  @Test
+  void importCustomStations_shouldRejectStationWithoutStreamUrl() {
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .contentType(ContentType.JSON)
+        .body(
+            """
+            {"stations": [{"name": "Radio A", "streamUrl": "https://stream.example.com/a.mp3"}, {"name": "Broken", "streamUrl": " "}]}
+            """)
+        .when()
+        .post("/mgmt/custom-stations")
+        .then()
+        .statusCode(400)
+        .body("error", equalTo("Bad request"))
+        .body("message", equalTo("streamUrl is required"));
+
+    assertThat(customStationRepository.count()).isZero();
+  }
+
+  @Test
+  void importCustomStations_shouldRequireAuthentication() {
+    given()
+        .contentType(ContentType.JSON)
+        .body(IMPORT_REQUEST)
+        .when()
+        .post("/mgmt/custom-stations")
+        .then()
+        .statusCode(401);
+  }
+
+  @Test
+  void listCustomStations_shouldReturnStationsSortedByNameWithLocation() {
+    // Given
+    importAndGetFirstId(IMPORT_REQUEST);
+
+    // When / Then
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .accept(ContentType.JSON)
+        .when()
+        .get("/mgmt/custom-stations")
+        .then()
+        .statusCode(200)
+        .body("stations", hasSize(2))
+        .body("stations[0].name", equalTo("Radio A"))
+        .body("stations[1].name", equalTo("Radio B"))
+        .body("stations[1].location", matchesPattern("/station/c[0-9a-f]{12}"));
+  }
+
+  private static String importAndGetFirstId(String body) {
+    return given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .contentType(ContentType.JSON)
+        .body(body)
+        .when()
+        .post("/mgmt/custom-stations")
+        .then()
+        .statusCode(200)
+        .extract()
+        .path("stations[0].id");
+  }
+}
@@ -0,0 +1,77 @@
+package com.github.juliusd.ueberboeseapi.mgmt;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.service.EventStorageService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+class LiveEventBroadcasterTest {
+
+  private final LiveEventBroadcaster broadcaster =
+      new LiveEventBroadcaster(10, 4, Duration.ofMinutes(1));
+  private final EventStorageService eventStorageService =
+      new EventStorageService(List.of(broadcaster), new SimpleMeterRegistry(), 5, 20);
+
+  @AfterEach
+  void tearDown() {
+    broadcaster.close();
+  }
+
+  @Test
+  void subscribe_shouldNeverExceedLimitWhenSubscribingConcurrently() throws Exception {
+    // Given
+    int threads = 16;
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<SseEmitter>> futures = new ArrayList<>();
+
+    // When
+    for (int i = 0; i < threads; i++) {
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                return broadcaster.subscribe(null, null, 0, eventStorageService);
+              }));
+    }
+    start.countDown();
+    List<SseEmitter> emitters = new ArrayList<>();
+    for (Future<SseEmitter> future : futures) {
+      emitters.add(future.get(10, TimeUnit.SECONDS));
+    }
+    executor.shutdown();
+
+    // Then
+    assertThat(emitters.stream().filter(Objects::nonNull)).hasSize(4);
+    assertThat(broadcaster.getSubscriberCount()).isEqualTo(4);
+    assertThat(broadcaster.getReservedSlots()).isEqualTo(4);
+  }
+
+  @Test
+  void close_shouldReleaseAllSlots() {
+    // Given
+    for (int i = 0; i < 4; i++) {
+      broadcaster.subscribe(null, null, 0, eventStorageService);
+    }
+    assertThat(broadcaster.subscribe(null, null, 0, eventStorageService)).isNull();
+
+    // When
+    broadcaster.close();
+
+    // Then
+    assertThat(broadcaster.getSubscriberCount()).isZero();
+    assertThat(broadcaster.getReservedSlots()).isZero();
+  }
+}
@@ -0,0 +1,175 @@
+package com.github.juliusd.ueberboeseapi.mgmt;
+
+import static io.restassured.RestAssured.given;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.web.server.LocalServerPort;
+
+class LiveEventStreamControllerTest extends TestBase {
+
+  @LocalServerPort private int port;
+  @Autowired private LiveEventBroadcaster liveEventBroadcaster;
+
+  @Test
+  void streamEvents_shouldPushMatchingEventsAsTheyArrive() throws Exception {
+    // Given: a subscriber only interested in play state changes of one device
+    int subscribersBefore = liveEventBroadcaster.getSubscriberCount();
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    HttpRequest request =
+        HttpRequest.newBuilder(
+                URI.create(
+                    "http://localhost:"
+                        + port
+                        + "/mgmt/events/stream?deviceId=LIVE001&type=play-state-changed"))
+            .header("Authorization", basicAuth())
+            .header("Accept", "text/event-stream")
+            .build();
+    HttpResponse<Stream<String>> response =
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofLines()).get(10, TimeUnit.SECONDS);
+    assertThat(response.statusCode()).isEqualTo(200);
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (liveEventBroadcaster.getSubscriberCount() <= subscribersBefore
+        && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+
+    // When
+    submitEvent("LIVE002", "play-state-changed", "PLAY_STATE");
+    submitEvent("LIVE001", "volume-changed", "VOLUME");
+    submitEvent("LIVE001", "play-state-changed", "STOP_STATE");
+
+    // Then: only the matching event arrives
+    CompletableFuture<List<String>> firstEvent =
+        CompletableFuture.supplyAsync(
+            () -> response.body().dropWhile(line -> !line.startsWith("event:")).limit(3).toList());
+    List<String> lines = firstEvent.get(10, TimeUnit.SECONDS);
+    assertThat(lines.getFirst()).isEqualTo("event:device-event");
+    assertThat(lines)
+        .anySatisfy(
+            line ->
+                assertThat(line)
+                    .startsWith("data:")
+                    .contains("\"deviceId\":\"LIVE001\"")
+                    .contains("STOP_STATE"));
+    response.body().close();
+  }
+
+  @Test
+  void streamEvents_shouldResumeAfterLastEventIdInSequenceOrder() throws Exception {
+    // Given: events the client missed while it was disconnected
+    submitEvent("LIVE010", "volume-changed", "FIRST");
+    submitEvent("LIVE010", "volume-changed", "SECOND");
+    int subscribersBefore = liveEventBroadcaster.getSubscriberCount();
+    HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    HttpRequest request =
+        HttpRequest.newBuilder(
+                URI.create("http://localhost:" + port + "/mgmt/events/stream?deviceId=LIVE010"))
+            .header("Authorization", basicAuth())
+            .header("Accept", "text/event-stream")
+            .header("Last-Event-ID", "0")
+            .build();
+    HttpResponse<Stream<String>> response =
+        client.sendAsync(request, HttpResponse.BodyHandlers.ofLines()).get(10, TimeUnit.SECONDS);
+    assertThat(response.statusCode()).isEqualTo(200);
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (liveEventBroadcaster.getSubscriberCount() <= subscribersBefore
+        && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+
+    // When
+    submitEvent("LIVE010", "volume-changed", "THIRD");
+
+    // Then: the missed events come first, each event exactly once
+    CompletableFuture<List<String>> events =
+        CompletableFuture.supplyAsync(
+            () ->
+                response
+                    .body()
+                    .filter(line -> line.startsWith("id:") || line.startsWith("data:"))
+                    .limit(6)
+                    .toList());
+    List<String> lines = events.get(10, TimeUnit.SECONDS);
+    List<Long> ids =
+        lines.stream()
+            .filter(line -> line.startsWith("id:"))
+            .map(line -> Long.parseLong(line.substring(3)))
+            .toList();
+    List<String> data = lines.stream().filter(line -> line.startsWith("data:")).toList();
+    assertThat(ids).isSorted().doesNotHaveDuplicates();
+    assertThat(data.get(0)).contains("FIRST");
+    assertThat(data.get(1)).contains("SECOND");
+    assertThat(data.get(2)).contains("THIRD");
+    response.body().close();
+  }
+
+  @Test
+  void streamEvents_shouldRequireAuthentication() {
+    given().when().get("/mgmt/events/stream").then().statusCode(401);
+  }
+
+  private static String basicAuth() {
+    return "Basic "
+        + Base64.getEncoder()
+            .encodeToString("admin:test-password-123".getBytes(StandardCharsets.UTF_8));
+  }
+
+  private void submitEvent(String deviceId, String type, String value) {
+    String requestJson =
+        """
+        {
+          "envelope": {
+            "monoTime": 1,
+            "payloadProtocolVersion": "3.1",
+            "payloadType": "scmudc",
+            "protocolVersion": "1.0",
+            "time": "2026-01-09T08:02:32.874426+00:00",
+            "uniqueId": "%s"
+          },
+          "payload": {
+            "deviceInfo": {
+              "boseID": "6921042",
+              "deviceID": "%s",
+              "deviceType": "SoundTouch 20",
+              "serialNumber": "P123456789101123456789",
+              "softwareVersion": "27.0.6.46330.5043500 epdbuild.trunk.hepdswbld04.2022-08-04T11:20:29",
+              "systemSerialNumber": "069236P81556160AE"
+            },
+            "events": [
+              {
+                "data": {
+                  "value": "%s"
+                },
+                "monoTime": 1,
+                "time": "2026-01-09T08:02:32.873379+00:00",
+                "type": "%s"
+              }
+            ]
+          }
+        }
+        """
+            .formatted(deviceId, deviceId, value, type);
+
+    given()
+        .header("Authorization", "Bearer mockAuthToken123")
+        .header("Content-Type", "text/json; charset=utf-8")
+        .body(requestJson)
+        .post("/v1/scmudc/{deviceId}", deviceId)
+        .then()
+        .statusCode(200);
+  }
+}
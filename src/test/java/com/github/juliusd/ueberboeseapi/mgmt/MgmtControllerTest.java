@@ -25,6 +25,7 @@ class MgmtControllerTest extends TestBase {
         Device.builder()
             .deviceId("device1")
             .name(null)
+            .margeAccountId(accountId)
             .ipAddress("192.168.1.100")
             .firstSeen(now)
             .lastSeen(now)
@@ -34,6 +35,7 @@ class MgmtControllerTest extends TestBase {
         Device.builder()
             .deviceId("device2")
             .name(null)
+            .margeAccountId(accountId)
             .ipAddress("192.168.1.101")
             .firstSeen(now)
             .lastSeen(now)
@@ -59,6 +61,54 @@ class MgmtControllerTest extends TestBase {
         .body("speakers[1].ipAddress", equalTo("192.168.1.101"));
   }
 
+  @Test
+  void listSpeakers_shouldOnlyReturnSpeakersOfTheAccount() {
+    // Given
+    String accountId = "6921042";
+    OffsetDateTime now = OffsetDateTime.now();
+    deviceRepository.save(
+        Device.builder()
+            .deviceId("device1")
+            .margeAccountId(accountId)
+            .ipAddress("192.168.1.100")
+            .firstSeen(now.minusMinutes(5))
+            .lastSeen(now.minusMinutes(5))
+            .build());
+    deviceRepository.save(
+        Device.builder()
+            .deviceId("device2")
+            .margeAccountId("1234567")
+            .ipAddress("192.168.1.101")
+            .firstSeen(now)
+            .lastSeen(now)
+            .build());
+    deviceRepository.save(
+        Device.builder()
+            .deviceId("device3")
+            .margeAccountId(accountId)
+            .ipAddress("192.168.1.102")
+            .firstSeen(now)
+            .lastSeen(now)
+            .build());
+
+    // When
+    Response response =
+        given()
+            .auth()
+            .basic("admin", "test-password-123")
+            .accept(ContentType.JSON)
+            .when()
+            .get("/mgmt/accounts/{accountId}/speakers", accountId);
+
+    // Then: most recently seen first, other accounts excluded
+    response
+        .then()
+        .statusCode(200)
+        .body("speakers", hasSize(2))
+        .body("speakers[0].ipAddress", equalTo("192.168.1.102"))
+        .body("speakers[1].ipAddress", equalTo("192.168.1.100"));
+  }
+
   @Test
   void listSpeakers_shouldReturnEmptyListWhenNoDevices() {
     // Given
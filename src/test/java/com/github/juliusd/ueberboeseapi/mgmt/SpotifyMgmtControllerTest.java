@@ -2,10 +2,12 @@ package com.github.juliusd.ueberboeseapi.mgmt;
 
 import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
 import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
 import static com.github.tomakehurst.wiremock.client.WireMock.matching;
 import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
 import static com.github.tomakehurst.wiremock.client.WireMock.post;
 import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlPathEqualTo;
 import static io.restassured.RestAssured.given;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
@@ -18,6 +20,8 @@ import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
 import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import io.restassured.http.ContentType;
 import java.time.OffsetDateTime;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -769,6 +773,230 @@ class SpotifyMgmtControllerTest extends TestBase {
         .body("message", notNullValue());
   }
 
+  @Test
+  void getSpotifyEntity_shouldAnswerRepeatedLookupsFromCache() {
+    // Given
+    String uri = "spotify:artist:0OdUWJ0sBjDrqHygGUXeCF";
+    setupSpotifyAccountAndTokenRefresh();
+    spotifyApiServer.register(
+        get(urlEqualTo("/v1/artists/0OdUWJ0sBjDrqHygGUXeCF"))
+            .willReturn(okJson("{\"id\": \"0OdUWJ0sBjDrqHygGUXeCF\", \"name\": \"Band\"}")));
+
+    // When
+    for (int i = 0; i < 2; i++) {
+      given()
+          .auth()
+          .basic("admin", "test-password-123")
+          .header("Content-Type", "application/json")
+          .body("{\"uri\": \"" + uri + "\"}")
+          .when()
+          .post("/mgmt/spotify/entity")
+          .then()
+          .statusCode(200)
+          .body("name", equalTo("Band"));
+    }
+
+    // Then
+    spotifyApiServer.verifyThat(
+        1, getRequestedFor(urlEqualTo("/v1/artists/0OdUWJ0sBjDrqHygGUXeCF")));
+  }
+
+  @Test
+  void getSpotifyEntity_shouldCacheNotFound() {
+    // Given
+    setupSpotifyAccountAndTokenRefresh();
+    spotifyApiServer.register(
+        get(urlEqualTo("/v1/tracks/gone123")).willReturn(aResponse().withStatus(404)));
+
+    // When
+    for (int i = 0; i < 2; i++) {
+      given()
+          .auth()
+          .basic("admin", "test-password-123")
+          .header("Content-Type", "application/json")
+          .body("{\"uri\": \"spotify:track:gone123\"}")
+          .when()
+          .post("/mgmt/spotify/entity")
+          .then()
+          .statusCode(404);
+    }
+
+    // Then
+    spotifyApiServer.verifyThat(1, getRequestedFor(urlEqualTo("/v1/tracks/gone123")));
+  }
+
+  @Test
+  void getSpotifyEntity_shouldNotCacheOtherClientErrorsAsNotFound() {
+    // Given: a client error whose body mentions "not found" but is no 404
+    setupSpotifyAccountAndTokenRefresh();
+    spotifyApiServer.register(
+        get(urlEqualTo("/v1/tracks/private123"))
+            .willReturn(
+                aResponse()
+                    .withStatus(403)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody(
+                        "{\"error\": {\"status\": 403, \"message\": \"Market not found\"}}")));
+
+    // When
+    for (int i = 0; i < 2; i++) {
+      given()
+          .auth()
+          .basic("admin", "test-password-123")
+          .header("Content-Type", "application/json")
+          .body("{\"uri\": \"spotify:track:private123\"}")
+          .when()
+          .post("/mgmt/spotify/entity")
+          .then()
+          .statusCode(500);
+    }
+
+    // Then
+    spotifyApiServer.verifyThat(2, getRequestedFor(urlEqualTo("/v1/tracks/private123")));
+  }
+
+  @Test
+  void getSpotifyEntities_shouldResolveUrisWithMultiIdEndpoints() {
+    // Given
+    setupSpotifyAccountAndTokenRefresh();
+    spotifyApiServer.register(
+        get(urlPathEqualTo("/v1/tracks"))
+            .withQueryParam("ids", WireMock.equalTo("track1,track2,track3"))
+            .willReturn(
+                okJson(
+                    """
+                    {
+                      "tracks": [
+                        {"id": "track1", "name": "Track 1", "album": {"images": [{"url": "https://i.scdn.co/image/t1.jpg"}]}},
+                        null,
+                        {"id": "track3", "name": "Track 3", "album": {"images": []}}
+                      ]
+                    }
+                    """)));
+    spotifyApiServer.register(
+        get(urlPathEqualTo("/v1/albums"))
+            .withQueryParam("ids", WireMock.equalTo("album1"))
+            .willReturn(
+                okJson(
+                    """
+                    {"albums": [{"id": "album1", "name": "Album 1", "images": [{"url": "https://i.scdn.co/image/a1.jpg"}]}]}
+                    """)));
+    spotifyApiServer.register(
+        get(urlEqualTo("/v1/playlists/playlist1"))
+            .willReturn(okJson("{\"id\": \"playlist1\", \"name\": \"Playlist 1\"}")));
+
+    String body =
+        """
+        {"uris": [
+          "spotify:track:track1",
+          "spotify:album:album1",
+          "not-a-uri",
+          "spotify:track:track2",
+          "spotify:playlist:playlist1",
+          "spotify:track:track3",
+          "spotify:track:track1"
+        ]}
+        """;
+
+    // When / Then
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .header("Content-Type", "application/json")
+        .body(body)
+        .when()
+        .post("/mgmt/spotify/entities")
+        .then()
+        .statusCode(200)
+        .contentType("application/json")
+        .body("entities", hasSize(7))
+        .body(
+            "entities.uri",
+            contains(
+                "spotify:track:track1",
+                "spotify:album:album1",
+                "not-a-uri",
+                "spotify:track:track2",
+                "spotify:playlist:playlist1",
+                "spotify:track:track3",
+                "spotify:track:track1"))
+        .body(
+            "entities.status",
+            contains("FOUND", "FOUND", "INVALID_URI", "NOT_FOUND", "FOUND", "FOUND", "FOUND"))
+        .body("entities[0].name", equalTo("Track 1"))
+        .body("entities[0].imageUrl", equalTo("https://i.scdn.co/image/t1.jpg"))
+        .body("entities[1].name", equalTo("Album 1"))
+        .body("entities[4].name", equalTo("Playlist 1"))
+        .body("entities[5].name", equalTo("Track 3"))
+        .body("entities[5].imageUrl", nullValue());
+
+    // Cached entities, including unknown ones, are not requested again
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .header("Content-Type", "application/json")
+        .body("{\"uris\": [\"spotify:track:track2\", \"spotify:album:album1\"]}")
+        .when()
+        .post("/mgmt/spotify/entities")
+        .then()
+        .statusCode(200)
+        .body("entities.status", contains("NOT_FOUND", "FOUND"));
+
+    spotifyApiServer.verifyThat(1, getRequestedFor(urlPathEqualTo("/v1/tracks")));
+    spotifyApiServer.verifyThat(1, getRequestedFor(urlPathEqualTo("/v1/albums")));
+  }
+
+  @Test
+  void getSpotifyEntities_shouldFallBackToSingleLookupsWhenSpotifyRejectsBatch() {
+    // Given
+    setupSpotifyAccountAndTokenRefresh();
+    spotifyApiServer.register(
+        get(urlPathEqualTo("/v1/artists"))
+            .willReturn(
+                aResponse()
+                    .withStatus(400)
+                    .withHeader("Content-Type", "application/json")
+                    .withBody("{\"error\": {\"status\": 400, \"message\": \"invalid id\"}}")));
+    spotifyApiServer.register(
+        get(urlEqualTo("/v1/artists/artist1"))
+            .willReturn(okJson("{\"id\": \"artist1\", \"name\": \"Artist 1\"}")));
+    spotifyApiServer.register(
+        get(urlEqualTo("/v1/artists/badid0")).willReturn(aResponse().withStatus(404)));
+
+    // When / Then
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .header("Content-Type", "application/json")
+        .body("{\"uris\": [\"spotify:artist:artist1\", \"spotify:artist:badid0\"]}")
+        .when()
+        .post("/mgmt/spotify/entities")
+        .then()
+        .statusCode(200)
+        .body("entities.status", contains("FOUND", "NOT_FOUND"))
+        .body("entities[0].name", equalTo("Artist 1"));
+  }
+
+  @Test
+  void getSpotifyEntities_shouldRejectTooManyUris() {
+    String uris =
+        IntStream.range(0, 101)
+            .mapToObj(i -> "\"spotify:track:track" + i + "\"")
+            .collect(Collectors.joining(","));
+
+    given()
+        .auth()
+        .basic("admin", "test-password-123")
+        .header("Content-Type", "application/json")
+        .body("{\"uris\": [" + uris + "]}")
+        .when()
+        .post("/mgmt/spotify/entities")
+        .then()
+        .statusCode(400)
+        .body("error", equalTo("Bad request"))
+        .body("message", containsString("uris"));
+  }
+
   private void setupSpotifyAccountAndTokenRefresh() {
     // Create a Spotify account in DB
     spotifyAccountRepository.save(
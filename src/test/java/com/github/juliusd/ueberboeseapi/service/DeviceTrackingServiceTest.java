@@ -3,6 +3,7 @@ package com.github.juliusd.ueberboeseapi.service;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.github.juliusd.ueberboeseapi.TestBase;
+import com.github.juliusd.ueberboeseapi.device.Device;
 import java.time.OffsetDateTime;
 import java.util.Collection;
 import org.junit.jupiter.api.Test;
@@ -139,4 +140,46 @@ class DeviceTrackingServiceTest extends TestBase {
     assertThat(finalDeviceInfo.getLastSeen()).isAfter(firstSeenTime);
     assertThat(finalDeviceInfo.getIpAddress()).isEqualTo("192.168.1.3");
   }
+
+  @Test
+  void recordDevicePowerOn_shouldCoalesceLastSeenUntilFlush() throws InterruptedException {
+    // Given
+    String deviceId = "587A628A4042";
+    deviceTrackingService.recordDevicePowerOn(deviceId, "192.168.1.1");
+    Device stored = deviceRepository.findById(deviceId).orElseThrow();
+
+    // When - Same IP again, only lastSeen changes
+    Thread.sleep(10);
+    deviceTrackingService.recordDevicePowerOn(deviceId, "192.168.1.1");
+    deviceTrackingService.recordDevicePowerOn(deviceId, "192.168.1.1");
+
+    // Then - Nothing written until the flush
+    assertThat(deviceRepository.findById(deviceId).orElseThrow().lastSeen())
+        .isEqualTo(stored.lastSeen());
+
+    deviceTrackingService.flushLastSeen();
+    Device flushed = deviceRepository.findById(deviceId).orElseThrow();
+    assertThat(flushed.lastSeen()).isAfter(stored.lastSeen());
+    assertThat(flushed.firstSeen()).isEqualTo(stored.firstSeen());
+    assertThat(flushed.version()).isEqualTo(stored.version());
+  }
+
+  @Test
+  void recordDevicePowerOn_shouldRegisterDeviceAgainAfterItWasDeleted() {
+    // Given
+    String deviceId = "587A628A4042";
+    deviceTrackingService.recordDevicePowerOn(deviceId, "192.168.1.1");
+    deviceRepository.deleteAll();
+    deviceTrackingService.recordDevicePowerOn(deviceId, "192.168.1.1");
+    deviceTrackingService.flushLastSeen();
+
+    // When
+    deviceTrackingService.recordDevicePowerOn(deviceId, "192.168.1.1");
+
+    // Then
+    Collection<DeviceTrackingService.DeviceInfo> devices = deviceTrackingService.getAllDevices();
+    assertThat(devices)
+        .extracting(DeviceTrackingService.DeviceInfo::getDeviceId)
+        .containsExactly(deviceId);
+  }
 }
@@ -0,0 +1,135 @@
+package com.github.juliusd.ueberboeseapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.event.StoredDeviceEvent;
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class EventIndexTest {
+
+  private static final Instant BASE = Instant.parse("2026-01-09T08:00:00Z");
+
+  @Test
+  void query_shouldFilterByTypeAndDevice() {
+    // Given
+    EventIndex index = new EventIndex();
+    index.add(event(1, "DEVICE1", 0, "preset-pressed"));
+    index.add(event(2, "DEVICE2", 1, "preset-pressed"));
+    index.add(event(3, "DEVICE1", 2, "volume-changed"));
+
+    // When / Then
+    assertThat(index.query(null, "preset-pressed", null, null, 100))
+        .extracting(StoredDeviceEvent::sequence)
+        .containsExactly(1L, 2L);
+    assertThat(index.query("DEVICE1", "preset-pressed", null, null, 100))
+        .extracting(StoredDeviceEvent::sequence)
+        .containsExactly(1L);
+    assertThat(index.query(null, "unknown", null, null, 100)).isEmpty();
+  }
+
+  @Test
+  void query_shouldUseDeviceIndexAndForgetDevicesWithoutEvents() {
+    // Given
+    EventIndex index = new EventIndex();
+    StoredDeviceEvent only = event(1, "DEVICE1", 0, "volume-changed");
+    index.add(only);
+    index.add(event(2, "DEVICE2", 1, "volume-changed"));
+    index.add(event(3, "DEVICE2", 2, "preset-pressed"));
+    index.add(event(4, "DEVICE2", 3, "volume-changed"));
+
+    // When
+    index.remove(only);
+
+    // Then
+    assertThat(index.query("DEVICE2", null, BASE.plusSeconds(1), BASE.plusSeconds(3), 100))
+        .extracting(StoredDeviceEvent::sequence)
+        .containsExactly(2L, 3L);
+    assertThat(index.query("DEVICE2", "volume-changed", null, null, 100))
+        .extracting(StoredDeviceEvent::sequence)
+        .containsExactly(2L, 4L);
+    assertThat(index.query("DEVICE1", null, null, null, 100)).isEmpty();
+  }
+
+  @Test
+  void remove_shouldForgetTypesWithoutEvents() {
+    // Given: events of made up types
+    EventIndex index = new EventIndex();
+    List<StoredDeviceEvent> events = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      StoredDeviceEvent event = event(i, "DEVICE1", i, "made-up-" + i);
+      events.add(event);
+      index.add(event);
+    }
+    index.add(event(100, "DEVICE2", 100, "volume-changed"));
+
+    // When
+    events.forEach(index::remove);
+
+    // Then
+    assertThat(index.typeCount()).isEqualTo(1);
+    assertThat(index.query(null, "made-up-1", null, null, 100)).isEmpty();
+    assertThat(index.query(null, "volume-changed", null, null, 100)).hasSize(1);
+  }
+
+  @Test
+  void query_shouldReturnTimeRangeOrderedByEventTime() {
+    // Given: events arriving out of order
+    EventIndex index = new EventIndex();
+    index.add(event(1, "DEVICE1", 30, "volume-changed"));
+    index.add(event(2, "DEVICE1", 10, "volume-changed"));
+    index.add(event(3, "DEVICE1", 20, "volume-changed"));
+    index.add(event(4, "DEVICE1", 40, "volume-changed"));
+
+    // When
+    var result = index.query(null, null, BASE.plusSeconds(10), BASE.plusSeconds(40), 100);
+
+    // Then: from is inclusive, to is exclusive
+    assertThat(result).extracting(StoredDeviceEvent::sequence).containsExactly(2L, 3L, 1L);
+  }
+
+  @Test
+  void query_shouldApplyLimit() {
+    // Given
+    EventIndex index = new EventIndex();
+    for (int i = 0; i < 10; i++) {
+      index.add(event(i, "DEVICE1", i, "volume-changed"));
+    }
+
+    // When / Then
+    assertThat(index.query(null, "volume-changed", null, null, 3))
+        .extracting(StoredDeviceEvent::sequence)
+        .containsExactly(0L, 1L, 2L);
+  }
+
+  @Test
+  void remove_shouldDropEventFromAllIndexes() {
+    // Given
+    EventIndex index = new EventIndex();
+    StoredDeviceEvent evicted = event(1, "DEVICE1", 0, "preset-pressed");
+    index.add(evicted);
+    index.add(event(2, "DEVICE1", 1, "preset-pressed"));
+
+    // When
+    index.remove(evicted);
+
+    // Then
+    assertThat(index.size()).isEqualTo(1);
+    assertThat(index.query(null, "preset-pressed", null, null, 100))
+        .extracting(StoredDeviceEvent::sequence)
+        .containsExactly(2L);
+  }
+
+  private static StoredDeviceEvent event(
+      long sequence, String deviceId, int secondsAfterBase, String type) {
+    DeviceEventApiDto event = new DeviceEventApiDto();
+    event.setType(type);
+    event.setTime(OffsetDateTime.ofInstant(BASE.plusSeconds(secondsAfterBase), ZoneOffset.UTC));
+    return new StoredDeviceEvent(sequence, deviceId, Instant.now(), event);
+  }
+}
@@ -0,0 +1,113 @@
+package com.github.juliusd.ueberboeseapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+
+class EventRingBufferTest {
+
+  @Test
+  void add_shouldKeepElementsInInsertionOrder() {
+    // Given
+    EventRingBuffer<Integer> buffer = new EventRingBuffer<>(5);
+
+    // When
+    buffer.add(1);
+    buffer.add(2);
+    buffer.add(3);
+
+    // Then
+    assertThat(buffer.snapshot()).containsExactly(1, 2, 3);
+    assertThat(buffer.size()).isEqualTo(3);
+  }
+
+  @Test
+  void add_shouldOverwriteOldestElementsWhenFull() {
+    // Given
+    EventRingBuffer<Integer> buffer = new EventRingBuffer<>(3);
+
+    // When
+    List<Integer> evicted = new ArrayList<>();
+    for (int i = 0; i < 7; i++) {
+      Integer removed = buffer.add(i);
+      if (removed != null) {
+        evicted.add(removed);
+      }
+    }
+
+    // Then
+    assertThat(buffer.snapshot()).containsExactly(4, 5, 6);
+    assertThat(buffer.size()).isEqualTo(3);
+    assertThat(evicted).containsExactly(0, 1, 2, 3);
+  }
+
+  @Test
+  void snapshot_shouldReturnEmptyListForEmptyBuffer() {
+    // Given
+    EventRingBuffer<String> buffer = new EventRingBuffer<>(4);
+
+    // When / Then
+    assertThat(buffer.snapshot()).isEmpty();
+    assertThat(buffer.size()).isZero();
+  }
+
+  @Test
+  void constructor_shouldRejectNonPositiveCapacity() {
+    assertThatThrownBy(() -> new EventRingBuffer<>(0)).isInstanceOf(IllegalArgumentException.class);
+  }
+
+  @Test
+  void add_shouldKeepExactlyCapacityElementsUnderConcurrentBurst() throws Exception {
+    // Given: many writers and a reader hammering the same buffer
+    int capacity = 50;
+    int writers = 16;
+    int eventsPerWriter = 10_000;
+    EventRingBuffer<Long> buffer = new EventRingBuffer<>(capacity);
+    CountDownLatch start = new CountDownLatch(1);
+
+    try (ExecutorService executor = Executors.newFixedThreadPool(writers + 1)) {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int w = 0; w < writers; w++) {
+        long writerId = w;
+        futures.add(
+            executor.submit(
+                () -> {
+                  start.await();
+                  for (long i = 0; i < eventsPerWriter; i++) {
+                    buffer.add(writerId * eventsPerWriter + i);
+                  }
+                  return null;
+                }));
+      }
+      Future<?> reader =
+          executor.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < 1_000; i++) {
+                  assertThat(buffer.snapshot().size()).isLessThanOrEqualTo(capacity);
+                }
+                return null;
+              });
+
+      // When
+      start.countDown();
+      for (Future<?> future : futures) {
+        future.get(30, TimeUnit.SECONDS);
+      }
+      reader.get(30, TimeUnit.SECONDS);
+    }
+
+    // Then
+    List<Long> snapshot = buffer.snapshot();
+    assertThat(snapshot).hasSize(capacity).doesNotHaveDuplicates();
+    assertThat(buffer.size()).isEqualTo(capacity);
+  }
+}
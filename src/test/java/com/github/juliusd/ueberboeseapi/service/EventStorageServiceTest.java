@@ -0,0 +1,216 @@
+package com.github.juliusd.ueberboeseapi.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.juliusd.ueberboeseapi.event.DeviceEventListener;
+import com.github.juliusd.ueberboeseapi.event.DeviceState;
+import com.github.juliusd.ueberboeseapi.event.DeviceStateProjector;
+import com.github.juliusd.ueberboeseapi.event.StoredDeviceEvent;
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.DeviceEventsRequestApiDto;
+import com.github.juliusd.ueberboeseapi.generated.dtos.EventPayloadApiDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class EventStorageServiceTest {
+
+  private SimpleMeterRegistry meterRegistry;
+  private EventStorageService eventStorageService;
+
+  @BeforeEach
+  void setUp() {
+    meterRegistry = new SimpleMeterRegistry();
+    eventStorageService = new EventStorageService(List.of(), meterRegistry, 5, 20);
+  }
+
+  @Test
+  void storeEvent_shouldEvictLeastRecentlyActiveDevicesWhenBudgetExceeded() {
+    // Given: 4 devices with 5 events each fill the budget of 20
+    for (int device = 0; device < 4; device++) {
+      eventStorageService.storeEvent("DEVICE" + device, request(5));
+    }
+    // DEVICE0 becomes the most recently active device
+    eventStorageService.storeEvent("DEVICE0", request(1));
+
+    // When: a new device pushes the total over the budget
+    eventStorageService.storeEvent("DEVICE4", request(5));
+
+    // Then: the least recently active devices are gone, down to 90% of the budget
+    assertThat(eventStorageService.getEventCount("DEVICE1")).isZero();
+    assertThat(eventStorageService.getEventCount("DEVICE2")).isZero();
+    assertThat(eventStorageService.getEventCount("DEVICE0")).isEqualTo(5);
+    assertThat(eventStorageService.getEventCount("DEVICE3")).isEqualTo(5);
+    assertThat(eventStorageService.getEventCount("DEVICE4")).isEqualTo(5);
+    assertThat(eventStorageService.getTotalEventCount()).isEqualTo(15);
+    assertThat(eventStorageService.queryEvents("DEVICE1", null, null, null, 100)).isEmpty();
+  }
+
+  @Test
+  void storeEvent_shouldDropProjectedStateOfEvictedDevices() {
+    // Given
+    DeviceStateProjector projector = new DeviceStateProjector();
+    eventStorageService = new EventStorageService(List.of(projector), meterRegistry, 5, 20);
+    for (int device = 0; device < 4; device++) {
+      eventStorageService.storeEvent("DEVICE" + device, request(5));
+    }
+
+    // When: DEVICE0 and DEVICE1 are evicted
+    eventStorageService.storeEvent("DEVICE4", request(5));
+
+    // Then
+    assertThat(projector.getState("DEVICE0")).isEmpty();
+    assertThat(projector.getState("DEVICE1")).isEmpty();
+    assertThat(projector.getAllStates())
+        .extracting(DeviceState::deviceId)
+        .containsExactlyInAnyOrder("DEVICE2", "DEVICE3", "DEVICE4");
+  }
+
+  @Test
+  void storeEvent_shouldPublishFootprintAndEvictionMetrics() {
+    // Given / When
+    for (int device = 0; device < 5; device++) {
+      eventStorageService.storeEvent("DEVICE" + device, request(5));
+    }
+
+    // Then
+    assertThat(meterRegistry.get("ueberboese.events.memory.events").gauge().value())
+        .isEqualTo(eventStorageService.getTotalEventCount());
+    assertThat(meterRegistry.get("ueberboese.events.memory.devices").gauge().value()).isEqualTo(3);
+    assertThat(meterRegistry.get("ueberboese.events.memory.evicted.devices").counter().count())
+        .isEqualTo(2);
+    assertThat(meterRegistry.get("ueberboese.events.memory.evicted.events").counter().count())
+        .isEqualTo(10);
+  }
+
+  @Test
+  void storeEvent_shouldNotCountEventsOverwrittenWithinDevice() {
+    // Given / When: more events than fit into the device buffer
+    eventStorageService.storeEvent("DEVICE0", request(8));
+
+    // Then
+    assertThat(eventStorageService.getTotalEventCount()).isEqualTo(5);
+  }
+
+  @Test
+  void storeEvent_shouldKeepIndexInSyncWhenDeviceIsEvictedWhileWritten() throws Exception {
+    // Given: writers to one shared device race with writers that keep forcing evictions
+    int threads = 8;
+    List<String> deviceIds = new ArrayList<>(List.of("SHARED"));
+    for (int i = 0; i < 40; i++) {
+      deviceIds.add("OTHER" + i);
+    }
+    CountDownLatch start = new CountDownLatch(1);
+    ExecutorService executor = Executors.newFixedThreadPool(threads);
+    List<Future<?>> futures = new ArrayList<>();
+
+    // When
+    for (int thread = 0; thread < threads; thread++) {
+      int offset = thread;
+      futures.add(
+          executor.submit(
+              () -> {
+                start.await();
+                for (int i = 0; i < 500; i++) {
+                  String deviceId = i % 2 == 0 ? "SHARED" : deviceIds.get((offset + i) % 40 + 1);
+                  eventStorageService.storeEvent(deviceId, request(3));
+                }
+                return null;
+              }));
+    }
+    start.countDown();
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+    executor.shutdown();
+
+    // Then: every indexed event is held in a reachable device buffer and counted exactly once
+    int buffered = deviceIds.stream().mapToInt(eventStorageService::getEventCount).sum();
+    int indexed = eventStorageService.queryEvents(null, null, null, null, Integer.MAX_VALUE).size();
+    assertThat(indexed).isEqualTo(buffered);
+    assertThat(eventStorageService.getTotalEventCount()).isEqualTo(buffered);
+  }
+
+  @Test
+  void scanAfter_shouldHideEventsBeyondRequestStillInFlight() throws Exception {
+    // Given: the first request is held in its listener while a second one completes
+    CountDownLatch inListener = new CountDownLatch(1);
+    CountDownLatch release = new CountDownLatch(1);
+    DeviceEventListener blocking =
+        events -> {
+          if (events.getFirst().deviceId().equals("SLOW")) {
+            inListener.countDown();
+            try {
+              release.await(10, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+              Thread.currentThread().interrupt();
+            }
+          }
+        };
+    eventStorageService = new EventStorageService(List.of(blocking), meterRegistry, 5, 20);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    Future<?> slow = executor.submit(() -> eventStorageService.storeEvent("SLOW", request(2)));
+    assertThat(inListener.await(10, TimeUnit.SECONDS)).isTrue();
+    eventStorageService.storeEvent("FAST", request(2));
+
+    // When
+    List<StoredDeviceEvent> whileInFlight = new ArrayList<>();
+    eventStorageService.scanAfter(null, 0, whileInFlight::add);
+    release.countDown();
+    slow.get(10, TimeUnit.SECONDS);
+    executor.shutdown();
+    List<StoredDeviceEvent> afterCommit = new ArrayList<>();
+    eventStorageService.scanAfter(null, 0, afterCommit::add);
+
+    // Then: the later request only shows up once the earlier one is committed
+    assertThat(whileInFlight).isEmpty();
+    assertThat(afterCommit)
+        .extracting(StoredDeviceEvent::deviceId)
+        .containsExactly("SLOW", "SLOW", "FAST", "FAST");
+    assertThat(eventStorageService.committedSequence()).isEqualTo(afterCommit.getLast().sequence());
+  }
+
+  @Test
+  void clearAllEvents_shouldResetFootprint() {
+    // Given
+    eventStorageService.storeEvent("DEVICE0", request(3));
+
+    // When
+    eventStorageService.clearAllEvents();
+
+    // Then
+    assertThat(eventStorageService.getTotalEventCount()).isZero();
+    assertThat(eventStorageService.getEventsForDevice("DEVICE0")).isEmpty();
+  }
+
+  @Test
+  void constructor_shouldRejectBudgetSmallerThanPerDeviceLimit() {
+    assertThatThrownBy(() -> new EventStorageService(List.of(), meterRegistry, 50, 10))
+        .isInstanceOf(IllegalArgumentException.class);
+  }
+
+  private static DeviceEventsRequestApiDto request(int eventCount) {
+    List<DeviceEventApiDto> events = new ArrayList<>();
+    for (int i = 0; i < eventCount; i++) {
+      DeviceEventApiDto event = new DeviceEventApiDto();
+      event.setType("volume-changed");
+      event.setMonoTime(i);
+      event.setTime(OffsetDateTime.now());
+      events.add(event);
+    }
+    EventPayloadApiDto payload = new EventPayloadApiDto();
+    payload.setEvents(events);
+    DeviceEventsRequestApiDto request = new DeviceEventsRequestApiDto();
+    request.setPayload(payload);
+    return request;
+  }
+}
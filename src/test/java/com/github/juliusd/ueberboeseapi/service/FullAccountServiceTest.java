@@ -29,8 +29,11 @@ import jakarta.servlet.http.HttpServletRequest;
 import java.io.IOException;
 import java.time.OffsetDateTime;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 import org.jspecify.annotations.NonNull;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -261,7 +264,7 @@ class FullAccountServiceTest {
             OffsetDateTime.now().minusDays(7),
             updatedTimestamp,
             null);
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of(spotifyAccount));
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId(spotifyAccount));
 
     // Mock account data service
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
@@ -301,7 +304,7 @@ class FullAccountServiceTest {
     SpotifyAccount spotifyAccount =
         new SpotifyAccount(
             "user123", "Test User", "new-token", OffsetDateTime.now(), OffsetDateTime.now(), null);
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of(spotifyAccount));
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId(spotifyAccount));
 
     // Mock account data service
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
@@ -336,7 +339,7 @@ class FullAccountServiceTest {
             OffsetDateTime.now(),
             OffsetDateTime.now(),
             null);
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of(differentAccount));
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId(differentAccount));
 
     // Mock account data service
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
@@ -360,7 +363,7 @@ class FullAccountServiceTest {
     response.setId(accountId);
     response.setSources(null);
 
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of());
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId());
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(response);
 
@@ -384,7 +387,7 @@ class FullAccountServiceTest {
     sources.setSource(new ArrayList<>());
     response.setSources(sources);
 
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of());
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId());
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(response);
 
@@ -425,7 +428,7 @@ class FullAccountServiceTest {
             OffsetDateTime.now(),
             OffsetDateTime.now(),
             null);
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of(spotifyAccount));
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId(spotifyAccount));
 
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(response);
@@ -475,7 +478,7 @@ class FullAccountServiceTest {
     SpotifyAccount account3 =
         new SpotifyAccount(
             "user3", "User 3", "new-token3", OffsetDateTime.now(), updatedTimestamp3, null);
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of(account1, account3));
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId(account1, account3));
 
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(response);
@@ -506,7 +509,7 @@ class FullAccountServiceTest {
         createFullAccountWithSpotifySources(spotifyUserId, originalToken);
 
     // Mock SpotifyAccountService to return empty list
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of());
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId());
 
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(response);
@@ -614,7 +617,7 @@ class FullAccountServiceTest {
             OffsetDateTime.now(),
             updatedTimestamp,
             null);
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of(spotifyAccount));
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId(spotifyAccount));
 
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(fullAccount);
@@ -641,7 +644,7 @@ class FullAccountServiceTest {
     var spotifyAccount =
         new SpotifyAccount(
             SPOTIFY_USER_ID, "Test User", newRefreshToken, now, spotifyAccountUpdatedAt, 1L);
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of(spotifyAccount));
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId(spotifyAccount));
 
     var fullAccount = createFullAccountDto(accountId);
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
@@ -760,7 +763,7 @@ class FullAccountServiceTest {
             OffsetDateTime.now(),
             updatedTimestamp,
             1L);
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of(spotifyAccount));
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId(spotifyAccount));
 
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(response);
@@ -814,7 +817,7 @@ class FullAccountServiceTest {
     response.setId(accountId);
     response.setDevices(null);
 
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of());
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId());
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(response);
 
@@ -840,7 +843,7 @@ class FullAccountServiceTest {
     fullAccount.setDevices(devices);
     fullAccount.setSources(new SourcesContainerApiDto());
 
-    when(spotifyAccountService.listAllAccounts()).thenReturn(List.of());
+    when(spotifyAccountService.getAccountsByUserId()).thenReturn(byUserId());
     when(accountDataService.hasAccountData(accountId)).thenReturn(true);
     when(accountDataService.loadFullAccountData(accountId)).thenReturn(fullAccount);
 
@@ -852,4 +855,9 @@ class FullAccountServiceTest {
     assertThat(result).isPresent();
     assertThat(result.get().getDevices().getDevice()).isEmpty();
   }
+
+  private static Map<String, SpotifyAccount> byUserId(SpotifyAccount... accounts) {
+    return Arrays.stream(accounts)
+        .collect(Collectors.toMap(SpotifyAccount::spotifyUserId, account -> account));
+  }
 }
@@ -0,0 +1,174 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.github.juliusd.ueberboeseapi.spotify.client.SpotifyOAuthClient;
+import com.github.juliusd.ueberboeseapi.spotify.dto.AuthorizationCodeCredentialsDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.OffsetDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.util.MultiValueMap;
+
+class SpotifyAccessTokenCacheTest {
+
+  private SpotifyAccountService accountService;
+  private SpotifyOAuthClient oAuthClient;
+  private SpotifyAccessTokenCache tokenCache;
+
+  @BeforeEach
+  void setUp() {
+    accountService = mock(SpotifyAccountService.class);
+    oAuthClient = mock(SpotifyOAuthClient.class);
+    OffsetDateTime now = OffsetDateTime.now();
+    when(accountService.getAccountBySpotifyUserId("user1"))
+        .thenReturn(
+            Optional.of(new SpotifyAccount("user1", "User 1", "refresh_token_1", now, now, 0L)));
+    tokenCache = tokenCache(Duration.ofMinutes(5));
+  }
+
+  @Test
+  void getCredentials_shouldRefreshOnlyOnceWhileTokenIsValid() {
+    // Given
+    when(oAuthClient.refreshAccessToken(any())).thenReturn(credentials("access_1", 3600, null));
+
+    // When
+    AuthorizationCodeCredentialsDto first = tokenCache.getCredentials("user1");
+    AuthorizationCodeCredentialsDto second = tokenCache.getCredentials("user1");
+
+    // Then
+    assertThat(first.accessToken()).isEqualTo("access_1");
+    assertThat(second.accessToken()).isEqualTo("access_1");
+    assertThat(second.expiresIn()).isBetween(3590, 3600);
+    assertThat(second.refreshToken()).isNull();
+    verify(oAuthClient, times(1)).refreshAccessToken(any());
+  }
+
+  @Test
+  void getCredentials_shouldRunASingleRefreshForConcurrentCallers() throws Exception {
+    // Given
+    CountDownLatch release = new CountDownLatch(1);
+    AtomicInteger refreshes = new AtomicInteger();
+    when(oAuthClient.refreshAccessToken(any()))
+        .thenAnswer(
+            invocation -> {
+              refreshes.incrementAndGet();
+              release.await();
+              return credentials("access_1", 3600, null);
+            });
+
+    // When
+    List<Future<AuthorizationCodeCredentialsDto>> results = new ArrayList<>();
+    try (ExecutorService executor = Executors.newFixedThreadPool(8)) {
+      for (int i = 0; i < 8; i++) {
+        results.add(executor.submit(() -> tokenCache.getCredentials("user1")));
+      }
+      Thread.sleep(200);
+      release.countDown();
+      for (Future<AuthorizationCodeCredentialsDto> result : results) {
+        assertThat(result.get().accessToken()).isEqualTo("access_1");
+      }
+    }
+
+    // Then
+    assertThat(refreshes).hasValue(1);
+  }
+
+  @Test
+  void getCredentials_shouldRefreshAheadOfExpiry() throws Exception {
+    // Given: tokens expire within the refresh-ahead window
+    when(oAuthClient.refreshAccessToken(any()))
+        .thenReturn(credentials("access_1", 120, null))
+        .thenReturn(credentials("access_2", 3600, null));
+
+    // When: the token is still valid, so it is handed out while the refresh runs in the background
+    assertThat(tokenCache.getCredentials("user1").accessToken()).isEqualTo("access_1");
+
+    // Then
+    verify(oAuthClient, timeout(5000).atLeast(2)).refreshAccessToken(any());
+    long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+    while (!"access_2".equals(tokenCache.getCredentials("user1").accessToken())
+        && System.nanoTime() < deadline) {
+      Thread.sleep(10);
+    }
+    assertThat(tokenCache.getCredentials("user1").accessToken()).isEqualTo("access_2");
+  }
+
+  @Test
+  void getCredentials_shouldStoreRotatedRefreshToken() {
+    // Given
+    when(oAuthClient.refreshAccessToken(any()))
+        .thenReturn(credentials("access_1", 3600, "refresh_token_2"));
+
+    // When
+    tokenCache.getCredentials("user1");
+
+    // Then
+    verify(accountService).updateRefreshToken("user1", "refresh_token_2");
+  }
+
+  @Test
+  void getCredentials_shouldNotStoreUnchangedRefreshToken() {
+    // Given
+    when(oAuthClient.refreshAccessToken(any()))
+        .thenReturn(credentials("access_1", 3600, "refresh_token_1"));
+
+    // When
+    tokenCache.getCredentials("user1");
+
+    // Then
+    verify(accountService, never()).updateRefreshToken(any(), any());
+  }
+
+  @Test
+  void getCredentials_shouldNotCacheFailures() {
+    // Given
+    when(oAuthClient.refreshAccessToken(any()))
+        .thenThrow(new RuntimeException("503 Service Unavailable"))
+        .thenReturn(credentials("access_1", 3600, null));
+
+    // When / Then
+    assertThatThrownBy(() -> tokenCache.getCredentials("user1"))
+        .isInstanceOf(SpotifyException.class);
+    assertThat(tokenCache.getCredentials("user1").accessToken()).isEqualTo("access_1");
+  }
+
+  @Test
+  void getCredentials_shouldFailForUnknownAccount() {
+    assertThatThrownBy(() -> tokenCache.getCredentials("unknown"))
+        .isInstanceOf(NoSpotifyAccountException.class);
+    verify(oAuthClient, never()).refreshAccessToken(any(MultiValueMap.class));
+  }
+
+  private SpotifyAccessTokenCache tokenCache(Duration refreshAhead) {
+    return new SpotifyAccessTokenCache(
+        new SpotifyAuthProperties("test-client-id", "test-client-secret"),
+        new SpotifyTokenCacheProperties(refreshAhead, Duration.ofHours(1)),
+        accountService,
+        oAuthClient,
+        new SimpleMeterRegistry());
+  }
+
+  private static AuthorizationCodeCredentialsDto credentials(
+      String accessToken, int expiresIn, String refreshToken) {
+    return new AuthorizationCodeCredentialsDto(
+        accessToken, "Bearer", expiresIn, refreshToken, "user-read-private");
+  }
+}
@@ -0,0 +1,73 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.github.juliusd.ueberboeseapi.TestBase;
+import java.time.OffsetDateTime;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+class SpotifyAccountRegistryTest extends TestBase {
+
+  @Autowired private SpotifyAccountService spotifyAccountService;
+
+  @Test
+  void snapshot_shouldUseOldestAccountAsDefault() {
+    // Given
+    var now = OffsetDateTime.now().withNano(0);
+    spotifyAccountRepository.save(account("user_middle", now.minusDays(5)));
+    spotifyAccountRepository.save(account("user_oldest", now.minusDays(10)));
+    spotifyAccountRepository.save(account("user_newest", now.minusDays(1)));
+
+    // When
+    var snapshot = spotifyAccountRegistry.snapshot();
+
+    // Then
+    assertThat(snapshot.accounts())
+        .extracting(SpotifyAccount::spotifyUserId)
+        .containsExactly("user_newest", "user_middle", "user_oldest");
+    assertThat(snapshot.defaultAccount().spotifyUserId()).isEqualTo("user_oldest");
+    assertThat(snapshot.byUserId()).containsOnlyKeys("user_newest", "user_middle", "user_oldest");
+  }
+
+  @Test
+  void snapshot_shouldFollowSavesAndDeletesWithoutReloading() {
+    // Given: the registry is loaded before the accounts are saved
+    var before = spotifyAccountRegistry.snapshot();
+    assertThat(before.defaultAccount()).isNull();
+    var now = OffsetDateTime.now().withNano(0);
+
+    // When
+    spotifyAccountRepository.save(account("user_a", now.minusDays(2)));
+    spotifyAccountRepository.save(account("user_b", now.minusDays(1)));
+    spotifyAccountRepository.deleteById("user_a");
+
+    // Then
+    var after = spotifyAccountRegistry.snapshot();
+    assertThat(after.version()).isGreaterThan(before.version());
+    assertThat(after.accounts())
+        .extracting(SpotifyAccount::spotifyUserId)
+        .containsExactly("user_b");
+    assertThat(after.defaultAccount().spotifyUserId()).isEqualTo("user_b");
+    assertThat(before.accounts()).isEmpty();
+  }
+
+  @Test
+  void findById_shouldReturnRotatedRefreshToken() {
+    // Given
+    spotifyAccountService.saveAccount("user_a", "User A", "refresh_1");
+    assertThat(spotifyAccountRegistry.findById("user_a")).isPresent();
+
+    // When
+    spotifyAccountService.updateRefreshToken("user_a", "refresh_2");
+
+    // Then
+    assertThat(spotifyAccountRegistry.findById("user_a").orElseThrow().refreshToken())
+        .isEqualTo("refresh_2");
+  }
+
+  private static SpotifyAccount account(String spotifyUserId, OffsetDateTime createdAt) {
+    return new SpotifyAccount(
+        spotifyUserId, spotifyUserId, "refresh_" + spotifyUserId, createdAt, createdAt, null);
+  }
+}
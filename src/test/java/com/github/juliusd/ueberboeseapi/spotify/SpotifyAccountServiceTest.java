@@ -1,17 +1,26 @@
 package com.github.juliusd.ueberboeseapi.spotify;
 
+import static com.github.tomakehurst.wiremock.client.WireMock.matching;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
 import static org.assertj.core.api.Assertions.assertThat;
 
 import com.github.juliusd.ueberboeseapi.TestBase;
+import com.github.tomakehurst.wiremock.junit5.WireMockRuntimeInfo;
+import com.github.tomakehurst.wiremock.junit5.WireMockTest;
 import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 
+@WireMockTest(httpPort = 8299)
 class SpotifyAccountServiceTest extends TestBase {
 
   @Autowired private SpotifyAccountService spotifyAccountService;
 
+  @Autowired private SpotifyAccessTokenCache spotifyAccessTokenCache;
+
   @Autowired private SpotifyAccountRepository repository;
 
   @Test
@@ -29,6 +38,24 @@ class SpotifyAccountServiceTest extends TestBase {
     assertThat(repository.existsBySpotifyUserId(spotifyUserId)).isTrue();
   }
 
+  @Test
+  void saveAccount_shouldDropCachedAccessTokenOfReconnectedAccount(
+      WireMockRuntimeInfo wmRuntimeInfo) {
+    // Given: an access token cached for the first authorization
+    stubRefresh(wmRuntimeInfo, "refresh_token_old", "access_token_old");
+    stubRefresh(wmRuntimeInfo, "refresh_token_new", "access_token_new");
+    spotifyAccountService.saveAccount("spotify_user_789", "User", "refresh_token_old");
+    assertThat(spotifyAccessTokenCache.getCredentials("spotify_user_789").accessToken())
+        .isEqualTo("access_token_old");
+
+    // When: the account is connected again
+    spotifyAccountService.saveAccount("spotify_user_789", "User", "refresh_token_new");
+
+    // Then
+    assertThat(spotifyAccessTokenCache.getCredentials("spotify_user_789").accessToken())
+        .isEqualTo("access_token_new");
+  }
+
   @Test
   void getAccountBySpotifyUserId_shouldReturnAccountWhenExists() {
     // Given
@@ -124,4 +151,25 @@ class SpotifyAccountServiceTest extends TestBase {
     assertThat(accounts.get(1).spotifyUserId()).isEqualTo("user2");
     assertThat(accounts.get(2).spotifyUserId()).isEqualTo("user1");
   }
+
+  private static void stubRefresh(
+      WireMockRuntimeInfo wmRuntimeInfo, String refreshToken, String accessToken) {
+    wmRuntimeInfo
+        .getWireMock()
+        .register(
+            post(urlEqualTo("/api/token"))
+                .withRequestBody(matching(".*grant_type=refresh_token.*"))
+                .withRequestBody(matching(".*refresh_token=" + refreshToken + ".*"))
+                .willReturn(
+                    okJson(
+                        """
+                        {
+                          "access_token": "%s",
+                          "token_type": "Bearer",
+                          "expires_in": 3600,
+                          "scope": "user-read-private"
+                        }
+                        """
+                            .formatted(accessToken))));
+  }
 }
@@ -0,0 +1,196 @@
+package com.github.juliusd.ueberboeseapi.spotify;
+
+import static com.github.tomakehurst.wiremock.client.WireMock.aResponse;
+import static com.github.tomakehurst.wiremock.client.WireMock.get;
+import static com.github.tomakehurst.wiremock.client.WireMock.getRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.okJson;
+import static com.github.tomakehurst.wiremock.client.WireMock.post;
+import static com.github.tomakehurst.wiremock.client.WireMock.postRequestedFor;
+import static com.github.tomakehurst.wiremock.client.WireMock.urlEqualTo;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.github.tomakehurst.wiremock.WireMockServer;
+import com.github.tomakehurst.wiremock.client.ResponseDefinitionBuilder;
+import com.github.tomakehurst.wiremock.core.WireMockConfiguration;
+import com.github.tomakehurst.wiremock.stubbing.Scenario;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestClient;
+
+class SpotifyResilienceInterceptorTest {
+
+  private static WireMockServer wireMockServer;
+
+  private final AtomicLong nanoTime = new AtomicLong();
+  private SimpleMeterRegistry meterRegistry;
+  private SpotifyCircuitBreakers circuitBreakers;
+  private RestClient restClient;
+
+  @BeforeAll
+  static void setupWireMock() {
+    wireMockServer = new WireMockServer(WireMockConfiguration.wireMockConfig().dynamicPort());
+    wireMockServer.start();
+  }
+
+  @AfterAll
+  static void teardownWireMock() {
+    if (wireMockServer != null) {
+      wireMockServer.stop();
+    }
+  }
+
+  @BeforeEach
+  void setUp() {
+    wireMockServer.resetAll();
+    meterRegistry = new SimpleMeterRegistry();
+    SpotifyResilienceProperties properties =
+        new SpotifyResilienceProperties(
+            Duration.ofSeconds(1),
+            Duration.ofMillis(300),
+            3,
+            Duration.ofMillis(10),
+            Duration.ofMillis(20),
+            Duration.ofSeconds(2),
+            3,
+            Duration.ofSeconds(30));
+    circuitBreakers = new SpotifyCircuitBreakers(properties, meterRegistry, nanoTime::get);
+    restClient =
+        RestClient.builder()
+            .baseUrl(wireMockServer.baseUrl())
+            .requestFactory(SpotifyHttpServiceConfig.requestFactory(properties))
+            .requestInterceptor(
+                new SpotifyResilienceInterceptor("api", properties, circuitBreakers, meterRegistry))
+            .build();
+  }
+
+  @Test
+  void intercept_shouldRetryServerErrorsOfGetRequests() {
+    // Given
+    stubSequence("/v1/tracks/1", aResponse().withStatus(503), okJson("{\"name\": \"Track\"}"));
+
+    // When
+    String body = restClient.get().uri("/v1/tracks/1").retrieve().body(String.class);
+
+    // Then
+    assertThat(body).contains("Track");
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/v1/tracks/1")));
+    assertThat(
+            meterRegistry
+                .counter("ueberboese.spotify.retries", "client", "api", "reason", "503")
+                .count())
+        .isEqualTo(1);
+  }
+
+  @Test
+  void intercept_shouldHonourRetryAfter() {
+    // Given
+    stubSequence(
+        "/v1/tracks/1",
+        aResponse().withStatus(429).withHeader("Retry-After", "1"),
+        okJson("{\"name\": \"Track\"}"));
+
+    // When
+    long start = System.nanoTime();
+    restClient.get().uri("/v1/tracks/1").retrieve().body(String.class);
+
+    // Then
+    assertThat(Duration.ofNanos(System.nanoTime() - start))
+        .isGreaterThanOrEqualTo(Duration.ofSeconds(1));
+    wireMockServer.verify(2, getRequestedFor(urlEqualTo("/v1/tracks/1")));
+  }
+
+  @Test
+  void intercept_shouldNotWaitForLongRetryAfter() {
+    // Given
+    wireMockServer.stubFor(
+        get(urlEqualTo("/v1/tracks/1"))
+            .willReturn(aResponse().withStatus(429).withHeader("Retry-After", "3600")));
+
+    // When / Then
+    assertThatThrownBy(() -> restClient.get().uri("/v1/tracks/1").retrieve().body(String.class))
+        .hasMessageContaining("429");
+    wireMockServer.verify(1, getRequestedFor(urlEqualTo("/v1/tracks/1")));
+  }
+
+  @Test
+  void intercept_shouldNotRetryServerErrorsOfPostRequests() {
+    // Given
+    wireMockServer.stubFor(post(urlEqualTo("/api/token")).willReturn(aResponse().withStatus(502)));
+
+    // When / Then
+    assertThatThrownBy(() -> restClient.post().uri("/api/token").retrieve().body(String.class))
+        .hasMessageContaining("502");
+    wireMockServer.verify(1, postRequestedFor(urlEqualTo("/api/token")));
+  }
+
+  @Test
+  void intercept_shouldTimeOutSlowResponses() {
+    // Given
+    wireMockServer.stubFor(
+        get(urlEqualTo("/v1/tracks/1")).willReturn(okJson("{}").withFixedDelay(2000)));
+
+    // When / Then
+    long start = System.nanoTime();
+    assertThatThrownBy(() -> restClient.get().uri("/v1/tracks/1").retrieve().body(String.class))
+        .isInstanceOf(ResourceAccessException.class);
+    assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofMillis(1800));
+    wireMockServer.verify(3, getRequestedFor(urlEqualTo("/v1/tracks/1")));
+  }
+
+  @Test
+  void intercept_shouldOpenCircuitAfterConsecutiveFailuresAndCloseAfterTrial() {
+    // Given
+    wireMockServer.stubFor(get(urlEqualTo("/v1/tracks/1")).willReturn(aResponse().withStatus(500)));
+    for (int i = 0; i < 3; i++) {
+      assertThatThrownBy(() -> restClient.get().uri("/v1/tracks/1").retrieve().body(String.class))
+          .hasMessageContaining("500");
+    }
+    wireMockServer.resetRequests();
+
+    // When / Then: the open circuit rejects calls without reaching Spotify
+    assertThatThrownBy(() -> restClient.get().uri("/v1/tracks/1").retrieve().body(String.class))
+        .isInstanceOf(SpotifyException.class)
+        .hasMessageContaining("circuit api is open");
+    wireMockServer.verify(0, getRequestedFor(urlEqualTo("/v1/tracks/1")));
+    assertThat(circuitState()).isEqualTo(2);
+
+    // When / Then: after the open duration a successful trial call closes it
+    wireMockServer.stubFor(get(urlEqualTo("/v1/tracks/1")).willReturn(okJson("{}")));
+    nanoTime.addAndGet(Duration.ofSeconds(31).toNanos());
+    assertThat(circuitState()).isEqualTo(1);
+    restClient.get().uri("/v1/tracks/1").retrieve().body(String.class);
+    assertThat(circuitState()).isEqualTo(0);
+    assertThat(
+            meterRegistry
+                .counter("ueberboese.spotify.requests", "client", "api", "outcome", "rejected")
+                .count())
+        .isEqualTo(1);
+  }
+
+  private double circuitState() {
+    return meterRegistry
+        .get("ueberboese.spotify.circuit.state")
+        .tag("client", "api")
+        .gauge()
+        .value();
+  }
+
+  private static void stubSequence(
+      String url, ResponseDefinitionBuilder first, ResponseDefinitionBuilder second) {
+    wireMockServer.stubFor(
+        get(urlEqualTo(url))
+            .inScenario(url)
+            .whenScenarioStateIs(Scenario.STARTED)
+            .willReturn(first)
+            .willSetStateTo("second"));
+    wireMockServer.stubFor(
+        get(urlEqualTo(url)).inScenario(url).whenScenarioStateIs("second").willReturn(second));
+  }
+}
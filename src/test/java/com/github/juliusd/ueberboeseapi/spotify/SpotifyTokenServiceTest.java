@@ -5,8 +5,10 @@ import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.when;
 
 import com.github.juliusd.ueberboeseapi.generated.dtos.OAuthTokenRequestApiDto;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
 import java.time.OffsetDateTime;
-import java.util.List;
+import java.util.Optional;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
@@ -26,31 +28,27 @@ class SpotifyTokenServiceTest {
     var spotifyAuthProperties = new SpotifyAuthProperties("test-client-id", "test-client-secret");
     var mockOAuthClient =
         mock(com.github.juliusd.ueberboeseapi.spotify.client.SpotifyOAuthClient.class);
+    var tokenCache =
+        new SpotifyAccessTokenCache(
+            spotifyAuthProperties,
+            new SpotifyTokenCacheProperties(Duration.ofMinutes(5), Duration.ofHours(1)),
+            mockAccountService,
+            mockOAuthClient,
+            new SimpleMeterRegistry());
     spotifyTokenService =
-        new SpotifyTokenService(spotifyAuthProperties, mockAccountService, mockOAuthClient);
+        new SpotifyTokenService(spotifyAuthProperties, mockAccountService, tokenCache);
   }
 
   @Test
-  void loadSpotifyAuth_shouldSelectOldestAccount() {
-    // Given: Three accounts with different creation times
-    OffsetDateTime newest = OffsetDateTime.now().minusDays(1);
-    SpotifyAccount newestAccount =
-        new SpotifyAccount(
-            "user_newest", "Newest User", "refresh_token_newest", newest, newest, 0L);
-
-    OffsetDateTime middle = OffsetDateTime.now().minusDays(5);
-    SpotifyAccount middleAccount =
-        new SpotifyAccount(
-            "user_middle", "Middle User", "refresh_token_middle", middle, middle, 0L);
-
+  void loadSpotifyAuth_shouldUseDefaultAccount() {
+    // Given: The oldest account is the default, see SpotifyAccountRegistryTest
     OffsetDateTime oldest = OffsetDateTime.now().minusDays(10);
     SpotifyAccount oldestAccount =
         new SpotifyAccount(
             "user_oldest", "Oldest User", "refresh_token_oldest", oldest, oldest, 0L);
 
-    // listAllAccounts returns sorted by createdAt descending (newest first)
-    List<SpotifyAccount> accounts = List.of(newestAccount, middleAccount, oldestAccount);
-    when(mockAccountService.listAllAccounts()).thenReturn(accounts);
+    // The account service provides the oldest account as default
+    when(mockAccountService.getDefaultAccount()).thenReturn(Optional.of(oldestAccount));
 
     // When/Then: We can verify that the method tries to use the oldest account
     // by checking that it doesn't throw NoSpotifyAccountException
@@ -70,7 +68,7 @@ class SpotifyTokenServiceTest {
   @Test
   void loadSpotifyAuth_shouldThrowExceptionWhenNoAccounts() {
     // Given: No accounts exist
-    when(mockAccountService.listAllAccounts()).thenReturn(List.of());
+    when(mockAccountService.getDefaultAccount()).thenReturn(Optional.empty());
 
     // When/Then
     OAuthTokenRequestApiDto request = new OAuthTokenRequestApiDto();
@@ -85,7 +83,7 @@ class SpotifyTokenServiceTest {
   @Test
   void loadSpotifyAuth_shouldThrowExceptionWhenAccountServiceFails() {
     // Given: Account service throws RuntimeException
-    when(mockAccountService.listAllAccounts()).thenThrow(new RuntimeException("Database error"));
+    when(mockAccountService.getDefaultAccount()).thenThrow(new RuntimeException("Database error"));
 
     // When/Then
     OAuthTokenRequestApiDto request = new OAuthTokenRequestApiDto();
@@ -103,7 +101,7 @@ class SpotifyTokenServiceTest {
     SpotifyAccount singleAccount =
         new SpotifyAccount("user_single", "Single User", "refresh_token_single", now, now, 0L);
 
-    when(mockAccountService.listAllAccounts()).thenReturn(List.of(singleAccount));
+    when(mockAccountService.getDefaultAccount()).thenReturn(Optional.of(singleAccount));
 
     // When/Then
     OAuthTokenRequestApiDto request = new OAuthTokenRequestApiDto();